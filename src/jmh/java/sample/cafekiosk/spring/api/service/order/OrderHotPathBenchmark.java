@@ -0,0 +1,96 @@
+package sample.cafekiosk.spring.api.service.order;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import sample.cafekiosk.spring.api.service.product.ProductLookupBatcher;
+import sample.cafekiosk.spring.api.service.product.ProductNumberFilter;
+import sample.cafekiosk.spring.api.service.product.ProductSnapshotCache;
+import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductRepository;
+import sample.cafekiosk.spring.domain.product.ProductSnapshot;
+import sample.cafekiosk.spring.domain.product.ProductType;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sample.cafekiosk.spring.domain.product.ProductType.BAKERY;
+import static sample.cafekiosk.spring.domain.product.ProductType.BOTTLE;
+import static sample.cafekiosk.spring.domain.product.ProductType.HANDMADE;
+
+/**
+ * 주문 등록에서 DB 에 가기 전까지 (상품 스냅샷 캐시 -> 재고 수량 counting) 의 주문당 할당량을 잰다.
+ * ./gradlew jmh 로 실행하면 gc profiler 의 gc.alloc.rate.norm 이 build.gradle 의 예산을 넘을 때 빌드가 실패한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderHotPathBenchmark {
+
+    private ProductSnapshotCache productSnapshotCache;
+    private List<String> productNumbers;
+
+    @Setup
+    public void setUp() {
+        List<Product> products = List.of(
+                createProduct(HANDMADE, "001"),
+                createProduct(BOTTLE, "002"),
+                createProduct(BAKERY, "003")
+        );
+        ProductRepository productRepository = stubRepository(products);
+
+        ProductNumberFilter productNumberFilter = new ProductNumberFilter(productRepository, true, 1000, 0.01);
+        productNumberFilter.start();
+        ProductLookupBatcher productLookupBatcher = new ProductLookupBatcher(productRepository, new DataSourceProperties(),
+                false, Duration.ofMillis(1), 100, Duration.ofMillis(100));
+        productSnapshotCache = new ProductSnapshotCache(productLookupBatcher, productNumberFilter, 1000, Duration.ofMinutes(10));
+
+        productNumbers = List.of("001", "002", "002", "003");
+        productSnapshotCache.findAllByProductNumberIn(productNumbers);
+    }
+
+    @Benchmark
+    public Map<String, Integer> createOrderHotPath() {
+        Map<String, ProductSnapshot> productMap = productSnapshotCache.findAllByProductNumberIn(productNumbers);
+        return OrderStockQuantities.count(OrderStockQuantities.toOrderedProducts(productNumbers, productMap),
+                ProductSnapshot::getType, ProductSnapshot::getProductNumber);
+    }
+
+    private static ProductRepository stubRepository(List<Product> products) {
+        List<String> productNumbers = products.stream()
+                .map(Product::getProductNumber)
+                .collect(Collectors.toList());
+        return (ProductRepository) Proxy.newProxyInstance(ProductRepository.class.getClassLoader(),
+                new Class<?>[]{ProductRepository.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findAllProductNumbers":
+                            return productNumbers;
+                        case "findAllByProductNumberIn":
+                            return products;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static Product createProduct(ProductType type, String productNumber) {
+        return Product.builder()
+                .productNumber(productNumber)
+                .type(type)
+                .sellingStatus(SELLING)
+                .name("메뉴 이름")
+                .price(1000)
+                .build();
+    }
+}
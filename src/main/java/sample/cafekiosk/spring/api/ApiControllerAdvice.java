@@ -1,11 +1,15 @@
 package sample.cafekiosk.spring.api;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import sample.cafekiosk.spring.api.limit.ConcurrencyLimitExceededException;
+import sample.cafekiosk.spring.domain.order.OrderStatusTransitionException;
 
 
 @Slf4j
@@ -21,4 +25,39 @@ public class ApiControllerAdvice {
                 null
         );
     }
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ApiResponse<Object> illegalArgumentException(IllegalArgumentException e) {
+        return ApiResponse.of(
+                HttpStatus.BAD_REQUEST,
+                e.getMessage(),
+                null
+        );
+    }
+
+    /**
+     * 요청은 올바르지만 현재 주문 상태에서 처리할 수 없는 경우 (이미 결제된 주문의 재결제, 만료된 주문의 취소 등)
+     * 그 밖의 IllegalStateException 은 서버 내부 오류이므로 409 로 바꾸지 않는다.
+     */
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(OrderStatusTransitionException.class)
+    public ApiResponse<Object> orderStatusTransitionException(OrderStatusTransitionException e) {
+        return ApiResponse.of(
+                HttpStatus.CONFLICT,
+                e.getMessage(),
+                null
+        );
+    }
+
+    /**
+     * 동시 처리 한도를 넘은 요청은 기다리게 하지 않고 바로 503 과 재시도 시점(초)을 돌려준다.
+     */
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public ResponseEntity<ApiResponse<Object>> concurrencyLimitExceeded(ConcurrencyLimitExceededException e) {
+        long retryAfterSeconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(ApiResponse.of(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), null));
+    }
 }
@@ -2,28 +2,94 @@ package sample.cafekiosk.spring.api.controller.order;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import sample.cafekiosk.spring.api.ApiResponse;
+import sample.cafekiosk.spring.api.controller.order.request.OrderBatchCreateRequest;
 import sample.cafekiosk.spring.api.controller.order.request.OrderCreateRequest;
+import sample.cafekiosk.spring.api.service.order.OrderBatchService;
+import sample.cafekiosk.spring.api.service.order.OrderGroupCommitWriter;
+import sample.cafekiosk.spring.api.service.order.OrderIdempotencyService;
 import sample.cafekiosk.spring.api.service.order.OrderService;
+import sample.cafekiosk.spring.api.service.order.SalesReportService;
+import sample.cafekiosk.spring.api.service.order.response.OrderBatchResultResponse;
 import sample.cafekiosk.spring.api.service.order.response.OrderResponse;
+import sample.cafekiosk.spring.api.service.order.response.SalesReportResponse;
 
 import javax.validation.Valid;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Slf4j
 @RestController
 @RequiredArgsConstructor
 public class OrderController {
 
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final OrderService orderService;
+    private final OrderBatchService orderBatchService;
+    private final OrderIdempotencyService orderIdempotencyService;
+    private final ObjectProvider<OrderGroupCommitWriter> orderGroupCommitWriter;
+    private final SalesReportService salesReportService;
 
     @PostMapping("/api/v1/orders/new")
-    public ApiResponse<OrderResponse> createOrder(@Valid @RequestBody OrderCreateRequest request) {
+    public ApiResponse<OrderResponse> createOrder(@RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                                  @Valid @RequestBody OrderCreateRequest request) {
         LocalDateTime registeredDateTime =  LocalDateTime.now();
-        OrderResponse order = orderService.createOrder(request.toServiceRequest(), registeredDateTime);
+
+        // 키오스크가 응답을 못 받고 재시도하는 경우 같은 키로 이미 등록된 주문을 돌려준다.
+        if (idempotencyKey != null) {
+            return ApiResponse.ok(orderIdempotencyService.createOrder(idempotencyKey, request.toServiceRequest(), registeredDateTime));
+        }
+
+        // group commit 이 켜져 있으면 동시에 들어온 주문들과 함께 한 트랜잭션으로 커밋
+        OrderGroupCommitWriter writer = orderGroupCommitWriter.getIfAvailable();
+        OrderResponse order = writer != null
+                ? writer.createOrder(request.toServiceRequest(), registeredDateTime)
+                : orderService.createOrder(request.toServiceRequest(), registeredDateTime);
         return ApiResponse.ok(order);
     }
+
+    /**
+     * 연결이 끊겼던 키오스크가 쌓아둔 주문을 한 번에 올린다.
+     * 일부 주문이 실패하더라도 나머지 주문은 등록되며, 주문별 결과를 요청 순서대로 돌려준다.
+     */
+    @PostMapping("/api/v1/orders/batch")
+    public ApiResponse<List<OrderBatchResultResponse>> createOrders(@Valid @RequestBody OrderBatchCreateRequest request) {
+        LocalDateTime registeredDateTime = LocalDateTime.now();
+        return ApiResponse.ok(orderBatchService.createOrders(request.toServiceRequests(), registeredDateTime));
+    }
+
+    @PostMapping("/api/v1/orders/{orderId}/payment")
+    public ApiResponse<OrderResponse> completePayment(@PathVariable Long orderId) {
+        return ApiResponse.ok(orderService.completePayment(orderId, LocalDateTime.now()));
+    }
+
+    @PostMapping("/api/v1/orders/{orderId}/payment-failure")
+    public ApiResponse<OrderResponse> failPayment(@PathVariable Long orderId) {
+        return ApiResponse.ok(orderService.failPayment(orderId));
+    }
+
+    @PostMapping("/api/v1/orders/{orderId}/cancel")
+    public ApiResponse<OrderResponse> cancelOrder(@PathVariable Long orderId) {
+        return ApiResponse.ok(orderService.cancelOrder(orderId));
+    }
+
+    /**
+     * 기간(두 날짜 포함) 동안 결제 완료된 주문의 상품별 / 상품 타입별 매출
+     */
+    @GetMapping("/api/v1/orders/sales-report")
+    public ApiResponse<SalesReportResponse> getSalesReport(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ApiResponse.ok(salesReportService.getSalesReport(startDate, endDate));
+    }
 }
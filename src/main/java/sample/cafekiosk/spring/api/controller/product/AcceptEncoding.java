@@ -0,0 +1,50 @@
+package sample.cafekiosk.spring.api.controller.product;
+
+/**
+ * Accept-Encoding 헤더로 압축한 메뉴 응답(SellingProductsPayload 의 gzip 본)을 내려줄지 정한다.
+ */
+final class AcceptEncoding {
+
+    private AcceptEncoding() {
+    }
+
+    /**
+     * Accept-Encoding 의 q 값이 0 보다 큰 gzip 이 있어야 압축본을 내려준다. (gzip;q=0 은 거절)
+     * gzip 이 직접 적혀 있으면 그 q 값을, 없으면 * 의 q 값을 따른다.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = qualityOf(parts);
+            } else if (coding.equals("*")) {
+                wildcardQuality = qualityOf(parts);
+            }
+        }
+
+        Double quality = gzipQuality != null ? gzipQuality : wildcardQuality;
+        return quality != null && quality > 0;
+    }
+
+    // q 가 없으면 1, 잘못된 q 는 받지 않는 것(0)으로 본다.
+    private static double qualityOf(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 1 && Character.toLowerCase(parameter.charAt(0)) == 'q' && parameter.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
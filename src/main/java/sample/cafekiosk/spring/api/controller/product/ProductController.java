@@ -1,32 +1,119 @@
 package sample.cafekiosk.spring.api.controller.product;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import sample.cafekiosk.spring.api.ApiResponse;
 import sample.cafekiosk.spring.api.controller.product.dto.request.ProductCreateRequest;
+import sample.cafekiosk.spring.api.controller.product.dto.request.ProductSellingStatusChangeRequest;
+import sample.cafekiosk.spring.api.service.product.ProductChangeService;
+import sample.cafekiosk.spring.api.service.product.ProductImportService;
 import sample.cafekiosk.spring.api.service.product.ProductService;
+import sample.cafekiosk.spring.api.service.product.response.ProductChangesResponse;
+import sample.cafekiosk.spring.api.service.product.response.ProductImportResponse;
 import sample.cafekiosk.spring.api.service.product.response.ProductResponse;
 
 import javax.validation.Valid;
-import java.util.List;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 
 @RestController
 @RequiredArgsConstructor
 public class ProductController {
 
     private final ProductService productService;
+    private final SellingProductsPayloadCache sellingProductsPayloadCache;
+    private final ProductChangeService productChangeService;
+    private final ProductEventStream productEventStream;
+    private final ProductImportService productImportService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
     @PostMapping("/api/v1/products/new")
     public ApiResponse<ProductResponse> createProduct(@Valid @RequestBody ProductCreateRequest request){
         return ApiResponse.ok(productService.createProduct(request.toServiceRequest()));
     }
 
+    /**
+     * JSONL(application/x-ndjson) 또는 CSV(text/csv, 첫 줄은 헤더) 로 상품을 한 번에 등록한다.
+     * 본문을 한 줄씩 읽으면서 등록하므로 파일 크기와 상관없이 메모리를 일정하게 쓴다.
+     */
+    @PostMapping(value = "/api/v1/products/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ApiResponse<ProductImportResponse> importProducts(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                             InputStream body) throws IOException {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        Charset charset = mediaType.getCharset() != null ? mediaType.getCharset() : StandardCharsets.UTF_8;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, charset))) {
+            ProductImportReader rows = ProductImportReader.of(reader, mediaType, objectMapper, validator);
+            return ApiResponse.ok(productImportService.importProducts(rows));
+        }
+    }
+
+    @PostMapping("/api/v1/products/{productNumber}/selling-status")
+    public ApiResponse<ProductResponse> changeSellingStatus(@PathVariable String productNumber,
+                                                            @Valid @RequestBody ProductSellingStatusChangeRequest request){
+        return ApiResponse.ok(productService.changeSellingStatus(productNumber, request.getSellingStatus()));
+    }
+
+    /**
+     * 키오스크가 주기적으로 메뉴를 조회하므로, 미리 직렬화해 둔 응답을 그대로 내려준다.
+     * If-None-Match 가 현재 ETag 와 같으면 본문 없이 304 를 돌려준다.
+     */
     @GetMapping("/api/v1/products/selling")
-    public ApiResponse<List<ProductResponse>> getSellingProduct(){
-        return ApiResponse.ok(productService.getSellingProducts());
+    public ResponseEntity<byte[]> getSellingProduct(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                    WebRequest webRequest){
+        SellingProductsPayload payload = sellingProductsPayloadCache.get();
+        boolean gzipped = payload.hasGzip() && AcceptEncoding.acceptsGzip(acceptEncoding);
+
+        String etag = payload.getEtag(gzipped);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzipped) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(payload.getBody(gzipped));
+    }
+
+    /**
+     * since 이후에 등록/변경/판매중지된 상품과 다음에 보낼 cursor 를 돌려준다.
+     * since 가 없으면 처음부터 (전체 상품) 내려준다.
+     */
+    @GetMapping("/api/v1/products/changes")
+    public ApiResponse<ProductChangesResponse> getProductChanges(@RequestParam(required = false) String since){
+        return ApiResponse.ok(productChangeService.getChanges(since, LocalDateTime.now()));
     }
 
+    /**
+     * 메뉴 polling 대신 상품 변경 / 품절 이벤트를 SSE 로 받는다.
+     * 재연결할 때 Last-Event-ID 를 보내면 그 이후 이벤트부터 이어서 받는다.
+     */
+    @GetMapping(value = "/api/v1/products/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamProductEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId){
+        return productEventStream.subscribe(lastEventId);
+    }
 }
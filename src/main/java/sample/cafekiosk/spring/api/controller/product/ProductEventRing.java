@@ -0,0 +1,91 @@
+package sample.cafekiosk.spring.api.controller.product;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 최근 상품 이벤트를 고정 크기 배열에 순서대로 담아 두는 ring buffer
+ * 모든 구독자가 같은 배열을 자기 위치(sequence)부터 읽어가므로 구독자 수만큼 이벤트를 복사하지 않는다.
+ * 이벤트 id 는 "서버 기동 시각-sequence" 형태라서 재시작 전의 Last-Event-ID 는 이어받지 않는다.
+ */
+class ProductEventRing {
+
+    private final ProductStreamEvent[] events;
+    private final String epoch;
+    private long lastSequence;
+    private boolean signalled;
+
+    ProductEventRing(int capacity, String epoch) {
+        this.events = new ProductStreamEvent[capacity];
+        this.epoch = epoch;
+    }
+
+    synchronized ProductStreamEvent append(String type, List<String> productNumbers) {
+        ProductStreamEvent event = new ProductStreamEvent(++lastSequence, type, List.copyOf(productNumbers));
+        events[indexOf(event.getSequence())] = event;
+        signal();
+        return event;
+    }
+
+    synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * sequence 다음 이벤트들을 순서대로 돌려준다.
+     * 이미 덮어써서 빠진 이벤트가 있으면 null 을 돌려준다.
+     */
+    synchronized List<ProductStreamEvent> readAfter(long sequence) {
+        if (sequence > lastSequence || lastSequence - sequence > events.length) {
+            return null;
+        }
+
+        List<ProductStreamEvent> result = new ArrayList<>((int) (lastSequence - sequence));
+        for (long next = sequence + 1; next <= lastSequence; next++) {
+            result.add(events[indexOf(next)]);
+        }
+        return result;
+    }
+
+    /**
+     * 새 이벤트가 들어오거나 signal() 이 호출되거나 timeout 이 지날 때까지 기다린다.
+     */
+    synchronized void await(long timeoutMillis) throws InterruptedException {
+        if (!signalled) {
+            wait(timeoutMillis);
+        }
+        signalled = false;
+    }
+
+    synchronized void signal() {
+        signalled = true;
+        notifyAll();
+    }
+
+    String idOf(ProductStreamEvent event) {
+        return epoch + "-" + event.getSequence();
+    }
+
+    String idOf(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    /**
+     * 이 서버가 발급한 Last-Event-ID 면 sequence 를, 아니면 -1 을 돌려준다.
+     */
+    long sequenceOf(String lastEventId) {
+        String prefix = epoch + "-";
+        if (lastEventId == null || !lastEventId.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private int indexOf(long sequence) {
+        return (int) (sequence % events.length);
+    }
+}
@@ -0,0 +1,263 @@
+package sample.cafekiosk.spring.api.controller.product;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import sample.cafekiosk.spring.domain.product.ProductChangedEvent;
+import sample.cafekiosk.spring.domain.stock.StockSoldOutEvent;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 연결된 키오스크들에 상품 변경 / 품절 이벤트를 SSE 로 push 한다.
+ * 연결은 비동기 서블릿(SseEmitter)으로 유지하므로 대기 중인 연결이 요청 스레드를 잡고 있지 않고,
+ * 이벤트는 ring buffer 에 한 번만 쌓은 뒤 dispatcher 스레드 하나가 구독자마다 자기 위치부터 읽어서 구독자의 queue 에 넣는다.
+ * 실제 전송(SseEmitter.send)은 sender 스레드들이 구독자별로 한 번에 하나씩 하므로, 느린 키오스크가 다른 키오스크를 막지 않는다.
+ * queue 가 가득 차면 남은 이벤트는 ring buffer 에서 기다리고, 그 사이 ring buffer 에서도 밀려난 구독자는 연결을 끊는다.
+ * 재연결 시 Last-Event-ID 이후의 이벤트가 ring buffer 에 남아 있으면 이어서 보내고, 없으면 reset 을 보낸다.
+ */
+@Slf4j
+@Component
+public class ProductEventStream implements SmartLifecycle {
+
+    private final ProductEventRing ring;
+    private final long timeoutMillis;
+    private final long heartbeatNanos;
+    private final int senderThreads;
+    private final int queueCapacity;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private Thread dispatcher;
+    private ExecutorService senders;
+    private volatile boolean running;
+
+    public ProductEventStream(@Value("${cafekiosk.product.stream.buffer-size:1024}") int bufferSize,
+                              @Value("${cafekiosk.product.stream.timeout:30m}") Duration timeout,
+                              @Value("${cafekiosk.product.stream.heartbeat:15s}") Duration heartbeat,
+                              @Value("${cafekiosk.product.stream.sender-threads:4}") int senderThreads,
+                              @Value("${cafekiosk.product.stream.subscriber-queue-size:64}") int queueCapacity) {
+        if (senderThreads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("sender 스레드 수와 구독자 queue 크기는 1 이상이어야 합니다.");
+        }
+        this.ring = new ProductEventRing(bufferSize, Long.toString(System.currentTimeMillis(), 36));
+        this.timeoutMillis = timeout.toMillis();
+        this.heartbeatNanos = heartbeat.toNanos();
+        this.senderThreads = senderThreads;
+        this.queueCapacity = queueCapacity;
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        register(emitter, lastEventId);
+        return emitter;
+    }
+
+    void register(SseEmitter emitter, String lastEventId) {
+        Subscriber subscriber = createSubscriber(emitter, lastEventId);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        // 밀린 이벤트나 reset 을 바로 보내도록 dispatcher 를 깨운다.
+        ring.signal();
+    }
+
+    private Subscriber createSubscriber(SseEmitter emitter, String lastEventId) {
+        if (lastEventId == null) {
+            return new Subscriber(emitter, ring.lastSequence(), false, queueCapacity);
+        }
+
+        long sequence = ring.sequenceOf(lastEventId);
+        if (sequence < 0 || ring.readAfter(sequence) == null) {
+            return new Subscriber(emitter, ring.lastSequence(), true, queueCapacity);
+        }
+        return new Subscriber(emitter, sequence, false, queueCapacity);
+    }
+
+    // 메뉴 캐시가 먼저 갱신된 뒤에 알려야 키오스크가 바뀐 메뉴를 받아간다.
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        ring.append(ProductStreamEvent.CATALOG, event.getProductNumbers());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onStockSoldOut(StockSoldOutEvent event) {
+        ring.append(ProductStreamEvent.STOCK_OUT, event.getProductNumbers());
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private void runDispatcher() {
+        long lastHeartbeat = System.nanoTime();
+        while (running) {
+            try {
+                ring.await(TimeUnit.NANOSECONDS.toMillis(heartbeatNanos));
+            } catch (InterruptedException e) {
+                continue;
+            }
+
+            boolean heartbeat = System.nanoTime() - lastHeartbeat >= heartbeatNanos;
+            for (Subscriber subscriber : subscribers) {
+                deliver(subscriber, heartbeat);
+            }
+            if (heartbeat) {
+                lastHeartbeat = System.nanoTime();
+            }
+        }
+    }
+
+    // dispatcher 스레드에서만 호출되므로 구독자의 sequence 는 dispatcher 만 바꾼다.
+    private void deliver(Subscriber subscriber, boolean heartbeat) {
+        List<ProductStreamEvent> events = ring.readAfter(subscriber.sequence);
+        if (events == null && !subscriber.outbox.isEmpty()) {
+            // 보내던 이벤트가 밀려 있는 동안 ring buffer 에서도 밀려났으면, 전송이 이벤트를 따라가지 못하는 구독자이므로 끊는다.
+            log.warn("이벤트 전송이 밀린 구독자의 연결을 끊습니다.");
+            drop(subscriber, null);
+            return;
+        }
+        if (subscriber.resetPending || events == null) {
+            // 너무 늦게 읽어서 놓친 이벤트가 있으면 처음부터 다시 받게 한다.
+            subscriber.sequence = ring.lastSequence();
+            subscriber.resetPending = false;
+            enqueue(subscriber, SseEmitter.event()
+                    .id(ring.idOf(subscriber.sequence))
+                    .name(ProductStreamEvent.RESET)
+                    .data(new ProductStreamEvent(subscriber.sequence, ProductStreamEvent.RESET, List.of()), MediaType.APPLICATION_JSON));
+            return;
+        }
+
+        for (ProductStreamEvent event : events) {
+            // queue 가 가득 차면 남은 이벤트는 ring buffer 에 두고, queue 가 비워진 뒤에 이어서 넣는다.
+            if (!enqueue(subscriber, SseEmitter.event()
+                    .id(ring.idOf(event))
+                    .name(event.getType())
+                    .data(event, MediaType.APPLICATION_JSON))) {
+                return;
+            }
+            subscriber.sequence = event.getSequence();
+        }
+
+        // 프록시가 유휴 연결을 끊지 않도록, 그리고 끊긴 연결을 찾아내도록 주기적으로 주석을 보낸다.
+        if (events.isEmpty() && heartbeat) {
+            enqueue(subscriber, SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    private boolean enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (!subscriber.outbox.offer(event)) {
+            subscriber.behind = true;
+            return false;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+        return true;
+    }
+
+    // 구독자마다 한 번에 하나의 sender 만 보내서 이벤트 순서를 지킨다.
+    private void drain(Subscriber subscriber) {
+        do {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscriber.outbox.poll()) != null) {
+                try {
+                    subscriber.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    drop(subscriber, e);
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+            // 비운 직후 dispatcher 가 넣은 이벤트를 놓치지 않도록 다시 확인한다.
+        } while (!subscriber.outbox.isEmpty() && subscriber.draining.compareAndSet(false, true));
+
+        // queue 가 가득 차서 ring buffer 에 남겨 둔 이벤트를 넣도록 dispatcher 를 깨운다.
+        if (subscriber.behind) {
+            subscriber.behind = false;
+            ring.signal();
+        }
+    }
+
+    private void drop(Subscriber subscriber, Exception cause) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        subscriber.outbox.clear();
+        if (cause == null) {
+            subscriber.emitter.complete();
+        } else {
+            subscriber.emitter.completeWithError(cause);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        AtomicInteger senderIndex = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread sender = new Thread(runnable, "product-event-sender-" + senderIndex.incrementAndGet());
+            sender.setDaemon(true);
+            return sender;
+        });
+        dispatcher = new Thread(this::runDispatcher, "product-event-stream");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        dispatcher.interrupt();
+        try {
+            dispatcher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private static class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> outbox;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean behind;
+        private long sequence;
+        private boolean resetPending;
+
+        private Subscriber(SseEmitter emitter, long sequence, boolean resetPending, int queueCapacity) {
+            this.emitter = emitter;
+            this.outbox = new ArrayBlockingQueue<>(queueCapacity);
+            this.sequence = sequence;
+            this.resetPending = resetPending;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package sample.cafekiosk.spring.api.controller.product;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import sample.cafekiosk.spring.api.controller.product.dto.request.ProductImportRequest;
+import sample.cafekiosk.spring.api.service.product.request.ProductImportServiceRequest;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 대량 등록 요청 본문(JSONL / CSV)을 한 줄씩 읽어서 검증한 뒤 넘겨준다.
+ * 파일 전체를 메모리에 올리지 않고, 서비스가 다음 줄을 꺼낼 때 읽는다.
+ * 잘못된 줄을 만나면 몇 번째 줄인지와 함께 IllegalArgumentException 을 던진다.
+ */
+class ProductImportReader implements Iterator<ProductImportServiceRequest> {
+
+    static final MediaType TEXT_CSV = MediaType.valueOf("text/csv");
+
+    private final BufferedReader reader;
+    private final boolean csv;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    private List<String> csvHeader;
+    private int lineNumber;
+    private ProductImportServiceRequest next;
+
+    private ProductImportReader(BufferedReader reader, boolean csv, ObjectMapper objectMapper, Validator validator) {
+        this.reader = reader;
+        this.csv = csv;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    static ProductImportReader of(BufferedReader reader, MediaType contentType, ObjectMapper objectMapper, Validator validator) {
+        return new ProductImportReader(reader, TEXT_CSV.includes(contentType), objectMapper, validator);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readNext();
+        }
+        return next != null;
+    }
+
+    @Override
+    public ProductImportServiceRequest next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ProductImportServiceRequest current = next;
+        next = null;
+        return current;
+    }
+
+    private ProductImportServiceRequest readNext() {
+        String line;
+        while ((line = readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (csv && csvHeader == null) {
+                csvHeader = splitCsv(line);
+                continue;
+            }
+            return validate(parse(line)).toServiceRequest();
+        }
+        return null;
+    }
+
+    private String readLine() {
+        try {
+            String line = reader.readLine();
+            lineNumber++;
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ProductImportRequest parse(String line) {
+        try {
+            if (csv) {
+                return objectMapper.convertValue(toCsvRow(line), ProductImportRequest.class);
+            }
+            return objectMapper.readValue(line, ProductImportRequest.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw invalidLine("형식이 올바르지 않습니다.");
+        }
+    }
+
+    private ProductImportRequest validate(ProductImportRequest request) {
+        Set<ConstraintViolation<ProductImportRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw invalidLine(violations.iterator().next().getMessage());
+        }
+        return request;
+    }
+
+    // 값이 비어 있는 칸은 넘기지 않아서 기본값(재고 수량 0)이나 필수값 검증을 따르게 한다.
+    private Map<String, String> toCsvRow(String line) {
+        List<String> values = splitCsv(line);
+        if (values.size() > csvHeader.size()) {
+            throw invalidLine("헤더보다 많은 값이 있습니다.");
+        }
+
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            if (!values.get(i).isEmpty()) {
+                row.put(csvHeader.get(i), values.get(i));
+            }
+        }
+        return row;
+    }
+
+    /**
+     * 쉼표로 나누되 큰따옴표로 감싼 값 안의 쉼표와 ("") 는 값으로 취급한다.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString().trim());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString().trim());
+        return values;
+    }
+
+    private IllegalArgumentException invalidLine(String message) {
+        return new IllegalArgumentException(lineNumber + "번째 줄: " + message);
+    }
+}
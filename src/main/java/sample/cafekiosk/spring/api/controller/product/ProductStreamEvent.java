@@ -0,0 +1,29 @@
+package sample.cafekiosk.spring.api.controller.product;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 키오스크에 push 하는 상품 이벤트
+ * - catalog : 상품이 등록되거나 판매 상태가 바뀜 (키오스크는 메뉴를 다시 받는다. 바뀐 경우에만 ETag 가 달라진다.)
+ * - stock-out : 재고가 모두 소진됨
+ * - reset : 놓친 이벤트를 다시 보내줄 수 없으니 메뉴 전체를 다시 받아야 함
+ */
+@Getter
+public class ProductStreamEvent {
+
+    public static final String CATALOG = "catalog";
+    public static final String STOCK_OUT = "stock-out";
+    public static final String RESET = "reset";
+
+    private final long sequence;
+    private final String type;
+    private final List<String> productNumbers;
+
+    ProductStreamEvent(long sequence, String type, List<String> productNumbers) {
+        this.sequence = sequence;
+        this.type = type;
+        this.productNumbers = productNumbers;
+    }
+}
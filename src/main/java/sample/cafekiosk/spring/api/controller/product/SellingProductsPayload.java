@@ -0,0 +1,65 @@
+package sample.cafekiosk.spring.api.controller.product;
+
+import com.google.common.hash.Hashing;
+import sample.cafekiosk.spring.api.service.product.response.ProductResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 메뉴 조회 응답(ApiResponse JSON)을 미리 직렬화해 둔 byte 배열
+ * 같은 메뉴 목록에서 만든 payload 는 모든 요청이 공유하며, 응답할 때 다시 직렬화하지 않는다.
+ * ETag 는 내용의 해시라서 서버가 재시작되거나 여러 대여도 같은 메뉴면 같은 값이 나온다.
+ * gzip 본은 인코딩이 다른 표현이므로 ETag 도 따로 둔다.
+ */
+public class SellingProductsPayload {
+
+    private final List<ProductResponse> source;
+    private final byte[] json;
+    private final byte[] gzip;
+    private final String etag;
+    private final String gzipEtag;
+
+    private SellingProductsPayload(List<ProductResponse> source, byte[] json, byte[] gzip) {
+        this.source = source;
+        this.json = json;
+        this.gzip = gzip;
+
+        String hash = Hashing.sha256().hashBytes(json).toString().substring(0, 32);
+        this.etag = "\"" + hash + "\"";
+        this.gzipEtag = "\"" + hash + "-gzip\"";
+    }
+
+    public static SellingProductsPayload of(List<ProductResponse> source, byte[] json, boolean gzipEnabled) {
+        return new SellingProductsPayload(source, json, gzipEnabled ? compress(json) : null);
+    }
+
+    public boolean isRenderedFrom(List<ProductResponse> products) {
+        return source == products;
+    }
+
+    public boolean hasGzip() {
+        return gzip != null;
+    }
+
+    public byte[] getBody(boolean gzipped) {
+        return gzipped ? gzip : json;
+    }
+
+    public String getEtag(boolean gzipped) {
+        return gzipped ? gzipEtag : etag;
+    }
+
+    private static byte[] compress(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
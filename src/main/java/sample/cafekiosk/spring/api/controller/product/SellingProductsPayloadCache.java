@@ -0,0 +1,59 @@
+package sample.cafekiosk.spring.api.controller.product;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import sample.cafekiosk.spring.api.ApiResponse;
+import sample.cafekiosk.spring.api.service.product.ProductCatalogCache;
+import sample.cafekiosk.spring.api.service.product.response.ProductResponse;
+
+import java.util.List;
+
+/**
+ * 메뉴 캐시(ProductCatalogCache)의 목록이 바뀔 때만 응답을 다시 직렬화한다.
+ * 메뉴 캐시가 같은 목록 인스턴스를 돌려주는 동안은 이미 만든 payload 를 그대로 쓴다.
+ */
+@Component
+public class SellingProductsPayloadCache {
+
+    private final ProductCatalogCache productCatalogCache;
+    private final ObjectMapper objectMapper;
+    private final boolean gzipEnabled;
+
+    private volatile SellingProductsPayload payload;
+
+    public SellingProductsPayloadCache(ProductCatalogCache productCatalogCache,
+                                       ObjectMapper objectMapper,
+                                       @Value("${cafekiosk.product.selling-payload.gzip:true}") boolean gzipEnabled) {
+        this.productCatalogCache = productCatalogCache;
+        this.objectMapper = objectMapper;
+        this.gzipEnabled = gzipEnabled;
+    }
+
+    public SellingProductsPayload get() {
+        List<ProductResponse> products = productCatalogCache.getSellingProducts();
+        SellingProductsPayload current = payload;
+        if (current != null && current.isRenderedFrom(products)) {
+            return current;
+        }
+        return render(products);
+    }
+
+    // 메뉴가 바뀐 직후 몰린 요청들이 각자 직렬화하지 않도록 한 스레드만 만든다.
+    private synchronized SellingProductsPayload render(List<ProductResponse> products) {
+        SellingProductsPayload current = payload;
+        if (current != null && current.isRenderedFrom(products)) {
+            return current;
+        }
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(ApiResponse.ok(products));
+            SellingProductsPayload rendered = SellingProductsPayload.of(products, json, gzipEnabled);
+            payload = rendered;
+            return rendered;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("메뉴 응답을 만들지 못했습니다.", e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package sample.cafekiosk.spring.api.controller.product.dto.request;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import sample.cafekiosk.spring.api.service.product.request.ProductImportServiceRequest;
+import sample.cafekiosk.spring.domain.product.ProductSellingStatus;
+import sample.cafekiosk.spring.domain.product.ProductType;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+/**
+ * 대량 등록 파일의 한 줄 (ProductCreateRequest 와 같은 항목 + 초기 재고 수량)
+ */
+@Getter
+@NoArgsConstructor
+public class ProductImportRequest {
+
+    @NotNull(message = "상품 타입은 필수입니다.")
+    private ProductType type;
+
+    @NotNull(message = "상품 판매 상태는 필수입니다.")
+    private ProductSellingStatus sellingStatus;
+
+    @NotBlank(message = "상품 이름은 필수입니다.")
+    private String name;
+
+    @Positive(message = "상품 가격은 양수여야 합니다.")
+    private int price;
+
+    // 병 음료 / 베이커리만 재고를 만든다.
+    @PositiveOrZero(message = "재고 수량은 0 이상이어야 합니다.")
+    private int stockQuantity;
+
+    @Builder
+    private ProductImportRequest(ProductType type, ProductSellingStatus sellingStatus, String name, int price, int stockQuantity) {
+        this.type = type;
+        this.sellingStatus = sellingStatus;
+        this.name = name;
+        this.price = price;
+        this.stockQuantity = stockQuantity;
+    }
+
+    public ProductImportServiceRequest toServiceRequest() {
+        return ProductImportServiceRequest.builder()
+                .type(type)
+                .sellingStatus(sellingStatus)
+                .name(name)
+                .price(price)
+                .stockQuantity(stockQuantity)
+                .build();
+    }
+}
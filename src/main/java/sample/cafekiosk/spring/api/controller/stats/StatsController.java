@@ -0,0 +1,25 @@
+package sample.cafekiosk.spring.api.controller.stats;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import sample.cafekiosk.spring.api.ApiResponse;
+import sample.cafekiosk.spring.api.service.stats.LiveSalesCounter;
+import sample.cafekiosk.spring.api.service.stats.response.LiveSalesResponse;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequiredArgsConstructor
+public class StatsController {
+
+    private final LiveSalesCounter liveSalesCounter;
+
+    /**
+     * 오늘 0시부터 지금까지의 매출 (DB 를 조회하지 않는다.)
+     */
+    @GetMapping("/api/v1/stats/live")
+    public ApiResponse<LiveSalesResponse> getLiveSales() {
+        return ApiResponse.ok(liveSalesCounter.getTodaySales(LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,117 @@
+package sample.cafekiosk.spring.api.limit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 응답 지연을 보고 동시에 처리할 요청 수(limit)를 조절하는 AIMD 방식의 동시성 제한
+ * - 응답이 latencyThreshold 안에 끝나고 limit 의 절반 이상을 쓰고 있으면 limit 을 1 늘린다.
+ * - 응답이 latencyThreshold 를 넘으면 limit 에 backoffRatio 를 곱해서 줄인다.
+ *   직전에 줄인 뒤에 시작한 요청만 다시 줄일 수 있어서, 한꺼번에 늦게 끝난 요청들로 limit 이 연달아 깎이지 않는다.
+ * limit 을 넘는 요청은 기다리게 하지 않고 바로 거절한다.
+ */
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile double limit;
+    private boolean backedOff;
+    private long lastBackoffNanos;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      Duration latencyThreshold, double backoffRatio) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("동시 처리 한도는 1 <= min <= initial <= max 여야 합니다.");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("한도 감소 비율은 0 과 1 사이여야 합니다.");
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * 처리 중인 요청이 limit 보다 적을 때만 자리를 잡는다.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 요청이 끝나면 자리를 돌려주고 걸린 시간으로 limit 을 조절한다.
+     */
+    public void release(long startedAtNanos, long finishedAtNanos) {
+        int inFlightBeforeRelease = inFlight.getAndDecrement();
+        onSample(startedAtNanos, finishedAtNanos, inFlightBeforeRelease);
+    }
+
+    private synchronized void onSample(long startedAtNanos, long finishedAtNanos, int inFlightBeforeRelease) {
+        if (finishedAtNanos - startedAtNanos > latencyThresholdNanos) {
+            if (!backedOff || startedAtNanos - lastBackoffNanos > 0) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                backedOff = true;
+                lastBackoffNanos = finishedAtNanos;
+            }
+            return;
+        }
+
+        // 한도를 거의 쓰지 않을 때 늘리면 실제로 버틸 수 있는지 모르는 값까지 커진다.
+        if (inFlightBeforeRelease * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("cafekiosk.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("group", name)
+                .description("현재 동시 처리 한도")
+                .register(registry);
+        Gauge.builder("cafekiosk.concurrency.in-flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("group", name)
+                .description("처리 중인 요청 수")
+                .register(registry);
+        FunctionCounter.builder("cafekiosk.concurrency.rejected", this, AdaptiveConcurrencyLimiter::getRejectedCount)
+                .tag("group", name)
+                .description("한도를 넘어 거절한 요청 수")
+                .register(registry);
+    }
+}
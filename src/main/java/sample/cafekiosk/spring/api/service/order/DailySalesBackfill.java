@@ -0,0 +1,66 @@
+package sample.cafekiosk.spring.api.service.order;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * daily_sales 집계를 도입하는 배포에서, 그 전에 결제된 주문의 매출을 집계 row 로 옮긴다.
+ * - backfill-from 일자부터 오늘까지 하루씩 주문에서 다시 계산한다. 배포 당일의 집계 전 결제도 여기서 포함된다.
+ * - 도입 배포에서만 backfill-from 을 설정하고, 이후 배포에서는 비워 둔다. (비어 있으면 아무것도 하지 않는다.)
+ * - 매출 조회 요청을 받기 전에 채우도록 웹 서버보다 먼저 시작한다.
+ */
+@Slf4j
+@Component
+public class DailySalesBackfill implements SmartLifecycle {
+
+    // 웹 서버(Integer.MAX_VALUE - 1)보다 먼저 시작
+    private static final int PHASE = Integer.MAX_VALUE - 2;
+
+    private final DailySalesService dailySalesService;
+    private final LocalDate backfillFrom;
+
+    private volatile boolean running;
+
+    public DailySalesBackfill(DailySalesService dailySalesService,
+                              @Value("${cafekiosk.order.daily-sales.backfill-from:}") String backfillFrom) {
+        this.dailySalesService = dailySalesService;
+        this.backfillFrom = backfillFrom.isBlank() ? null : LocalDate.parse(backfillFrom);
+    }
+
+    /**
+     * from 부터 to 까지 일자별 매출 집계를 다시 만든다.
+     */
+    public void backfill(LocalDate from, LocalDate to) {
+        for (LocalDate salesDate = from; !salesDate.isAfter(to); salesDate = salesDate.plusDays(1)) {
+            dailySalesService.backfill(salesDate);
+        }
+        log.info("매출 집계 backfill 완료: {} ~ {}", from, to);
+    }
+
+    @Override
+    public void start() {
+        if (backfillFrom != null) {
+            backfill(backfillFrom, LocalDate.now());
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
@@ -0,0 +1,119 @@
+package sample.cafekiosk.spring.api.service.order;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import sample.cafekiosk.spring.domain.order.DailySales;
+import sample.cafekiosk.spring.domain.order.DailySalesJdbcRepository;
+import sample.cafekiosk.spring.domain.order.DailySalesRepository;
+import sample.cafekiosk.spring.domain.order.Order;
+import sample.cafekiosk.spring.domain.order.OrderRepository;
+import sample.cafekiosk.spring.domain.order.OrderStatus;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 결제 완료 주문의 금액을 daily_sales 에 더해 두고, 일자별 매출은 주문이 아니라 집계 row 에서 읽는다.
+ * - 결제 완료 트랜잭션 안에서 더하므로 결제 완료가 롤백되면 매출도 함께 롤백된다.
+ * - 하루 매출을 slotCount 개의 row 로 나눠 주문 id 로 slot 을 고르기 때문에, 동시 결제가 한 row lock 에 줄 서지 않는다.
+ * - 집계를 시작하기 전에 결제된 주문은 집계 row 에 없으므로, 도입 배포 때 backfill 로 그 일자들을 주문에서 다시 계산해 둔다.
+ */
+@Service
+public class DailySalesService {
+
+    private final DailySalesRepository dailySalesRepository;
+    private final DailySalesJdbcRepository dailySalesJdbcRepository;
+    private final OrderRepository orderRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int slotCount;
+
+    public DailySalesService(DailySalesRepository dailySalesRepository,
+                             DailySalesJdbcRepository dailySalesJdbcRepository,
+                             OrderRepository orderRepository,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${cafekiosk.order.daily-sales.slot-count:8}") int slotCount) {
+        if (slotCount < 1) {
+            throw new IllegalArgumentException("매출 집계 slot 개수는 1개 이상이어야 합니다.");
+        }
+        this.dailySalesRepository = dailySalesRepository;
+        this.dailySalesJdbcRepository = dailySalesJdbcRepository;
+        this.orderRepository = orderRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.slotCount = slotCount;
+    }
+
+    /**
+     * 결제 완료된 주문의 금액을 결제 일자의 매출에 더한다. (호출한 트랜잭션에 참여)
+     * 결제 완료된 주문의 registeredDateTime 은 결제 시각이므로 그 일자로 나눈다.
+     */
+    public void record(Order order) {
+        LocalDate salesDate = order.getRegisteredDateTime().toLocalDate();
+        int slot = Math.floorMod(order.getId(), slotCount);
+
+        if (dailySalesJdbcRepository.add(salesDate, slot, order.getTotalPrice())) {
+            return;
+        }
+
+        // 그 날 해당 slot 의 첫 결제라면 집계 row 를 먼저 만든다.
+        createSlot(salesDate, slot);
+        if (!dailySalesJdbcRepository.add(salesDate, slot, order.getTotalPrice())) {
+            throw new IllegalStateException("매출 집계 row 를 찾을 수 없습니다.");
+        }
+    }
+
+    /**
+     * 해당 일자의 결제 완료 매출 합계 (집계 row 가 없으면 0)
+     */
+    public long getTotalAmount(LocalDate salesDate) {
+        Long totalAmount = dailySalesRepository.sumTotalAmountBySalesDate(salesDate);
+        return totalAmount == null ? 0 : totalAmount;
+    }
+
+    /**
+     * 해당 일자의 집계 row 를 지우고, 결제 완료 주문들의 합계로 다시 만든다.
+     * 먼저 지우면서 진행 중인 결제의 slot row lock 을 기다리므로, 그 결제는 커밋된 뒤 주문 합계에 포함되고
+     * 이후의 결제는 다시 만든 row 에 더해진다.
+     */
+    public void backfill(LocalDate salesDate) {
+        LocalDateTime startDateTime = salesDate.atStartOfDay();
+        LocalDateTime endDateTime = salesDate.plusDays(1).atStartOfDay();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            dailySalesRepository.deleteAllBySalesDate(salesDate);
+
+            long orderCount = orderRepository.countBy(startDateTime, endDateTime, OrderStatus.PAYMENT_COMPLETED);
+            if (orderCount == 0) {
+                return;
+            }
+            Long totalPrice = orderRepository.sumTotalPriceBy(startDateTime, endDateTime, OrderStatus.PAYMENT_COMPLETED);
+            dailySalesRepository.save(DailySales.builder()
+                    .salesDate(salesDate)
+                    .slot(0)
+                    .totalAmount(totalPrice)
+                    .orderCount(orderCount)
+                    .build());
+        });
+    }
+
+    // 집계 row 생성은 별도 트랜잭션으로 바로 커밋해서, 동시에 결제된 다른 주문도 만들어진 row 에 더할 수 있게 한다.
+    private void createSlot(LocalDate salesDate, int slot) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.persist(DailySales.create(salesDate, slot));
+                entityManager.flush();
+            });
+        } catch (DataIntegrityViolationException | PersistenceException e) {
+            // 다른 결제가 먼저 만든 경우, 만들어진 row 에 더한다.
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package sample.cafekiosk.spring.api.service.order;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 주문번호별 만료 시각을 tick 단위 bucket 에 나눠 담는 hashed timing wheel
+ * - 등록/취소는 O(1) 이고, 한 tick 에는 해당 bucket 만 훑기 때문에 만료 대상을 DB 에서 주기적으로 조회하지 않는다.
+ * - wheel 한 바퀴보다 먼 만료 시각은 남은 바퀴 수(rounds)를 세면서 기다린다.
+ * - 등록/취소는 여러 스레드에서 호출할 수 있지만, advance 는 하나의 tick 스레드에서만 호출한다.
+ * - 만료는 만료 시각이 속한 tick 이 끝날 때 이뤄지므로 최대 tick 하나만큼 늦을 수 있고, 일찍 만료되지는 않는다.
+ */
+class HashedTimingWheel {
+
+    private final long tickNanos;
+    private final int mask;
+    private final long startNanos;
+    private final List<Queue<Entry>> buckets;
+
+    private final Queue<Entry> pendingEntries = new ConcurrentLinkedQueue<>();
+    private final Map<Long, Entry> entryByOrderId = new ConcurrentHashMap<>();
+    private long tick;
+
+    HashedTimingWheel(long tickNanos, int wheelSize, long startNanos) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheel 크기는 2의 거듭제곱이어야 합니다.");
+        }
+        this.tickNanos = tickNanos;
+        this.mask = wheelSize - 1;
+        this.startNanos = startNanos;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * 같은 주문이 이미 등록되어 있으면 새 만료 시각으로 바꾼다.
+     */
+    void schedule(Long orderId, long deadlineNanos) {
+        Entry entry = new Entry(orderId, deadlineNanos);
+        Entry previous = entryByOrderId.put(orderId, entry);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        pendingEntries.add(entry);
+    }
+
+    void cancel(Long orderId) {
+        Entry entry = entryByOrderId.remove(orderId);
+        if (entry != null) {
+            entry.cancelled = true;
+        }
+    }
+
+    int size() {
+        return entryByOrderId.size();
+    }
+
+    /**
+     * nowNanos 까지 끝난 tick 들을 차례로 처리하고 만료된 주문번호를 돌려준다.
+     */
+    List<Long> advance(long nowNanos) {
+        List<Long> expiredOrderIds = new ArrayList<>();
+        while (startNanos + (tick + 1) * tickNanos <= nowNanos) {
+            transferPendingEntries();
+            expireBucket(buckets.get((int) (tick & mask)), expiredOrderIds);
+            tick++;
+        }
+        return expiredOrderIds;
+    }
+
+    private void transferPendingEntries() {
+        Entry entry;
+        while ((entry = pendingEntries.poll()) != null) {
+            if (entry.cancelled) {
+                continue;
+            }
+
+            // 이미 지난 만료 시각은 지금 처리할 bucket 에 넣는다.
+            long deadlineTick = Math.max(tick, Math.floorDiv(entry.deadlineNanos - startNanos, tickNanos));
+            entry.rounds = (deadlineTick - tick) >> Integer.numberOfTrailingZeros(buckets.size());
+            buckets.get((int) (deadlineTick & mask)).add(entry);
+        }
+    }
+
+    private void expireBucket(Queue<Entry> bucket, List<Long> expiredOrderIds) {
+        Iterator<Entry> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.cancelled) {
+                iterator.remove();
+            } else if (entry.rounds <= 0) {
+                iterator.remove();
+                if (entryByOrderId.remove(entry.orderId, entry)) {
+                    expiredOrderIds.add(entry.orderId);
+                }
+            } else {
+                entry.rounds--;
+            }
+        }
+    }
+
+    private static class Entry {
+
+        private final Long orderId;
+        private final long deadlineNanos;
+        private long rounds;
+        private volatile boolean cancelled;
+
+        private Entry(Long orderId, long deadlineNanos) {
+            this.orderId = orderId;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package sample.cafekiosk.spring.api.service.order;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sample.cafekiosk.spring.api.service.order.request.OrderCreateServiceRequest;
+import sample.cafekiosk.spring.api.service.order.response.OrderBatchResultResponse;
+import sample.cafekiosk.spring.api.service.order.response.OrderResponse;
+import sample.cafekiosk.spring.api.service.product.ProductNumberFilter;
+import sample.cafekiosk.spring.api.service.stock.StockDeductionStrategy;
+import sample.cafekiosk.spring.api.service.stock.StockHoldService;
+import sample.cafekiosk.spring.domain.order.Order;
+import sample.cafekiosk.spring.domain.order.OrderRepository;
+import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductRepository;
+import sample.cafekiosk.spring.domain.stock.StockQuantityView;
+import sample.cafekiosk.spring.domain.stock.StockRepository;
+import sample.cafekiosk.spring.domain.stock.StockSoldOutEvent;
+
+import javax.persistence.EntityManager;
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 여러 주문을 한 트랜잭션에서 등록한다.
+ * - 상품 조회와 재고 확인은 주문 전체를 모아서 IN 조회 한 번씩으로 처리한다.
+ * - 재고가 충분해 보이는 주문들의 수량을 합쳐 한 번에 차감하고, 실패하면 주문별로 다시 차감한다.
+ * - 재고 부족 등으로 실패한 주문은 결과에만 남기고 나머지 주문은 그대로 등록한다.
+ * - 주문과 주문 상품은 커밋 시점에 Hibernate JDBC batch 로 저장된다.
+ */
+@Transactional
+@Service
+@RequiredArgsConstructor
+public class OrderBatchService {
+
+    private final ProductRepository productRepository;
+    private final ProductNumberFilter productNumberFilter;
+    private final StockRepository stockRepository;
+    private final OrderRepository orderRepository;
+    private final StockDeductionStrategy stockDeductionStrategy;
+    private final StockHoldService stockHoldService;
+    private final OrderExpiryScheduler orderExpiryScheduler;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public List<OrderBatchResultResponse> createOrders(List<OrderCreateServiceRequest> requests,
+                                                       LocalDateTime registeredDateTime) {
+        return createOrders(requests, Collections.nCopies(requests.size(), registeredDateTime));
+    }
+
+    /**
+     * 주문마다 등록 시각이 다른 경우 (group commit 으로 모인 주문들)
+     */
+    public List<OrderBatchResultResponse> createOrders(List<OrderCreateServiceRequest> requests,
+                                                       List<LocalDateTime> registeredDateTimes) {
+        OrderBatchResultResponse[] results = new OrderBatchResultResponse[requests.size()];
+        Map<String, Product> productMap = findProductMapBy(requests);
+
+        // 상품을 모두 찾은 주문만 재고 차감 대상
+        List<Candidate> candidates = new ArrayList<>();
+        for (int index = 0; index < requests.size(); index++) {
+            List<String> productNumbers = requests.get(index).getProductNumbers();
+            if (!productMap.keySet().containsAll(productNumbers)) {
+                results[index] = OrderBatchResultResponse.failure(index, "존재하지 않는 상품이 포함되어 있습니다.");
+                continue;
+            }
+            List<Product> products = productNumbers.stream()
+                    .map(productMap::get)
+                    .collect(Collectors.toList());
+            candidates.add(new Candidate(index, products, registeredDateTimes.get(index)));
+        }
+
+        List<Candidate> accepted = deductStockQuantity(candidates, results);
+        saveOrders(accepted, results);
+        return Arrays.asList(results);
+    }
+
+    // 필터로 없다고 확인된 상품번호는 조회하지 않는다. (해당 주문은 상품을 못 찾은 주문으로 실패 처리된다.)
+    private Map<String, Product> findProductMapBy(List<OrderCreateServiceRequest> requests) {
+        Set<String> productNumbers = requests.stream()
+                .flatMap(request -> request.getProductNumbers().stream())
+                .collect(Collectors.toCollection(TreeSet::new));
+        productNumbers.removeAll(productNumberFilter.findUnknown(productNumbers));
+        if (productNumbers.isEmpty()) {
+            return new HashMap<>();
+        }
+        return productRepository.findAllByProductNumberIn(new ArrayList<>(productNumbers)).stream()
+                .collect(Collectors.toMap(Product::getProductNumber, Function.identity()));
+    }
+
+    /**
+     * 현재 재고로 순서대로 배정해 보고, 충분한 주문들은 합쳐서 한 번에 차감한다.
+     * 배정에서 밀린 주문과 합산 차감이 실패했을 때의 주문들은 하나씩 차감을 시도한다.
+     *
+     * @return 재고 차감에 성공한 주문 (요청 순서)
+     */
+    private List<Candidate> deductStockQuantity(List<Candidate> candidates, OrderBatchResultResponse[] results) {
+        Set<String> stockProductNumbers = candidates.stream()
+                .flatMap(candidate -> candidate.quantities.keySet().stream())
+                .collect(Collectors.toCollection(TreeSet::new));
+        Map<String, Long> availableQuantities = stockProductNumbers.isEmpty() ? new HashMap<>() :
+                stockRepository.sumQuantityByProductNumberIn(stockProductNumbers).stream()
+                        .collect(Collectors.toMap(StockQuantityView::getProductNumber, StockQuantityView::getQuantity));
+
+        List<Candidate> allocated = new ArrayList<>();
+        List<Candidate> deferred = new ArrayList<>();
+        Map<String, Integer> totalQuantities = new TreeMap<>();
+        Set<String> soldOutProductNumbers = new TreeSet<>();
+        for (Candidate candidate : candidates) {
+            if (allocate(candidate.quantities, availableQuantities)) {
+                allocated.add(candidate);
+                candidate.quantities.forEach((productNumber, quantity) -> totalQuantities.merge(productNumber, quantity, Integer::sum));
+            } else {
+                deferred.add(candidate);
+            }
+        }
+
+        if (!tryDeduct(totalQuantities, soldOutProductNumbers)) {
+            allocated.clear();
+            deferred = candidates;
+        }
+
+        for (Candidate candidate : deferred) {
+            if (tryDeduct(candidate.quantities, soldOutProductNumbers)) {
+                allocated.add(candidate);
+            } else {
+                results[candidate.index] = OrderBatchResultResponse.failure(candidate.index, "재고가 부족한 상품이 있습니다.");
+            }
+        }
+        allocated.sort((left, right) -> Integer.compare(left.index, right.index));
+        if (!soldOutProductNumbers.isEmpty()) {
+            eventPublisher.publishEvent(new StockSoldOutEvent(new ArrayList<>(soldOutProductNumbers)));
+        }
+        return allocated;
+    }
+
+    private static boolean allocate(Map<String, Integer> quantities, Map<String, Long> availableQuantities) {
+        for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+            if (availableQuantities.getOrDefault(entry.getKey(), 0L) < entry.getValue()) {
+                return false;
+            }
+        }
+        quantities.forEach((productNumber, quantity) -> availableQuantities.merge(productNumber, (long) -quantity, Long::sum));
+        return true;
+    }
+
+    /**
+     * savepoint 안에서 차감해서, 실패하더라도 앞서 차감한 다른 주문에 영향을 주지 않는다.
+     * Hibernate 의 JpaDialect 는 savepoint 를 지원하지 않아서 트랜잭션의 JDBC 커넥션에 직접 savepoint 를 만든다.
+     */
+    private boolean tryDeduct(Map<String, Integer> quantities, Set<String> soldOutProductNumbers) {
+        if (quantities.isEmpty()) {
+            return true;
+        }
+
+        // savepoint 이전의 변경은 DB 에 내려두어야 실패 시 영속성 컨텍스트를 비워도 사라지지 않는다.
+        entityManager.flush();
+        Savepoint savepoint = jdbcTemplate.execute((ConnectionCallback<Savepoint>) Connection::setSavepoint);
+        try {
+            List<String> deductedSoldOut = stockDeductionStrategy.deduct(quantities);
+            entityManager.flush();
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                connection.releaseSavepoint(savepoint);
+                return null;
+            });
+            soldOutProductNumbers.addAll(deductedSoldOut);
+            return true;
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                connection.rollback(savepoint);
+                return null;
+            });
+            // savepoint 로 되돌린 DB 와 맞추기 위해, 차감 도중 변경된 엔티티를 버린다.
+            entityManager.clear();
+            return false;
+        }
+    }
+
+    private void saveOrders(List<Candidate> accepted, OrderBatchResultResponse[] results) {
+        List<Order> orders = accepted.stream()
+                .map(candidate -> Order.create(candidate.products, candidate.registeredDateTime))
+                .collect(Collectors.toList());
+        // sequence 로 id 를 미리 받아두기 때문에 주문/주문 상품 insert 가 JDBC batch 로 묶인다.
+        orderRepository.saveAll(orders);
+
+        for (int i = 0; i < accepted.size(); i++) {
+            Candidate candidate = accepted.get(i);
+            Long orderId = orders.get(i).getId();
+            results[candidate.index] = OrderBatchResultResponse.success(candidate.index, OrderResponse.of(orders.get(i)));
+            if (!candidate.quantities.isEmpty()) {
+                LocalDateTime expiresAt = stockHoldService.hold(orderId, candidate.quantities, candidate.registeredDateTime);
+                orderExpiryScheduler.schedule(orderId, expiresAt);
+            }
+        }
+    }
+
+    private static class Candidate {
+
+        private final int index;
+        private final List<Product> products;
+        private final Map<String, Integer> quantities;
+        private final LocalDateTime registeredDateTime;
+
+        private Candidate(int index, List<Product> products, LocalDateTime registeredDateTime) {
+            this.index = index;
+            this.products = products;
+            this.registeredDateTime = registeredDateTime;
+            this.quantities = OrderStockQuantities.count(products, Product::getType, Product::getProductNumber);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package sample.cafekiosk.spring.api.service.order;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sample.cafekiosk.spring.domain.stock.StockHoldExpiryView;
+import sample.cafekiosk.spring.domain.stock.StockHoldRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 결제 대기 주문의 재고 점유 만료를 timing wheel 로 추적한다.
+ * 만료 일정은 메모리에만 있으므로, 시작할 때 stock_hold 테이블에서 다시 등록한다.
+ * 등록과 취소는 주문 트랜잭션이 커밋된 뒤에 wheel 에 반영해서, 롤백된 주문과 stock_hold 가 어긋나지 않게 한다.
+ */
+@Slf4j
+@Component
+public class OrderExpiryScheduler implements SmartLifecycle {
+
+    private final OrderExpiryService orderExpiryService;
+    private final StockHoldRepository stockHoldRepository;
+    private final Duration tick;
+    private final HashedTimingWheel wheel;
+
+    private ScheduledExecutorService ticker;
+    private volatile boolean running;
+
+    public OrderExpiryScheduler(OrderExpiryService orderExpiryService,
+                                StockHoldRepository stockHoldRepository,
+                                @Value("${cafekiosk.stock.hold.tick:1s}") Duration tick,
+                                @Value("${cafekiosk.stock.hold.wheel-size:512}") int wheelSize) {
+        this.orderExpiryService = orderExpiryService;
+        this.stockHoldRepository = stockHoldRepository;
+        this.tick = tick;
+        this.wheel = new HashedTimingWheel(tick.toNanos(), wheelSize, System.nanoTime());
+    }
+
+    public void schedule(Long orderId, LocalDateTime expiresAt) {
+        afterCommit(() -> {
+            long delayNanos = Duration.between(LocalDateTime.now(), expiresAt).toNanos();
+            wheel.schedule(orderId, System.nanoTime() + delayNanos);
+        });
+    }
+
+    public void cancel(Long orderId) {
+        afterCommit(() -> wheel.cancel(orderId));
+    }
+
+    // 트랜잭션 밖에서 호출하면 (시작 시 복구, 만료 재시도) 바로 반영한다.
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * 지난 tick 들에서 만료된 주문을 한 번에 취소한다.
+     * 취소에 실패하면 다음 tick 에 다시 시도한다.
+     */
+    void advance() {
+        List<Long> expiredOrderIds = wheel.advance(System.nanoTime());
+        if (expiredOrderIds.isEmpty()) {
+            return;
+        }
+
+        try {
+            orderExpiryService.expire(expiredOrderIds);
+        } catch (RuntimeException e) {
+            log.warn("만료된 주문 {}건의 재고를 되돌리지 못했습니다. 다음 tick 에 다시 시도합니다.", expiredOrderIds.size(), e);
+            long retryAt = System.nanoTime() + tick.toNanos();
+            expiredOrderIds.forEach(orderId -> wheel.schedule(orderId, retryAt));
+        }
+    }
+
+    @Override
+    public void start() {
+        for (StockHoldExpiryView expiry : stockHoldRepository.findExpiries()) {
+            schedule(expiry.getOrderId(), expiry.getExpiresAt());
+        }
+
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-expiry-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long tickMillis = tick.toMillis();
+        ticker.scheduleAtFixedRate(this::advanceQuietly, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    private void advanceQuietly() {
+        try {
+            advance();
+        } catch (RuntimeException e) {
+            log.warn("주문 만료 처리 중 오류가 발생했습니다.", e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        ticker.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
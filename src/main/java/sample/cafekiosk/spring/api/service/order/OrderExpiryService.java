@@ -0,0 +1,39 @@
+package sample.cafekiosk.spring.api.service.order;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sample.cafekiosk.spring.api.service.stock.StockHoldService;
+import sample.cafekiosk.spring.domain.order.Order;
+import sample.cafekiosk.spring.domain.order.OrderRepository;
+import sample.cafekiosk.spring.domain.order.OrderStatus;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Transactional
+@Service
+@RequiredArgsConstructor
+public class OrderExpiryService {
+
+    private final OrderRepository orderRepository;
+    private final StockHoldService stockHoldService;
+
+    /**
+     * 재고 점유가 만료된 주문 중 아직 결제 대기 중인 주문만 취소하고, 점유한 재고를 한 번에 되돌린다.
+     * 그 사이 결제가 끝난 주문은 주문 row lock 으로 걸러진다.
+     *
+     * @return 취소된 주문번호 리스트
+     */
+    public List<Long> expire(Collection<Long> orderIds) {
+        List<Order> orders = orderRepository.findAllForUpdateByIdInAndOrderStatus(orderIds, OrderStatus.INIT);
+        orders.forEach(Order::cancel);
+
+        List<Long> expiredOrderIds = orders.stream()
+                .map(Order::getId)
+                .collect(Collectors.toList());
+        stockHoldService.release(expiredOrderIds);
+        return expiredOrderIds;
+    }
+}
@@ -0,0 +1,203 @@
+package sample.cafekiosk.spring.api.service.order;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import sample.cafekiosk.spring.api.service.order.request.OrderCreateServiceRequest;
+import sample.cafekiosk.spring.api.service.order.response.OrderBatchResultResponse;
+import sample.cafekiosk.spring.api.service.order.response.OrderResponse;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 동시에 들어온 주문들을 모아서 한 트랜잭션으로 커밋한다. (group commit)
+ * 요청 스레드는 큐에 주문을 넣고 기다리며, writer 스레드가 최대 maxBatchSize 건 또는 maxWait 만큼 모은 뒤
+ * OrderBatchService 로 한 번에 저장하고 주문별 결과를 돌려준다.
+ * 큐가 가득 차면 기존처럼 요청 스레드에서 직접 주문을 등록한다.
+ * stop() 이후에는 주문을 받지 않고, 큐에 남아 있던 주문은 예외로 끝내 요청 스레드가 계속 기다리지 않게 한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "cafekiosk.order.group-commit.enabled", havingValue = "true")
+public class OrderGroupCommitWriter implements SmartLifecycle {
+
+    private static final String STOPPED_MESSAGE = "서버가 종료 중이라 주문을 등록하지 못했습니다.";
+
+    private final OrderBatchService orderBatchService;
+    private final OrderService orderService;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<PendingOrder> queue;
+
+    private Thread writer;
+    private volatile boolean running;
+
+    public OrderGroupCommitWriter(OrderBatchService orderBatchService,
+                                  OrderService orderService,
+                                  @Value("${cafekiosk.order.group-commit.max-batch-size:32}") int maxBatchSize,
+                                  @Value("${cafekiosk.order.group-commit.max-wait:500us}") Duration maxWait,
+                                  @Value("${cafekiosk.order.group-commit.queue-capacity:1024}") int queueCapacity) {
+        this.orderBatchService = orderBatchService;
+        this.orderService = orderService;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * 주문이 커밋될 때까지 기다렸다가 결과를 돌려준다.
+     * 실패한 주문은 OrderService.createOrder 와 같은 예외를 던진다.
+     */
+    public OrderResponse createOrder(OrderCreateServiceRequest request, LocalDateTime registeredDateTime) {
+        if (!running) {
+            throw new IllegalStateException(STOPPED_MESSAGE);
+        }
+        PendingOrder pending = new PendingOrder(request, registeredDateTime);
+        if (!queue.offer(pending)) {
+            return orderService.createOrder(request, registeredDateTime);
+        }
+        // 넣는 사이에 stop() 이 큐를 비웠다면 아무도 꺼내지 않으므로 직접 빼고 거절한다.
+        // 이미 꺼내졌다면 writer 나 stop() 이 결과를 채운다.
+        if (!running && queue.remove(pending)) {
+            throw new IllegalStateException(STOPPED_MESSAGE);
+        }
+
+        try {
+            return pending.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("주문 등록을 기다리는 중 인터럽트가 발생했습니다.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("주문 등록에 실패했습니다.", e.getCause());
+        }
+    }
+
+    private void runWriter() {
+        while (running || !queue.isEmpty()) {
+            List<PendingOrder> batch;
+            try {
+                batch = collectBatch();
+            } catch (InterruptedException e) {
+                // stop() 에서 깨운 경우, 남은 주문을 처리하고 종료한다.
+                continue;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        }
+    }
+
+    /**
+     * 첫 주문을 기다린 뒤, 그때부터 maxWait 안에 들어온 주문을 maxBatchSize 건까지 모은다.
+     */
+    private List<PendingOrder> collectBatch() throws InterruptedException {
+        List<PendingOrder> batch = new ArrayList<>(maxBatchSize);
+        PendingOrder first = running ? queue.take() : queue.poll();
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < maxBatchSize) {
+            if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            PendingOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void write(List<PendingOrder> batch) {
+        List<OrderCreateServiceRequest> requests = batch.stream()
+                .map(pending -> pending.request)
+                .collect(Collectors.toList());
+        List<LocalDateTime> registeredDateTimes = batch.stream()
+                .map(pending -> pending.registeredDateTime)
+                .collect(Collectors.toList());
+
+        List<OrderBatchResultResponse> results;
+        try {
+            results = orderBatchService.createOrders(requests, registeredDateTimes);
+        } catch (RuntimeException e) {
+            log.warn("주문 {}건을 한 번에 저장하지 못했습니다.", batch.size(), e);
+            batch.forEach(pending -> pending.future.completeExceptionally(e));
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            OrderBatchResultResponse result = results.get(i);
+            if (result.isSuccess()) {
+                batch.get(i).future.complete(result.getOrder());
+            } else {
+                batch.get(i).future.completeExceptionally(new IllegalArgumentException(result.getMessage()));
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::runWriter, "order-group-commit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        PendingOrder pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(new IllegalStateException(STOPPED_MESSAGE));
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private static class PendingOrder {
+
+        private final OrderCreateServiceRequest request;
+        private final LocalDateTime registeredDateTime;
+        private final CompletableFuture<OrderResponse> future = new CompletableFuture<>();
+
+        private PendingOrder(OrderCreateServiceRequest request, LocalDateTime registeredDateTime) {
+            this.request = request;
+            this.registeredDateTime = registeredDateTime;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package sample.cafekiosk.spring.api.service.order;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import sample.cafekiosk.spring.api.service.order.request.OrderCreateServiceRequest;
+import sample.cafekiosk.spring.api.service.order.response.OrderResponse;
+import sample.cafekiosk.spring.domain.order.OrderIdempotencyKey;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Idempotency-Key 가 붙은 주문 생성 요청의 중복을 걸러낸다.
+ * 키별로 주문 결과(future)를 크기 제한 + TTL 이 있는 메모리 캐시에 두고,
+ * - 이미 끝난 키로 재시도하면 OrderService 를 거치지 않고 캐시된 응답을 돌려준다.
+ * - 처리 중인 키로 동시에 들어온 요청은 새로 주문하지 않고 먼저 들어온 요청의 결과를 기다린다.
+ * 캐시에서 밀려났거나 재시작한 경우에는 order_idempotency_key 테이블에서 주문을 찾는다.
+ * 실패한 요청은 기억하지 않으므로 같은 키로 다시 시도할 수 있다.
+ */
+@Service
+public class OrderIdempotencyService {
+
+    private final OrderService orderService;
+    private final ConcurrentMap<String, CompletableFuture<OrderResponse>> responses;
+
+    public OrderIdempotencyService(OrderService orderService,
+                                   @Value("${cafekiosk.order.idempotency.max-size:10000}") long maxSize,
+                                   @Value("${cafekiosk.order.idempotency.ttl:1h}") Duration ttl) {
+        this.orderService = orderService;
+        Cache<String, CompletableFuture<OrderResponse>> cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.responses = cache.asMap();
+    }
+
+    public OrderResponse createOrder(String idempotencyKey, OrderCreateServiceRequest request, LocalDateTime registeredDateTime) {
+        validateKey(idempotencyKey);
+
+        CompletableFuture<OrderResponse> created = new CompletableFuture<>();
+        CompletableFuture<OrderResponse> inFlight = responses.putIfAbsent(idempotencyKey, created);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+
+        try {
+            OrderResponse response = orderService.findOrderByIdempotencyKey(idempotencyKey)
+                    .orElseGet(() -> createOrFindDuplicate(idempotencyKey, request, registeredDateTime));
+            created.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            responses.remove(idempotencyKey, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private OrderResponse createOrFindDuplicate(String idempotencyKey, OrderCreateServiceRequest request, LocalDateTime registeredDateTime) {
+        try {
+            return orderService.createOrder(request, registeredDateTime, idempotencyKey);
+        } catch (DataIntegrityViolationException e) {
+            // 다른 서버가 같은 키로 먼저 주문을 등록한 경우
+            return orderService.findOrderByIdempotencyKey(idempotencyKey)
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private OrderResponse await(CompletableFuture<OrderResponse> inFlight) {
+        try {
+            return inFlight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("중복 주문 요청의 결과를 기다리는 중 인터럽트가 발생했습니다.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("주문 등록에 실패했습니다.", e.getCause());
+        }
+    }
+
+    private void validateKey(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > OrderIdempotencyKey.MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key 는 1자 이상 100자 이하여야 합니다.");
+        }
+    }
+}
@@ -1,98 +1,147 @@
 package sample.cafekiosk.spring.api.service.order;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import sample.cafekiosk.spring.api.service.order.request.OrderCreateServiceRequest;
 import sample.cafekiosk.spring.api.service.order.response.OrderResponse;
+import sample.cafekiosk.spring.api.service.product.ProductSnapshotCache;
+import sample.cafekiosk.spring.api.service.stock.StockDeductionStrategy;
+import sample.cafekiosk.spring.api.service.stock.StockHoldService;
 import sample.cafekiosk.spring.domain.order.Order;
+import sample.cafekiosk.spring.domain.order.OrderIdempotencyKey;
+import sample.cafekiosk.spring.domain.order.OrderIdempotencyKeyRepository;
+import sample.cafekiosk.spring.domain.order.OrderPaymentCompletedEvent;
 import sample.cafekiosk.spring.domain.order.OrderRepository;
 import sample.cafekiosk.spring.domain.product.Product;
-import sample.cafekiosk.spring.domain.product.ProductRepository;
-import sample.cafekiosk.spring.domain.product.ProductType;
-import sample.cafekiosk.spring.domain.stock.Stock;
-import sample.cafekiosk.spring.domain.stock.StockRepository;
+import sample.cafekiosk.spring.domain.product.ProductSnapshot;
+import sample.cafekiosk.spring.domain.stock.StockSoldOutEvent;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @Transactional
 @Service
 @RequiredArgsConstructor
 public class OrderService {
 
-    private final ProductRepository productRepository;
+    private final ProductSnapshotCache productSnapshotCache;
     private final OrderRepository orderRepository;
-    private final StockRepository stockRepository;
+    private final StockDeductionStrategy stockDeductionStrategy;
+    private final StockHoldService stockHoldService;
+    private final OrderExpiryScheduler orderExpiryScheduler;
+    private final DailySalesService dailySalesService;
+    private final OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
     /**
      * 재고 감소 -> 동시성 고민
-     * optimistic lock / pessimistic lock / ...
+     * optimistic lock / pessimistic lock / atomic update / 메모리 재고 원장 중 cafekiosk.stock.deduction-mode 설정으로 선택
+     * 차감한 재고는 결제가 끝날 때까지 주문의 점유로 남기고, 결제 없이 만료되면 되돌린다.
+     * 상품은 캐시된 스냅샷을 쓰고, 주문 상품에는 조회 없이 상품 프록시(getReference)만 연결한다.
      */
     public OrderResponse createOrder(OrderCreateServiceRequest request, LocalDateTime registeredDateTime) {
         List<String> productNumbers = request.getProductNumbers();
-        List<Product> products = findProductsBy(productNumbers);
+        List<ProductSnapshot> products = findProductsBy(productNumbers);
 
-        deductStockQuantity(products);
+        Map<String, Integer> deductedQuantities = deductStockQuantity(products);
 
-        Order order = Order.create(products, registeredDateTime);
+        Order order = Order.create(products, product -> entityManager.getReference(Product.class, product.getId()), registeredDateTime);
         Order savedOrder = orderRepository.save(order);
-        return OrderResponse.of(savedOrder);
-    }
-
-    private void deductStockQuantity(List<Product> products) {
-        // 재고 차감 체크가 필요한 상품들 filter
-        List<String> stockProductNumbers = extractStockProductNumbers(products);
 
-        // 재고 엔티티 조회 / 성능 문제 해결을 위해 List -> Map 으로 변환
-        Map<String, Stock> stockMap = createStockMapBy(stockProductNumbers);
+        if (!deductedQuantities.isEmpty()) {
+            LocalDateTime expiresAt = stockHoldService.hold(savedOrder.getId(), deductedQuantities, registeredDateTime);
+            orderExpiryScheduler.schedule(savedOrder.getId(), expiresAt);
+        }
+        return OrderResponse.of(savedOrder, products);
+    }
 
-        // 주문 상품별 counting
-        Map<String, Long> productCountingMap = createCountingMapBy(stockProductNumbers);
+    /**
+     * Idempotency-Key 를 먼저 선점한 뒤 주문을 등록한다.
+     * 같은 키로 다른 트랜잭션이 먼저 선점했다면 unique 제약 위반(DataIntegrityViolationException)으로 전체가 롤백된다.
+     */
+    public OrderResponse createOrder(OrderCreateServiceRequest request, LocalDateTime registeredDateTime, String idempotencyKey) {
+        OrderIdempotencyKey claimedKey = orderIdempotencyKeyRepository.saveAndFlush(OrderIdempotencyKey.claim(idempotencyKey));
 
-        // 재고 차감 시도(중복 제거 필요)
-        for (String stockProductNumber : new HashSet<>(stockProductNumbers)) {
-            Stock stock = stockMap.get(stockProductNumber);
-            int quantity = productCountingMap.get(stockProductNumber).intValue();
+        OrderResponse response = createOrder(request, registeredDateTime);
+        claimedKey.assignOrder(response.getId());
+        return response;
+    }
 
-            if (stock.isQuantityLessThan(quantity)) {
-                throw new IllegalArgumentException("재고가 부족한 상품이 있습니다.");
-            }
-            stock.deductQuantity(quantity);
-        }
+    @Transactional(readOnly = true)
+    public Optional<OrderResponse> findOrderByIdempotencyKey(String idempotencyKey) {
+        return orderIdempotencyKeyRepository.findByIdempotencyKey(idempotencyKey)
+                .map(OrderIdempotencyKey::getOrderId)
+                .flatMap(orderRepository::findById)
+                .map(OrderResponse::of);
     }
 
-    //request 중복을 고려함
-    private List<Product> findProductsBy(List<String> productNumbers) {
-        List<Product> products = productRepository.findAllByProductNumberIn(productNumbers);
+    /**
+     * 점유했던 재고를 최종 차감으로 확정한다.
+     */
+    public OrderResponse completePayment(Long orderId, LocalDateTime paymentDateTime) {
+        Order order = findOrderForUpdate(orderId);
+        order.paymentCompleted(paymentDateTime);
+        dailySalesService.record(order);
+
+        stockHoldService.confirm(orderId);
+        orderExpiryScheduler.cancel(orderId);
+        eventPublisher.publishEvent(OrderPaymentCompletedEvent.of(order, paymentDateTime));
+        return OrderResponse.of(order);
+    }
 
-        Map<String, Product> productMap = products.stream()
-                .collect(Collectors.toMap(Product::getProductNumber, p -> p));
+    public OrderResponse failPayment(Long orderId) {
+        Order order = findOrderForUpdate(orderId);
+        order.paymentFailed();
 
-        return productNumbers.stream()
-                .map(productMap::get)
-                .collect(Collectors.toList());
+        stockHoldService.release(List.of(orderId));
+        orderExpiryScheduler.cancel(orderId);
+        return OrderResponse.of(order);
     }
 
-    private static List<String> extractStockProductNumbers(List<Product> products) {
-        return products.stream()
-                .filter(product -> ProductType.containsStockType(product.getType()))
-                .map(Product::getProductNumber)
-                .collect(Collectors.toList());
+    public OrderResponse cancelOrder(Long orderId) {
+        Order order = findOrderForUpdate(orderId);
+        order.cancel();
+
+        stockHoldService.release(List.of(orderId));
+        orderExpiryScheduler.cancel(orderId);
+        return OrderResponse.of(order);
     }
 
-    private Map<String, Stock> createStockMapBy(List<String> stockProductNumbers) {
-        List<Stock> stocks = stockRepository.findAllByProductNumberIn(stockProductNumbers);
-        return stocks.stream()
-                .collect(Collectors.toMap(Stock::getProductNumber, s -> s));
+    private Order findOrderForUpdate(Long orderId) {
+        return orderRepository.findByIdForUpdate(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 주문입니다."));
     }
 
-    private static Map<String, Long> createCountingMapBy(List<String> stockProductNumbers) {
-        Map<String, Long> productCountingMap = stockProductNumbers.stream()
-                .collect(Collectors.groupingBy(p -> p, Collectors.counting()));
+    private Map<String, Integer> deductStockQuantity(List<ProductSnapshot> products) {
+        // 재고 차감 체크가 필요한 상품별 counting (상품번호 순으로 정렬해서 row lock 획득 순서를 고정)
+        Map<String, Integer> productCountingMap =
+                OrderStockQuantities.count(products, ProductSnapshot::getType, ProductSnapshot::getProductNumber);
+
+        // 재고 차감 시도, 재고가 부족하면 예외
+        if (!productCountingMap.isEmpty()) {
+            List<String> soldOutProductNumbers = stockDeductionStrategy.deduct(productCountingMap);
+            // 이번 주문으로 품절된 상품이 있으면 커밋 후 키오스크에 알린다.
+            if (!soldOutProductNumbers.isEmpty()) {
+                eventPublisher.publishEvent(new StockSoldOutEvent(soldOutProductNumbers));
+            }
+        }
         return productCountingMap;
     }
+
+    //request 중복을 고려함, 동시에 들어온 주문들의 캐시에 없는 상품 조회는 하나의 IN 쿼리로 묶인다.
+    //없는 상품번호는 상품번호 필터로 DB 조회 전에 걸러지고, 찾지 못한 상품이 있으면 거절한다.
+    private List<ProductSnapshot> findProductsBy(List<String> productNumbers) {
+        Map<String, ProductSnapshot> productMap = productSnapshotCache.findAllByProductNumberIn(productNumbers);
+        if (!productMap.keySet().containsAll(productNumbers)) {
+            throw new IllegalArgumentException("존재하지 않는 상품이 포함되어 있습니다.");
+        }
+
+        return OrderStockQuantities.toOrderedProducts(productNumbers, productMap);
+    }
 }
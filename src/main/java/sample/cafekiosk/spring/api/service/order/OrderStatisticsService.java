@@ -4,35 +4,21 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import sample.cafekiosk.spring.api.mail.MailService;
-import sample.cafekiosk.spring.domain.order.Order;
-import sample.cafekiosk.spring.domain.order.OrderRepository;
-import sample.cafekiosk.spring.domain.order.OrderStatus;
 
 import java.time.LocalDate;
-import java.util.List;
 
 
 @Service
 @RequiredArgsConstructor
 public class OrderStatisticsService {
 
-    private final OrderRepository orderRepository;
+    private final DailySalesService dailySalesService;
     private final MailService mailService;
 
 
     public boolean sendOrderStatisticsMail(LocalDate orderDate, String email){
-        // 해당 일자에 결제 완료된 주문들을 가져와서
-        List<Order> orders = orderRepository.findOrdersBy(
-                // atStartOfDay <= 등록시간 < plusDays(1).atStartOfDay()
-            orderDate.atStartOfDay(),
-            orderDate.plusDays(1).atStartOfDay(),
-            OrderStatus.PAYMENT_COMPLETED
-        );
-
-        // 총 매출 합계를 계산하고
-        int totalAmount = orders.stream()
-                .mapToInt(Order::getTotalPrice)
-                .sum();
+        // 해당 일자의 결제 완료 매출 합계를 집계 row 에서 읽고
+        long totalAmount = dailySalesService.getTotalAmount(orderDate);
 
         // 이메일 전송
         boolean result = mailService.sendMail(
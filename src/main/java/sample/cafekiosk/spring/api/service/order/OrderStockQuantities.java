@@ -0,0 +1,164 @@
+package sample.cafekiosk.spring.api.service.order;
+
+import sample.cafekiosk.spring.domain.product.ProductType;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 주문 상품에서 재고 차감 대상의 상품번호별 수량을 센다. (OrderService, OrderBatchService 공용)
+ * 주문마다 호출되므로 상품번호마다 map 노드를 만들지 않고, 서로 다른 상품번호의 index 로 int 배열에 센 뒤
+ * 상품번호 순으로 정렬한 배열을 그대로 감싼 읽기 전용 map 으로 돌려준다. (row lock 획득 순서 고정)
+ */
+final class OrderStockQuantities {
+
+    private OrderStockQuantities() {
+    }
+
+    /**
+     * 요청한 상품번호 순서 (중복 포함) 대로 상품을 나열한다.
+     */
+    static <T> List<T> toOrderedProducts(List<String> productNumbers, Map<String, T> productMap) {
+        List<T> products = new ArrayList<>(productNumbers.size());
+        for (int i = 0; i < productNumbers.size(); i++) {
+            products.add(productMap.get(productNumbers.get(i)));
+        }
+        return products;
+    }
+
+    /**
+     * 재고 관리 대상이 없는 주문(제조 음료만)은 빈 map 을 돌려준다.
+     */
+    static <T> Map<String, Integer> count(List<T> products,
+                                          Function<T, ProductType> typeOf,
+                                          Function<T, String> productNumberOf) {
+        String[] productNumbers = null;
+        int[] quantities = null;
+        int size = 0;
+        for (int i = 0; i < products.size(); i++) {
+            T product = products.get(i);
+            if (!ProductType.containsStockType(typeOf.apply(product))) {
+                continue;
+            }
+            if (productNumbers == null) {
+                productNumbers = new String[products.size() - i];
+                quantities = new int[productNumbers.length];
+            }
+
+            String productNumber = productNumberOf.apply(product);
+            int index = indexOf(productNumbers, size, productNumber);
+            if (index < 0) {
+                index = size++;
+                productNumbers[index] = productNumber;
+            }
+            quantities[index]++;
+        }
+        if (size == 0) {
+            return Collections.emptyMap();
+        }
+
+        sort(productNumbers, quantities, size);
+        return new SortedQuantityMap(productNumbers, quantities, size);
+    }
+
+    // 주문 한 건의 상품 종류는 많지 않으므로 선형 탐색이 해시보다 빠르다.
+    private static int indexOf(String[] productNumbers, int size, String productNumber) {
+        for (int i = 0; i < size; i++) {
+            if (productNumbers[i].equals(productNumber)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void sort(String[] productNumbers, int[] quantities, int size) {
+        for (int i = 1; i < size; i++) {
+            String productNumber = productNumbers[i];
+            int quantity = quantities[i];
+            int j = i - 1;
+            while (j >= 0 && productNumbers[j].compareTo(productNumber) > 0) {
+                productNumbers[j + 1] = productNumbers[j];
+                quantities[j + 1] = quantities[j];
+                j--;
+            }
+            productNumbers[j + 1] = productNumber;
+            quantities[j + 1] = quantity;
+        }
+    }
+
+    /**
+     * 상품번호 순으로 정렬된 배열을 감싼 읽기 전용 map
+     */
+    private static class SortedQuantityMap extends AbstractMap<String, Integer> {
+
+        private final String[] productNumbers;
+        private final int[] quantities;
+        private final int size;
+
+        private SortedQuantityMap(String[] productNumbers, int[] quantities, int size) {
+            this.productNumbers = productNumbers;
+            this.quantities = quantities;
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return indexOfKey(key) >= 0;
+        }
+
+        @Override
+        public Integer get(Object key) {
+            int index = indexOfKey(key);
+            return index < 0 ? null : quantities[index];
+        }
+
+        private int indexOfKey(Object key) {
+            return key instanceof String ? Arrays.binarySearch(productNumbers, 0, size, key) : -1;
+        }
+
+        @Override
+        public Set<Entry<String, Integer>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Integer>> iterator() {
+                    return new Iterator<>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < size;
+                        }
+
+                        @Override
+                        public Entry<String, Integer> next() {
+                            if (next >= size) {
+                                throw new NoSuchElementException();
+                            }
+                            int index = next++;
+                            return new SimpleImmutableEntry<>(productNumbers[index], quantities[index]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+    }
+}
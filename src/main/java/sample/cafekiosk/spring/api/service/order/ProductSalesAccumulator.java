@@ -0,0 +1,103 @@
+package sample.cafekiosk.spring.api.service.order;
+
+import java.util.Arrays;
+
+/**
+ * 상품 id(long)별 판매 수량과 매출을 박싱 없이 더하는 open addressing 집계표
+ * 메모리는 주문 상품 건수가 아니라 팔린 상품 종류 수에만 비례한다.
+ */
+class ProductSalesAccumulator {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // 해시 테이블에는 집계 배열의 index + 1 을 담는다. (0 은 빈 칸)
+    private int[] table = new int[INITIAL_CAPACITY * 2];
+
+    private long[] productIds = new long[INITIAL_CAPACITY];
+    private long[] quantities = new long[INITIAL_CAPACITY];
+    private long[] amounts = new long[INITIAL_CAPACITY];
+    private int size;
+
+    void add(long productId, int quantity, int unitPrice) {
+        add(productId, quantity, (long) unitPrice * quantity);
+    }
+
+    /**
+     * 다른 구간에서 집계한 결과를 합친다.
+     */
+    void addAll(ProductSalesAccumulator other) {
+        for (int index = 0; index < other.size; index++) {
+            add(other.productIds[index], other.quantities[index], other.amounts[index]);
+        }
+    }
+
+    private void add(long productId, long quantity, long amount) {
+        int index = indexOf(productId);
+        quantities[index] += quantity;
+        amounts[index] += amount;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long productIdAt(int index) {
+        return productIds[index];
+    }
+
+    long quantityAt(int index) {
+        return quantities[index];
+    }
+
+    long amountAt(int index) {
+        return amounts[index];
+    }
+
+    private int indexOf(long productId) {
+        int mask = table.length - 1;
+        int slot = hash(productId) & mask;
+        while (table[slot] != 0) {
+            int index = table[slot] - 1;
+            if (productIds[index] == productId) {
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return insert(slot, productId);
+    }
+
+    private int insert(int slot, long productId) {
+        if (size == productIds.length) {
+            grow();
+            return indexOf(productId);
+        }
+
+        int index = size++;
+        productIds[index] = productId;
+        table[slot] = index + 1;
+        return index;
+    }
+
+    // 집계 배열과 해시 테이블을 두 배로 늘린다. (해시 테이블은 항상 절반 이하로 채워진다.)
+    private void grow() {
+        int capacity = productIds.length * 2;
+        productIds = Arrays.copyOf(productIds, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+
+        table = new int[capacity * 2];
+        int mask = table.length - 1;
+        for (int index = 0; index < size; index++) {
+            int slot = hash(productIds[index]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = index + 1;
+        }
+    }
+
+    private static int hash(long productId) {
+        long mixed = productId * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+}
@@ -0,0 +1,198 @@
+package sample.cafekiosk.spring.api.service.order;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import sample.cafekiosk.spring.api.service.order.response.ProductSalesResponse;
+import sample.cafekiosk.spring.api.service.order.response.ProductTypeSalesResponse;
+import sample.cafekiosk.spring.api.service.order.response.SalesReportResponse;
+import sample.cafekiosk.spring.domain.order.OrderSalesJdbcRepository;
+import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductRepository;
+import sample.cafekiosk.spring.domain.product.ProductType;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 기간 동안 결제 완료된 주문의 상품별 / 상품 타입별 판매 수량과 매출
+ * - 주문과 주문 상품을 엔티티로 올리지 않고 주문 상품 row 를 커서로 흘려보내며 상품 id 별로만 더하므로,
+ *   메모리는 주문 상품 건수가 아니라 팔린 상품 종류 수에 비례한다.
+ * - 긴 기간은 partitionDays 일 단위 구간으로 나눠 parallelism 개 스레드의 ForkJoinPool 에서 동시에 조회하고,
+ *   구간별 집계를 합친다. 구간마다 별도의 읽기 전용 트랜잭션(커넥션)을 쓰므로 parallelism 은 커넥션 풀 크기보다 작아야 한다.
+ */
+@Service
+public class SalesReportService implements DisposableBean {
+
+    private final OrderSalesJdbcRepository orderSalesJdbcRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ForkJoinPool forkJoinPool;
+    private final int parallelism;
+    private final int partitionDays;
+
+    public SalesReportService(OrderSalesJdbcRepository orderSalesJdbcRepository,
+                              ProductRepository productRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${cafekiosk.order.sales-report.parallelism:4}") int parallelism,
+                              @Value("${cafekiosk.order.sales-report.partition-days:1}") int partitionDays) {
+        if (parallelism < 1 || partitionDays < 1) {
+            throw new IllegalArgumentException("매출 리포트의 동시 조회 개수와 구간 일수는 1 이상이어야 합니다.");
+        }
+        this.orderSalesJdbcRepository = orderSalesJdbcRepository;
+        this.productRepository = productRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.readOnlyTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // 구간 조회는 JDBC 에서 block 되므로, join 중에 보충 스레드를 만들지 않도록 스레드 수를 parallelism 으로 고정한다.
+        this.forkJoinPool = new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, false,
+                parallelism, parallelism, 1, pool -> true, 60, TimeUnit.SECONDS);
+        this.parallelism = parallelism;
+        this.partitionDays = partitionDays;
+    }
+
+    /**
+     * startDate ~ endDate (두 날짜 포함) 의 매출
+     */
+    public SalesReportResponse getSalesReport(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("조회 종료일은 시작일보다 빠를 수 없습니다.");
+        }
+
+        // 동시에 조회하지 않거나 구간 하나로 끝나는 기간은 나누지 않고 한 번에 조회한다.
+        LocalDate endExclusive = endDate.plusDays(1);
+        ProductSalesAccumulator accumulator = parallelism == 1 || ChronoUnit.DAYS.between(startDate, endExclusive) <= partitionDays
+                ? aggregate(startDate, endExclusive)
+                : forkJoinPool.invoke(new PartitionTask(startDate, endExclusive, partitionDays, this::aggregate));
+
+        return createReport(startDate, endDate, accumulator);
+    }
+
+    @Override
+    public void destroy() {
+        forkJoinPool.shutdownNow();
+    }
+
+    // startDate <= 결제 완료 일자 < endExclusive 구간 하나를 읽기 전용 트랜잭션에서 커서로 조회한다.
+    private ProductSalesAccumulator aggregate(LocalDate startDate, LocalDate endExclusive) {
+        return readOnlyTransactionTemplate.execute(status -> {
+            ProductSalesAccumulator accumulator = new ProductSalesAccumulator();
+            orderSalesJdbcRepository.streamPaidOrderLines(
+                    startDate.atStartOfDay(),
+                    endExclusive.atStartOfDay(),
+                    accumulator::add
+            );
+            return accumulator;
+        });
+    }
+
+    private SalesReportResponse createReport(LocalDate startDate, LocalDate endDate, ProductSalesAccumulator accumulator) {
+        Map<Long, Product> productMap = findProductMap(accumulator);
+
+        ProductType[] productTypes = ProductType.values();
+        long[] quantityByType = new long[productTypes.length];
+        long[] amountByType = new long[productTypes.length];
+
+        List<ProductSalesResponse> products = new ArrayList<>(accumulator.size());
+        for (int index = 0; index < accumulator.size(); index++) {
+            Product product = productMap.get(accumulator.productIdAt(index));
+            long quantity = accumulator.quantityAt(index);
+            long amount = accumulator.amountAt(index);
+
+            quantityByType[product.getType().ordinal()] += quantity;
+            amountByType[product.getType().ordinal()] += amount;
+            products.add(ProductSalesResponse.builder()
+                    .productNumber(product.getProductNumber())
+                    .type(product.getType())
+                    .name(product.getName())
+                    .quantity(quantity)
+                    .amount(amount)
+                    .build());
+        }
+        products.sort(Comparator.comparing(ProductSalesResponse::getProductNumber));
+
+        List<ProductTypeSalesResponse> types = new ArrayList<>();
+        long totalQuantity = 0;
+        long totalAmount = 0;
+        for (ProductType type : productTypes) {
+            if (quantityByType[type.ordinal()] == 0) {
+                continue;
+            }
+            types.add(new ProductTypeSalesResponse(type, quantityByType[type.ordinal()], amountByType[type.ordinal()]));
+            totalQuantity += quantityByType[type.ordinal()];
+            totalAmount += amountByType[type.ordinal()];
+        }
+
+        return SalesReportResponse.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .totalQuantity(totalQuantity)
+                .totalAmount(totalAmount)
+                .types(types)
+                .products(products)
+                .build();
+    }
+
+    // 팔린 상품 종류만큼만 조회한다.
+    private Map<Long, Product> findProductMap(ProductSalesAccumulator accumulator) {
+        List<Long> productIds = new ArrayList<>(accumulator.size());
+        for (int index = 0; index < accumulator.size(); index++) {
+            productIds.add(accumulator.productIdAt(index));
+        }
+        return productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
+    /**
+     * 기간을 partitionDays 단위 구간 경계에서 반으로 나눠 fork 하고, 구간 하나가 남으면 aggregate 로 조회한다.
+     * 서비스 인스턴스를 붙잡지 않도록 static 으로 두고 필요한 값만 넘겨받는다.
+     */
+    private static class PartitionTask extends RecursiveTask<ProductSalesAccumulator> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final LocalDate startDate;
+        private final LocalDate endExclusive;
+        private final int partitionDays;
+        private final BiFunction<LocalDate, LocalDate, ProductSalesAccumulator> aggregate;
+
+        private PartitionTask(LocalDate startDate, LocalDate endExclusive, int partitionDays,
+                              BiFunction<LocalDate, LocalDate, ProductSalesAccumulator> aggregate) {
+            this.startDate = startDate;
+            this.endExclusive = endExclusive;
+            this.partitionDays = partitionDays;
+            this.aggregate = aggregate;
+        }
+
+        @Override
+        protected ProductSalesAccumulator compute() {
+            long days = ChronoUnit.DAYS.between(startDate, endExclusive);
+            if (days <= partitionDays) {
+                return aggregate.apply(startDate, endExclusive);
+            }
+
+            long partitions = (days + partitionDays - 1) / partitionDays;
+            LocalDate middle = startDate.plusDays(partitions / 2 * partitionDays);
+            PartitionTask left = new PartitionTask(startDate, middle, partitionDays, aggregate);
+            left.fork();
+            ProductSalesAccumulator right = new PartitionTask(middle, endExclusive, partitionDays, aggregate).compute();
+
+            ProductSalesAccumulator merged = left.join();
+            merged.addAll(right);
+            return merged;
+        }
+    }
+}
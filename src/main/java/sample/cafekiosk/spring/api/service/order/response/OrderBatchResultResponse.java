@@ -0,0 +1,37 @@
+package sample.cafekiosk.spring.api.service.order.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+public class OrderBatchResultResponse {
+
+    private int index;
+    private boolean success;
+    private OrderResponse order;
+    private String message;
+
+    @Builder
+    private OrderBatchResultResponse(int index, boolean success, OrderResponse order, String message) {
+        this.index = index;
+        this.success = success;
+        this.order = order;
+        this.message = message;
+    }
+
+    public static OrderBatchResultResponse success(int index, OrderResponse order) {
+        return OrderBatchResultResponse.builder()
+                .index(index)
+                .success(true)
+                .order(order)
+                .build();
+    }
+
+    public static OrderBatchResultResponse failure(int index, String message) {
+        return OrderBatchResultResponse.builder()
+                .index(index)
+                .success(false)
+                .message(message)
+                .build();
+    }
+}
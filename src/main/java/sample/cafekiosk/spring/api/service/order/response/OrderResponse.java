@@ -5,9 +5,16 @@ import lombok.Getter;
 import sample.cafekiosk.spring.api.service.product.response.ProductResponse;
 import sample.cafekiosk.spring.domain.order.Order;
 import sample.cafekiosk.spring.domain.order.OrderStatus;
+import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductSnapshot;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Getter
@@ -27,13 +34,29 @@ public class OrderResponse {
     }
 
     public static OrderResponse of(Order order) {
+        return of(order, ProductResponse::of);
+    }
+
+    /**
+     * 상품 스냅샷으로 만든 주문은 주문 상품의 상품이 로딩되지 않은 프록시라서, 상품 정보는 프록시를 초기화하지 않는
+     * id 로 스냅샷에서 찾는다. 수량과 순서는 of(Order) 와 같이 주문 상품을 따른다.
+     */
+    public static OrderResponse of(Order order, Collection<ProductSnapshot> products) {
+        Map<Long, ProductSnapshot> productMap = new HashMap<>();
+        products.forEach(product -> productMap.putIfAbsent(product.getId(), product));
+        return of(order, product -> ProductResponse.of(productMap.get(product.getId())));
+    }
+
+    private static OrderResponse of(Order order, Function<Product, ProductResponse> productResponseOf) {
         return OrderResponse.builder()
                 .id(order.getId())
                 .totalPrice(order.getTotalPrice())
                 .registeredDateTime(order.getRegisteredDateTime())
                 .products(order.getOrderProducts()
                         .stream()
-                        .map(orderProduct -> ProductResponse.of(orderProduct.getProduct()))
+                        // 응답 형식은 그대로 상품 하나당 한 건씩, 같은 상품은 한 번만 변환해서 수량만큼 반복
+                        .flatMap(orderProduct -> Collections.nCopies(orderProduct.getQuantity(),
+                                productResponseOf.apply(orderProduct.getProduct())).stream())
                         .collect(Collectors.toList()))
                 .build();
     }
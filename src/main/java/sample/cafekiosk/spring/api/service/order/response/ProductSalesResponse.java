@@ -0,0 +1,24 @@
+package sample.cafekiosk.spring.api.service.order.response;
+
+import lombok.Builder;
+import lombok.Getter;
+import sample.cafekiosk.spring.domain.product.ProductType;
+
+@Getter
+public class ProductSalesResponse {
+
+    private final String productNumber;
+    private final ProductType type;
+    private final String name;
+    private final long quantity;
+    private final long amount;
+
+    @Builder
+    private ProductSalesResponse(String productNumber, ProductType type, String name, long quantity, long amount) {
+        this.productNumber = productNumber;
+        this.type = type;
+        this.name = name;
+        this.quantity = quantity;
+        this.amount = amount;
+    }
+}
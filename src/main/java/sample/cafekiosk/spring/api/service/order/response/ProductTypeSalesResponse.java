@@ -0,0 +1,18 @@
+package sample.cafekiosk.spring.api.service.order.response;
+
+import lombok.Getter;
+import sample.cafekiosk.spring.domain.product.ProductType;
+
+@Getter
+public class ProductTypeSalesResponse {
+
+    private final ProductType type;
+    private final long quantity;
+    private final long amount;
+
+    public ProductTypeSalesResponse(ProductType type, long quantity, long amount) {
+        this.type = type;
+        this.quantity = quantity;
+        this.amount = amount;
+    }
+}
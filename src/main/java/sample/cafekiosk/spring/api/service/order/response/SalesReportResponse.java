@@ -0,0 +1,29 @@
+package sample.cafekiosk.spring.api.service.order.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+public class SalesReportResponse {
+
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final long totalQuantity;
+    private final long totalAmount;
+    private final List<ProductTypeSalesResponse> types;
+    private final List<ProductSalesResponse> products;
+
+    @Builder
+    private SalesReportResponse(LocalDate startDate, LocalDate endDate, long totalQuantity, long totalAmount,
+                                List<ProductTypeSalesResponse> types, List<ProductSalesResponse> products) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.totalQuantity = totalQuantity;
+        this.totalAmount = totalAmount;
+        this.types = types;
+        this.products = products;
+    }
+}
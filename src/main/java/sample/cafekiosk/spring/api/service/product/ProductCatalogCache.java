@@ -0,0 +1,61 @@
+package sample.cafekiosk.spring.api.service.product;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import sample.cafekiosk.spring.api.service.product.response.ProductResponse;
+import sample.cafekiosk.spring.domain.product.ProductChangedEvent;
+import sample.cafekiosk.spring.domain.product.ProductRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.forDisplay;
+
+/**
+ * 키오스크 메뉴(판매 중 / 판매 보류 상품) 응답을 버전 번호와 함께 메모리에 들고 있는다.
+ * 상품 변경이 커밋되면 버전을 올리고, 다음 조회 때 새 버전으로 다시 읽는다.
+ * 변경 전에 시작한 조회가 늦게 끝나더라도 예전 버전 자리에 들어가므로 새 버전을 덮어쓰지 않는다.
+ * 같은 버전을 동시에 조회하면 한 스레드만 DB 를 읽고 나머지는 그 결과를 기다린다. (LoadingCache)
+ * ttl 은 이벤트 없이 DB 가 바뀐 경우(직접 수정 등)를 위한 안전장치다.
+ */
+@Component
+public class ProductCatalogCache {
+
+    private final AtomicLong version = new AtomicLong();
+    private final LoadingCache<Long, List<ProductResponse>> sellingProducts;
+
+    public ProductCatalogCache(ProductRepository productRepository,
+                               @Value("${cafekiosk.product.catalog-cache.ttl:10m}") Duration ttl) {
+        this.sellingProducts = CacheBuilder.newBuilder()
+                .maximumSize(2)
+                .expireAfterWrite(ttl)
+                .build(CacheLoader.from(loadedVersion -> productRepository.findAllBySellingStatusIn(forDisplay()).stream()
+                        .map(ProductResponse::of)
+                        .collect(Collectors.toUnmodifiableList())));
+    }
+
+    public List<ProductResponse> getSellingProducts() {
+        return sellingProducts.getUnchecked(version.get());
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate();
+    }
+
+    public void invalidate() {
+        long previous = version.getAndIncrement();
+        sellingProducts.invalidate(previous);
+    }
+}
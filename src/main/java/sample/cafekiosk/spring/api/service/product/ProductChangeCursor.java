@@ -0,0 +1,55 @@
+package sample.cafekiosk.spring.api.service.product;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 상품 변경 목록의 위치 (마지막으로 내려준 상품의 modifiedDateTime, id)
+ * 키오스크는 값의 의미를 알 필요가 없으므로 base64url 문자열로 주고받는다.
+ */
+final class ProductChangeCursor {
+
+    static final ProductChangeCursor INITIAL = new ProductChangeCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime modifiedDateTime;
+    private final Long id;
+
+    ProductChangeCursor(LocalDateTime modifiedDateTime, Long id) {
+        this.modifiedDateTime = modifiedDateTime;
+        this.id = id;
+    }
+
+    static ProductChangeCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return INITIAL;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = decoded.indexOf(SEPARATOR);
+            return new ProductChangeCursor(
+                    LocalDateTime.parse(decoded.substring(0, separatorIndex)),
+                    Long.parseLong(decoded.substring(separatorIndex + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("잘못된 cursor 입니다.");
+        }
+    }
+
+    String encode() {
+        String raw = modifiedDateTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    LocalDateTime getModifiedDateTime() {
+        return modifiedDateTime;
+    }
+
+    Long getId() {
+        return id;
+    }
+}
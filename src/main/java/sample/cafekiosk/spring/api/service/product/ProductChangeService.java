@@ -0,0 +1,66 @@
+package sample.cafekiosk.spring.api.service.product;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sample.cafekiosk.spring.api.service.product.response.ProductChangesResponse;
+import sample.cafekiosk.spring.api.service.product.response.ProductResponse;
+import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 키오스크가 들고 있는 메뉴를 전체 목록 대신 변경분으로 맞출 수 있도록 cursor 이후에 등록/변경/판매중지된 상품을 내려준다.
+ *
+ * modifiedDateTime 은 커밋 시점이 아니라 flush 시점에 찍히기 때문에, 먼저 찍히고 늦게 커밋된 변경이
+ * 이미 지나간 cursor 뒤로 들어올 수 있다. 그래서 now - settleLag 보다 이전 변경만 내려줘서 cursor 가 아직 커밋 중일 수 있는 구간을 넘지 않게 한다.
+ */
+@Transactional(readOnly = true)
+@Service
+public class ProductChangeService {
+
+    private final ProductRepository productRepository;
+    private final int pageSize;
+    private final Duration settleLag;
+
+    public ProductChangeService(ProductRepository productRepository,
+                                @Value("${cafekiosk.product.changes.page-size:100}") int pageSize,
+                                @Value("${cafekiosk.product.changes.settle-lag:2s}") Duration settleLag) {
+        this.productRepository = productRepository;
+        this.pageSize = pageSize;
+        this.settleLag = settleLag;
+    }
+
+    public ProductChangesResponse getChanges(String since, LocalDateTime now) {
+        ProductChangeCursor cursor = ProductChangeCursor.decode(since);
+
+        // 다음 페이지가 있는지 알기 위해 한 건 더 읽는다.
+        List<Product> products = productRepository.findChangedAfter(
+                cursor.getModifiedDateTime(), cursor.getId(), now.minus(settleLag), PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = products.size() > pageSize;
+        List<Product> page = hasMore ? products.subList(0, pageSize) : products;
+
+        ProductChangeCursor nextCursor = page.isEmpty()
+                ? cursor
+                : lastCursorOf(page);
+
+        return ProductChangesResponse.builder()
+                .products(page.stream()
+                        .map(ProductResponse::of)
+                        .collect(Collectors.toList()))
+                .cursor(nextCursor.encode())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private ProductChangeCursor lastCursorOf(List<Product> page) {
+        Product last = page.get(page.size() - 1);
+        return new ProductChangeCursor(last.getModifiedDateTime(), last.getId());
+    }
+}
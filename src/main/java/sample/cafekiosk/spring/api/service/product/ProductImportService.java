@@ -0,0 +1,88 @@
+package sample.cafekiosk.spring.api.service.product;
+
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sample.cafekiosk.spring.api.service.product.request.ProductImportServiceRequest;
+import sample.cafekiosk.spring.api.service.product.response.ProductImportResponse;
+import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductChangedEvent;
+import sample.cafekiosk.spring.domain.product.ProductRepository;
+import sample.cafekiosk.spring.domain.stock.StockRepository;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 매장 오픈 때 상품을 한 번에 등록한다.
+ * - 요청을 전부 읽어두지 않고 한 줄씩 받아서, batchSize 개마다 flush / clear 하므로 파일 크기와 상관없이 메모리를 일정하게 쓴다.
+ * - 상품 / 재고 id 는 sequence 로 미리 받아두기 때문에 insert 가 batchSize 단위의 JDBC batch 로 묶인다.
+ * - 한 트랜잭션으로 등록하므로 중간에 잘못된 줄이 있으면 아무 상품도 등록되지 않는다.
+ */
+@Transactional
+@Service
+public class ProductImportService {
+
+    private final ProductRepository productRepository;
+    private final StockRepository stockRepository;
+    private final ProductNumberAllocator productNumberAllocator;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public ProductImportService(ProductRepository productRepository,
+                                StockRepository stockRepository,
+                                ProductNumberAllocator productNumberAllocator,
+                                EntityManager entityManager,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${cafekiosk.product.import.batch-size:500}") int batchSize) {
+        this.productRepository = productRepository;
+        this.stockRepository = stockRepository;
+        this.productNumberAllocator = productNumberAllocator;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    public ProductImportResponse importProducts(Iterator<ProductImportServiceRequest> requests) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+
+        int importedCount = 0;
+        int stockCount = 0;
+        List<String> batchProductNumbers = new ArrayList<>(batchSize);
+        while (requests.hasNext()) {
+            ProductImportServiceRequest request = requests.next();
+            String productNumber = productNumberAllocator.allocate();
+            Product product = productRepository.save(request.toEntity(productNumber));
+            if (request.hasStock()) {
+                stockRepository.save(request.toStock(productNumber));
+                stockCount++;
+            }
+
+            importedCount++;
+            batchProductNumbers.add(product.getProductNumber());
+            if (batchProductNumbers.size() >= batchSize) {
+                flushBatch(batchProductNumbers);
+            }
+        }
+        flushBatch(batchProductNumbers);
+
+        return new ProductImportResponse(importedCount, stockCount);
+    }
+
+    // 커밋 후 메뉴 캐시 / 키오스크 알림은 batch 단위 이벤트 하나로 보낸다.
+    private void flushBatch(List<String> batchProductNumbers) {
+        if (batchProductNumbers.isEmpty()) {
+            return;
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        eventPublisher.publishEvent(new ProductChangedEvent(batchProductNumbers));
+        batchProductNumbers.clear();
+    }
+}
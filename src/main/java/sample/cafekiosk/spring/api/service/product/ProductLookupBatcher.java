@@ -0,0 +1,260 @@
+package sample.cafekiosk.spring.api.service.product;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import sample.cafekiosk.spring.domain.product.ProductRepository;
+import sample.cafekiosk.spring.domain.product.ProductSellingStatus;
+import sample.cafekiosk.spring.domain.product.ProductSnapshot;
+import sample.cafekiosk.spring.domain.product.ProductType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 동시에 들어온 주문들의 상품 조회를 모아서 한 번의 IN 쿼리로 처리한다. (DataLoader 방식)
+ * 첫 조회 요청이 들어온 뒤 window 동안, 혹은 상품번호가 maxKeys 개 모일 때까지 기다렸다가
+ * 모인 상품번호를 한 번에 조회하고 요청마다 자기 상품만 나눠서 돌려준다.
+ *
+ * 주문 트랜잭션은 이미 커넥션을 잡은 채로 결과를 기다리므로, 디스패처가 같은 커넥션 풀을 쓰면
+ * 동시 주문 수가 풀 크기에 닿는 순간 디스패처가 커넥션을 얻지 못해 모두 멈춘다.
+ * 그래서 디스패처는 커넥션 1개짜리 전용 풀로 상품 스냅샷을 직접 조회하고,
+ * 호출한 스레드는 timeout 까지만 기다린 뒤 자기 커넥션으로 직접 조회한다.
+ */
+@Slf4j
+@Component
+public class ProductLookupBatcher implements SmartLifecycle, MeterBinder {
+
+    private static final String FIND_SNAPSHOTS_SQL =
+            "select id, product_number, type, selling_status, name, price from product where product_number in (:productNumbers)";
+
+    private static final RowMapper<ProductSnapshot> SNAPSHOT_ROW_MAPPER = (rs, rowNum) -> ProductSnapshot.builder()
+            .id(rs.getLong("id"))
+            .productNumber(rs.getString("product_number"))
+            .type(ProductType.valueOf(rs.getString("type")))
+            .sellingStatus(ProductSellingStatus.valueOf(rs.getString("selling_status")))
+            .name(rs.getString("name"))
+            .price(rs.getInt("price"))
+            .build();
+
+    private final ProductRepository productRepository;
+    private final DataSourceProperties dataSourceProperties;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxKeys;
+    private final long timeoutNanos;
+    private final BlockingQueue<PendingLookup> queue = new LinkedBlockingQueue<>();
+
+    private Thread dispatcher;
+    private HikariDataSource dispatcherDataSource;
+    private NamedParameterJdbcTemplate dispatcherJdbcTemplate;
+    private volatile boolean running;
+    private volatile DistributionSummary fillRatio;
+
+    public ProductLookupBatcher(ProductRepository productRepository,
+                                DataSourceProperties dataSourceProperties,
+                                @Value("${cafekiosk.product.lookup-batch.enabled:true}") boolean enabled,
+                                @Value("${cafekiosk.product.lookup-batch.window:1ms}") Duration window,
+                                @Value("${cafekiosk.product.lookup-batch.max-keys:100}") int maxKeys,
+                                @Value("${cafekiosk.product.lookup-batch.timeout:100ms}") Duration timeout) {
+        this.productRepository = productRepository;
+        this.dataSourceProperties = dataSourceProperties;
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxKeys = maxKeys;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    /**
+     * 상품번호에 해당하는 상품 스냅샷들을 돌려준다. 없는 상품번호는 결과에서 빠진다.
+     */
+    public List<ProductSnapshot> findAllByProductNumberIn(Collection<String> productNumbers) {
+        if (!running) {
+            return findDirectly(productNumbers);
+        }
+
+        PendingLookup pending = new PendingLookup(new LinkedHashSet<>(productNumbers));
+        queue.add(pending);
+        try {
+            return pending.future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // 디스패처가 늦으면 더 기다리지 않고 호출한 스레드의 커넥션으로 조회한다. 늦게 온 결과는 버린다.
+            pending.future.cancel(false);
+            log.debug("상품 {}개를 묶어서 조회하는 데 {}ms 를 넘겨 직접 조회합니다.",
+                    pending.productNumbers.size(), TimeUnit.NANOSECONDS.toMillis(timeoutNanos));
+            return findDirectly(pending.productNumbers);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("상품 조회를 기다리는 중 인터럽트가 발생했습니다.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("상품 조회에 실패했습니다.", e.getCause());
+        }
+    }
+
+    private List<ProductSnapshot> findDirectly(Collection<String> productNumbers) {
+        return productRepository.findAllByProductNumberIn(new ArrayList<>(productNumbers)).stream()
+                .map(ProductSnapshot::of)
+                .collect(Collectors.toList());
+    }
+
+    private void runDispatcher() {
+        while (running || !queue.isEmpty()) {
+            List<PendingLookup> batch = new ArrayList<>();
+            Set<String> productNumbers = new LinkedHashSet<>();
+            try {
+                collectBatch(batch, productNumbers);
+            } catch (InterruptedException e) {
+                // stop() 에서 깨운 경우, 이미 꺼낸 요청과 남은 요청을 처리하고 종료한다.
+            }
+            if (!batch.isEmpty()) {
+                dispatch(batch, productNumbers);
+            }
+        }
+    }
+
+    /**
+     * 첫 요청을 기다린 뒤, 그때부터 window 안에 들어온 요청을 상품번호가 maxKeys 개가 될 때까지 모은다.
+     */
+    private void collectBatch(List<PendingLookup> batch, Set<String> productNumbers) throws InterruptedException {
+        PendingLookup first = running ? queue.take() : queue.poll();
+        if (first == null) {
+            return;
+        }
+        add(first, batch, productNumbers);
+
+        long deadline = System.nanoTime() + windowNanos;
+        while (productNumbers.size() < maxKeys) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            PendingLookup next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            add(next, batch, productNumbers);
+        }
+    }
+
+    private void add(PendingLookup pending, List<PendingLookup> batch, Set<String> productNumbers) {
+        if (pending.future.isDone()) {
+            return; // timeout 으로 호출한 스레드가 이미 직접 조회한 요청
+        }
+        batch.add(pending);
+        productNumbers.addAll(pending.productNumbers);
+    }
+
+    private void dispatch(List<PendingLookup> batch, Set<String> productNumbers) {
+        DistributionSummary summary = fillRatio;
+        if (summary != null) {
+            summary.record((double) productNumbers.size() / maxKeys);
+        }
+
+        Map<String, ProductSnapshot> productMap;
+        try {
+            productMap = dispatcherJdbcTemplate.query(FIND_SNAPSHOTS_SQL,
+                            Map.of("productNumbers", new ArrayList<>(productNumbers)), SNAPSHOT_ROW_MAPPER).stream()
+                    .collect(Collectors.toMap(ProductSnapshot::getProductNumber, Function.identity()));
+        } catch (RuntimeException e) {
+            log.warn("상품 {}개를 한 번에 조회하지 못했습니다.", productNumbers.size(), e);
+            batch.forEach(pending -> pending.future.completeExceptionally(e));
+            return;
+        }
+
+        for (PendingLookup pending : batch) {
+            List<ProductSnapshot> products = pending.productNumbers.stream()
+                    .map(productMap::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            pending.future.complete(products);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        fillRatio = DistributionSummary.builder("cafekiosk.product.lookup-batch.fill-ratio")
+                .description("한 번에 조회한 상품번호 수 / max-keys")
+                .publishPercentiles(0.5, 0.95)
+                .register(registry);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        dispatcherDataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dispatcherDataSource.setPoolName("product-lookup-batcher");
+        dispatcherDataSource.setMaximumPoolSize(1);
+        dispatcherDataSource.setMinimumIdle(1);
+        dispatcherDataSource.setReadOnly(true);
+        dispatcherJdbcTemplate = new NamedParameterJdbcTemplate(dispatcherDataSource);
+
+        running = true;
+        dispatcher = new Thread(this::runDispatcher, "product-lookup-batcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        dispatcher.interrupt();
+        try {
+            dispatcher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        PendingLookup pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(new IllegalStateException("서버가 종료 중이라 상품을 조회하지 못했습니다."));
+        }
+        dispatcherDataSource.close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private static class PendingLookup {
+
+        private final Set<String> productNumbers;
+        private final CompletableFuture<List<ProductSnapshot>> future = new CompletableFuture<>();
+
+        private PendingLookup(Set<String> productNumbers) {
+            this.productNumbers = productNumbers;
+        }
+    }
+}
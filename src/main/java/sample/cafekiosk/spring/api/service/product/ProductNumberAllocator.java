@@ -0,0 +1,113 @@
+package sample.cafekiosk.spring.api.service.product;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import sample.cafekiosk.spring.domain.product.ProductNumberCounter;
+import sample.cafekiosk.spring.domain.product.ProductNumberCounterRepository;
+import sample.cafekiosk.spring.domain.product.ProductRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 상품번호를 blockSize 개씩 product_number_counter 에서 예약해 두고 메모리에서 하나씩 나눠준다.
+ * - 번호를 꺼낼 때는 AtomicLong 증가만 하므로 상품마다 DB 를 조회하지 않고, 동시에 등록해도 번호가 겹치지 않는다.
+ * - 예약은 별도 트랜잭션(REQUIRES_NEW)으로 바로 커밋해서, 상품 등록 트랜잭션 동안 카운터 row lock 을 잡고 있지 않는다.
+ * - 서버가 재시작되거나 상품 등록이 롤백되면 예약해 둔 번호 중 일부는 쓰이지 않고 건너뛴다.
+ */
+@Component
+public class ProductNumberAllocator {
+
+    private static final Block EMPTY = new Block(0, 0);
+
+    private final ProductNumberCounterRepository productNumberCounterRepository;
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+
+    private volatile Block block = EMPTY;
+
+    public ProductNumberAllocator(ProductNumberCounterRepository productNumberCounterRepository,
+                                  ProductRepository productRepository,
+                                  EntityManager entityManager,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${cafekiosk.product.number-block-size:50}") int blockSize) {
+        this.productNumberCounterRepository = productNumberCounterRepository;
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * 최소 3자리로 0을 채운 상품번호 (001, 002 ... 999, 1000 ...)
+     */
+    public String allocate() {
+        return String.format("%03d", nextValue());
+    }
+
+    private long nextValue() {
+        while (true) {
+            Block current = block;
+            long value = current.next.getAndIncrement();
+            if (value < current.limit) {
+                return value;
+            }
+
+            // 블록을 다 쓴 스레드 중 하나만 새 블록을 예약한다.
+            synchronized (this) {
+                if (block == current) {
+                    block = reserveBlock();
+                }
+            }
+        }
+    }
+
+    private Block reserveBlock() {
+        try {
+            return transactionTemplate.execute(status -> reserveBlockInTransaction());
+        } catch (DataIntegrityViolationException | PersistenceException e) {
+            // 다른 서버가 카운터를 먼저 만든 경우, 만들어진 카운터에서 예약한다.
+            return transactionTemplate.execute(status -> reserveBlockInTransaction());
+        }
+    }
+
+    private Block reserveBlockInTransaction() {
+        ProductNumberCounter counter = productNumberCounterRepository.findByIdForUpdate(ProductNumberCounter.singletonId())
+                .orElseGet(this::createCounter);
+        long start = counter.reserve(blockSize);
+        return new Block(start, start + blockSize);
+    }
+
+    // id 를 직접 정하는 엔티티라 save() 는 merge 로 동작해서, 다른 서버가 먼저 만든 카운터를 덮어쓸 수 있다.
+    // persist 로 insert 해야 먼저 만든 카운터가 있을 때 키 중복으로 실패한다.
+    private ProductNumberCounter createCounter() {
+        ProductNumberCounter counter = ProductNumberCounter.startFrom(firstValue());
+        entityManager.persist(counter);
+        entityManager.flush();
+        return counter;
+    }
+
+    private long firstValue() {
+        Long maxProductNumber = productRepository.findMaxProductNumber();
+        return maxProductNumber == null ? 1 : maxProductNumber + 1;
+    }
+
+    private static class Block {
+
+        private final AtomicLong next;
+        private final long limit;
+
+        private Block(long start, long limit) {
+            this.next = new AtomicLong(start);
+            this.limit = limit;
+        }
+    }
+}
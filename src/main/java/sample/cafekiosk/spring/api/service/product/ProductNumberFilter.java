@@ -0,0 +1,216 @@
+package sample.cafekiosk.spring.api.service.product;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import sample.cafekiosk.spring.domain.product.ProductChangedEvent;
+import sample.cafekiosk.spring.domain.product.ProductRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 등록된 상품번호의 Bloom filter
+ * 주문에 없는 상품번호가 있으면 DB 를 조회하기 전에 거절한다.
+ * - "없다"는 판단은 항상 맞고, "있을 수도 있다"는 판단은 fpp 확률로 틀릴 수 있어서 그 경우에만 DB 조회 후 거절된다.
+ * - 상품은 삭제되지 않으므로 커밋된 ProductChangedEvent 의 새 상품번호만 더해 간다.
+ *   (상품마다가 아니라 저장 / import batch 마다 한 번 발행되므로 트랜잭션 동기화도 batch 당 하나다.)
+ * - 기대 개수를 넘으면 두 배 크기로 다시 만든다. 전체 상품번호를 읽어야 하므로 요청 스레드가 아닌 별도 스레드에서 만든다.
+ * - 다시 만드는 동안 커밋된 상품번호도 새 필터에 들어가도록, 새 필터를 먼저 걸어둔 뒤 DB 에서 채운다.
+ */
+@Component
+public class ProductNumberFilter implements SmartLifecycle, MeterBinder {
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final double fpp;
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong falsePositiveCount = new AtomicLong();
+    private final Object swapLock = new Object();
+    private final AtomicBoolean growing = new AtomicBoolean();
+
+    private volatile BloomFilter<String> filter;
+    private BloomFilter<String> building; // swapLock
+    private volatile long expectedInsertions;
+    private volatile boolean running;
+    private ExecutorService rebuildExecutor;
+
+    public ProductNumberFilter(ProductRepository productRepository,
+                               @Value("${cafekiosk.product.number-filter.enabled:true}") boolean enabled,
+                               @Value("${cafekiosk.product.number-filter.expected-insertions:10000}") long expectedInsertions,
+                               @Value("${cafekiosk.product.number-filter.fpp:0.01}") double fpp) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+    }
+
+    /**
+     * 필터로 확실히 없다고 판단되는 상품번호. 필터를 아직 만들지 않았으면 비어 있다.
+     */
+    public List<String> findUnknown(Collection<String> productNumbers) {
+        BloomFilter<String> current = filter;
+        if (current == null) {
+            return List.of();
+        }
+
+        // 대부분의 주문은 모두 등록된 상품이므로, 없는 상품번호가 나올 때만 리스트를 만든다.
+        List<String> unknown = null;
+        for (String productNumber : productNumbers) {
+            if (current.mightContain(productNumber)) {
+                continue;
+            }
+            if (unknown == null) {
+                unknown = new ArrayList<>();
+            }
+            if (!unknown.contains(productNumber)) {
+                unknown.add(productNumber);
+            }
+        }
+        if (unknown == null) {
+            return List.of();
+        }
+        rejectedCount.incrementAndGet();
+        return unknown;
+    }
+
+    /**
+     * 필터를 통과했지만 DB 에 없던 경우 (오탐)
+     */
+    public void recordFalsePositive() {
+        falsePositiveCount.incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        event.getProductNumbers().forEach(this::put);
+    }
+
+    private void put(String productNumber) {
+        BloomFilter<String> current;
+        synchronized (swapLock) {
+            current = filter;
+            if (current != null) {
+                current.put(productNumber);
+            }
+            if (building != null) {
+                building.put(productNumber);
+            }
+        }
+
+        if (current != null && isFull(current) && growing.compareAndSet(false, true)) {
+            rebuildExecutor.execute(this::grow);
+        }
+    }
+
+    private boolean isFull(BloomFilter<String> current) {
+        return current.approximateElementCount() > expectedInsertions;
+    }
+
+    // 상품번호가 기대 개수를 넘으면 오탐률이 올라가므로 두 배 크기로 다시 만든다.
+    // 다시 만드는 동안 더 등록되어 또 넘쳤을 수 있으므로, 넘치지 않을 때까지 반복한다.
+    private void grow() {
+        try {
+            synchronized (this) {
+                while (isFull(filter)) {
+                    rebuild(expectedInsertions * 2);
+                }
+            }
+        } finally {
+            growing.set(false);
+        }
+    }
+
+    public synchronized void rebuild() {
+        rebuild(expectedInsertions);
+    }
+
+    private void rebuild(long nextExpectedInsertions) {
+        BloomFilter<String> next = BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), nextExpectedInsertions, fpp);
+        synchronized (swapLock) {
+            building = next;
+        }
+        productRepository.findAllProductNumbers().forEach(next::put);
+
+        expectedInsertions = Math.max(nextExpectedInsertions, next.approximateElementCount() * 2);
+        synchronized (swapLock) {
+            filter = next;
+            building = null;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("cafekiosk.product.number-filter.expected-fpp", this, ProductNumberFilter::expectedFpp)
+                .description("현재 상품번호 수 기준 필터의 예상 오탐률")
+                .register(registry);
+        Gauge.builder("cafekiosk.product.number-filter.false-positive-ratio", this, ProductNumberFilter::observedFalsePositiveRatio)
+                .description("없는 상품번호가 포함된 주문 중 필터를 통과한 비율")
+                .register(registry);
+        FunctionCounter.builder("cafekiosk.product.number-filter.rejected", rejectedCount, AtomicLong::get)
+                .description("DB 조회 없이 거절한 주문 수")
+                .register(registry);
+        FunctionCounter.builder("cafekiosk.product.number-filter.false-positive", falsePositiveCount, AtomicLong::get)
+                .description("필터를 통과했지만 DB 에 없던 주문 수")
+                .register(registry);
+    }
+
+    double expectedFpp() {
+        BloomFilter<String> current = filter;
+        return current == null ? 0 : current.expectedFpp();
+    }
+
+    double observedFalsePositiveRatio() {
+        long falsePositives = falsePositiveCount.get();
+        long unknownOrders = falsePositives + rejectedCount.get();
+        return unknownOrders == 0 ? 0 : (double) falsePositives / unknownOrders;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-number-filter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rebuild();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (rebuildExecutor != null) {
+            rebuildExecutor.shutdown();
+            try {
+                rebuildExecutor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
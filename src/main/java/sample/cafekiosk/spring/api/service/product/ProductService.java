@@ -1,17 +1,18 @@
 package sample.cafekiosk.spring.api.service.product;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import sample.cafekiosk.spring.api.service.product.request.ProductCreateServiceRequest;
 import sample.cafekiosk.spring.api.service.product.response.ProductResponse;
 import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductChangedEvent;
 import sample.cafekiosk.spring.domain.product.ProductRepository;
+import sample.cafekiosk.spring.domain.product.ProductSellingStatus;
 
 import java.util.List;
-import java.util.stream.Collectors;
-
-import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.forDisplay;
 
 /**
  * readOnly = true : 읽기전용
@@ -27,42 +28,36 @@ import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.forDis
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductCatalogCache productCatalogCache;
+    private final ProductNumberAllocator productNumberAllocator;
+    private final ApplicationEventPublisher eventPublisher;
 
-    // 동시성 이슈
-    // ex)한번에 여러 물건이 등록될 경우 -> 해당 컬럼을 유니크로 잡아두고, 실패시 최대 3회까지 재시도 하는 등
-    // ex) UUID 사용
+    // 상품번호는 미리 예약해 둔 블록에서 꺼내므로 동시에 등록해도 겹치지 않는다.
     @Transactional
     public ProductResponse createProduct(ProductCreateServiceRequest request) {
-        // productNumber 부여
-        // 001 002 003 004
-        // DB 에서 마지막 저장된 Product의 상품번호를 읽어와서 +1
-        // 009 -> 010
-        String nextProductNumber = createNextProductNumber();
+        String nextProductNumber = productNumberAllocator.allocate();
 
         Product product = request.toEntity(nextProductNumber);
         Product savedProduct = productRepository.save(product);
 
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct.getProductNumber()));
         return ProductResponse.of(savedProduct);
     }
 
+    @Transactional
+    public ProductResponse changeSellingStatus(String productNumber, ProductSellingStatus sellingStatus) {
+        Product product = productRepository.findByProductNumber(productNumber)
+                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 상품입니다."));
+        product.changeSellingStatus(sellingStatus);
 
-    public List<ProductResponse> getSellingProducts() {
-        List<Product> products = productRepository.findAllBySellingStatusIn(forDisplay());
-        return products.stream()
-                .map(ProductResponse::of)
-                .collect(Collectors.toList());
+        eventPublisher.publishEvent(new ProductChangedEvent(productNumber));
+        return ProductResponse.of(product);
     }
 
-    private String createNextProductNumber() {
-        String lastedProductNumber = productRepository.findLastedProductNumber();
-        if (lastedProductNumber == null){
-            return "001";
-        }
-
-        int lastProductNumberInt = Integer.parseInt(lastedProductNumber);
-        int nextProductNumberInt = lastProductNumberInt + 1;
-        // 9 -> 009, 10 -> 010
-        return String.format("%03d", nextProductNumberInt);
+    // 캐시에서 바로 돌려줄 때는 트랜잭션(커넥션)을 잡지 않는다.
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<ProductResponse> getSellingProducts() {
+        return productCatalogCache.getSellingProducts();
     }
 
 }
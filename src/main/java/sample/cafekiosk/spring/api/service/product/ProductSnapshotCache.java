@@ -0,0 +1,114 @@
+package sample.cafekiosk.spring.api.service.product;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import sample.cafekiosk.spring.domain.product.ProductChangedEvent;
+import sample.cafekiosk.spring.domain.product.ProductSnapshot;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 주문에서 쓰는 상품번호 -> 상품 스냅샷 캐시 (read-through)
+ * - 캐시에 없는 상품번호만 모아서 ProductLookupBatcher 로 한 번에 조회한다.
+ * - 캐시에 있는 상품은 등록된 상품이므로, 상품번호 필터는 캐시에 없는 상품번호에만 적용한다.
+ *   필터로 없다고 확인된 상품번호가 있으면 조회하지 않는다. (호출한 쪽은 빠진 상품이 있으면 실패로 처리한다.)
+ * - 상품이 바뀌면 커밋 후 해당 상품번호를 지운다. (ProductChangedEvent)
+ * - 조회하는 동안(혹은 넣는 도중에) 상품이 바뀌었으면 조회한 값을 캐시에 남기지 않아서, 지운 뒤에 옛 값이 다시 들어가지 않는다.
+ * - 없는 상품번호는 캐시하지 않는다.
+ */
+@Component
+public class ProductSnapshotCache implements MeterBinder {
+
+    private final ProductLookupBatcher productLookupBatcher;
+    private final ProductNumberFilter productNumberFilter;
+    private final Cache<String, ProductSnapshot> snapshots;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ProductSnapshotCache(ProductLookupBatcher productLookupBatcher,
+                                ProductNumberFilter productNumberFilter,
+                                @Value("${cafekiosk.product.snapshot-cache.max-size:1000}") long maxSize,
+                                @Value("${cafekiosk.product.snapshot-cache.ttl:10m}") Duration ttl) {
+        this.productLookupBatcher = productLookupBatcher;
+        this.productNumberFilter = productNumberFilter;
+        this.snapshots = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 상품번호에 해당하는 스냅샷들을 돌려준다. 없는 상품번호는 결과에서 빠진다.
+     */
+    public Map<String, ProductSnapshot> findAllByProductNumberIn(Collection<String> productNumbers) {
+        // 모두 캐시에 있으면 결과 map 하나만 만든다.
+        Map<String, ProductSnapshot> found = new HashMap<>();
+        List<String> missing = null;
+        for (String productNumber : productNumbers) {
+            if (found.containsKey(productNumber) || (missing != null && missing.contains(productNumber))) {
+                continue;
+            }
+            ProductSnapshot snapshot = snapshots.getIfPresent(productNumber);
+            if (snapshot != null) {
+                found.put(productNumber, snapshot);
+                continue;
+            }
+            if (missing == null) {
+                missing = new ArrayList<>();
+            }
+            missing.add(productNumber);
+        }
+        if (missing == null || !productNumberFilter.findUnknown(missing).isEmpty()) {
+            return found;
+        }
+
+        long generation = invalidations.get();
+        Map<String, ProductSnapshot> loaded = productLookupBatcher.findAllByProductNumberIn(missing).stream()
+                .collect(Collectors.toMap(ProductSnapshot::getProductNumber, snapshot -> snapshot));
+
+        if (loaded.size() < missing.size()) {
+            productNumberFilter.recordFalsePositive();
+        }
+
+        if (invalidations.get() == generation) {
+            snapshots.putAll(loaded);
+            // 확인과 put 사이에 지워졌을 수 있으므로, put 한 뒤에 다시 확인해서 바뀌었으면 넣은 값을 지운다.
+            // 지우는 쪽은 세대를 먼저 올린 뒤 지우므로, 여기서 바뀐 것을 못 봤다면 그쪽의 삭제가 put 보다 뒤에 일어난다.
+            if (invalidations.get() != generation) {
+                snapshots.invalidateAll(loaded.keySet());
+            }
+        }
+        found.putAll(loaded);
+        return found;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidations.incrementAndGet();
+        snapshots.invalidateAll(event.getProductNumbers());
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        snapshots.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        GuavaCacheMetrics.monitor(registry, snapshots, "product.snapshot");
+    }
+}
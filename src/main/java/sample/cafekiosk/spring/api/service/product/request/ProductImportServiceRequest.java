@@ -0,0 +1,47 @@
+package sample.cafekiosk.spring.api.service.product.request;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductSellingStatus;
+import sample.cafekiosk.spring.domain.product.ProductType;
+import sample.cafekiosk.spring.domain.stock.Stock;
+
+@Getter
+@NoArgsConstructor
+public class ProductImportServiceRequest {
+
+    private ProductType type;
+    private ProductSellingStatus sellingStatus;
+    private String name;
+    private int price;
+    private int stockQuantity;
+
+    @Builder
+    private ProductImportServiceRequest(ProductType type, ProductSellingStatus sellingStatus, String name, int price, int stockQuantity) {
+        this.type = type;
+        this.sellingStatus = sellingStatus;
+        this.name = name;
+        this.price = price;
+        this.stockQuantity = stockQuantity;
+    }
+
+    public Product toEntity(String nextProductNumber) {
+        return Product.builder()
+                .productNumber(nextProductNumber)
+                .type(type)
+                .sellingStatus(sellingStatus)
+                .name(name)
+                .price(price)
+                .build();
+    }
+
+    public boolean hasStock() {
+        return ProductType.containsStockType(type);
+    }
+
+    public Stock toStock(String productNumber) {
+        return Stock.create(productNumber, stockQuantity);
+    }
+}
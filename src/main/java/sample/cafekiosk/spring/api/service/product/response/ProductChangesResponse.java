@@ -0,0 +1,21 @@
+package sample.cafekiosk.spring.api.service.product.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class ProductChangesResponse {
+
+    private List<ProductResponse> products;
+    private String cursor;
+    private boolean hasMore;
+
+    @Builder
+    private ProductChangesResponse(List<ProductResponse> products, String cursor, boolean hasMore) {
+        this.products = products;
+        this.cursor = cursor;
+        this.hasMore = hasMore;
+    }
+}
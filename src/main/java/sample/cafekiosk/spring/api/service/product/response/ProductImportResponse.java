@@ -0,0 +1,15 @@
+package sample.cafekiosk.spring.api.service.product.response;
+
+import lombok.Getter;
+
+@Getter
+public class ProductImportResponse {
+
+    private final int importedCount;
+    private final int stockCount;
+
+    public ProductImportResponse(int importedCount, int stockCount) {
+        this.importedCount = importedCount;
+        this.stockCount = stockCount;
+    }
+}
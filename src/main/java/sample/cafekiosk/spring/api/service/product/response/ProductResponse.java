@@ -3,6 +3,7 @@ package sample.cafekiosk.spring.api.service.product.response;
 import lombok.Builder;
 import lombok.Getter;
 import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductSnapshot;
 import sample.cafekiosk.spring.domain.product.ProductSellingStatus;
 import sample.cafekiosk.spring.domain.product.ProductType;
 
@@ -36,4 +37,15 @@ public class ProductResponse {
                 .price(product.getPrice())
                 .build();
     }
+
+    public static ProductResponse of(ProductSnapshot product) {
+        return ProductResponse.builder()
+                .id(product.getId())
+                .productNumber(product.getProductNumber())
+                .type(product.getType())
+                .sellingStatus(product.getSellingStatus())
+                .name(product.getName())
+                .price(product.getPrice())
+                .build();
+    }
 }
@@ -0,0 +1,152 @@
+package sample.cafekiosk.spring.api.service.stats;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import sample.cafekiosk.spring.api.service.stats.response.LiveProductTypeSalesResponse;
+import sample.cafekiosk.spring.api.service.stats.response.LiveSalesResponse;
+import sample.cafekiosk.spring.domain.order.OrderPaymentCompletedEvent;
+import sample.cafekiosk.spring.domain.order.OrderSalesJdbcRepository;
+import sample.cafekiosk.spring.domain.product.ProductType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 오늘 매출을 DB 조회 없이 보여주기 위한 메모리 집계
+ * - 결제가 커밋되면 결제 시각의 분 bucket 에 상품 타입별 금액과 주문 수를 더한다.
+ * - 하루치(1440분) bucket 만 원형 배열로 들고 있으므로, 조회는 주문 수와 상관없이 bucket 개수만큼만 본다.
+ * - 서버가 시작될 때 오늘 결제 완료된 주문으로 다시 채운다.
+ *   결제 요청을 받기 전에 채우도록 웹 서버보다 먼저 시작한다.
+ */
+@Component
+public class LiveSalesCounter implements SmartLifecycle {
+
+    static final int BUCKET_COUNT = 24 * 60;
+
+    // 웹 서버(Integer.MAX_VALUE - 1)보다 먼저 시작
+    private static final int PHASE = Integer.MAX_VALUE - 2;
+
+    private final OrderSalesJdbcRepository orderSalesJdbcRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private volatile SalesRingBuffer ring = new SalesRingBuffer(BUCKET_COUNT);
+    private volatile boolean running;
+
+    public LiveSalesCounter(OrderSalesJdbcRepository orderSalesJdbcRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.orderSalesJdbcRepository = orderSalesJdbcRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPaymentCompleted(OrderPaymentCompletedEvent event) {
+        ring.record(toEpochMinute(event.getPaymentDateTime()), event.getAmountByType());
+    }
+
+    /**
+     * now 가 속한 날의 0시부터 now 까지의 매출
+     */
+    public LiveSalesResponse getTodaySales(LocalDateTime now) {
+        LocalDate today = now.toLocalDate();
+        SalesRingBuffer.Totals totals = ring.sum(toEpochMinute(today.atStartOfDay()), toEpochMinute(now));
+
+        List<LiveProductTypeSalesResponse> types = new ArrayList<>();
+        long totalAmount = 0;
+        for (ProductType type : ProductType.values()) {
+            types.add(new LiveProductTypeSalesResponse(type, totals.getOrderCount(type), totals.getAmount(type)));
+            totalAmount += totals.getAmount(type);
+        }
+
+        return LiveSalesResponse.builder()
+                .date(today)
+                .asOf(now)
+                .orderCount(totals.getOrderCount())
+                .totalAmount(totalAmount)
+                .types(types)
+                .build();
+    }
+
+    /**
+     * now 가 속한 날의 0시부터 결제 완료된 주문으로 새 원형 배열을 채운 뒤 바꿔 끼운다.
+     */
+    public void rebuild(LocalDateTime now) {
+        SalesRingBuffer next = new SalesRingBuffer(BUCKET_COUNT);
+        OrderAmounts orderAmounts = new OrderAmounts(next);
+
+        readOnlyTransactionTemplate.executeWithoutResult(status ->
+                orderSalesJdbcRepository.streamPaidOrderAmountsByType(
+                        now.toLocalDate().atStartOfDay(),
+                        now.toLocalDate().plusDays(1).atStartOfDay(),
+                        orderAmounts::add
+                ));
+        orderAmounts.flush();
+
+        ring = next;
+    }
+
+    private static long toEpochMinute(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    @Override
+    public void start() {
+        rebuild(LocalDateTime.now());
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    // 주문 id 순서로 오는 (주문, 상품 타입) row 들을 주문 단위로 모아서 원형 배열에 더한다.
+    private static class OrderAmounts {
+
+        private final SalesRingBuffer ring;
+        private final long[] amountByType = new long[ProductType.values().length];
+
+        private long orderId = -1;
+        private long epochMinute;
+
+        private OrderAmounts(SalesRingBuffer ring) {
+            this.ring = ring;
+        }
+
+        private void add(long orderId, LocalDateTime registeredDateTime, ProductType type, long amount) {
+            if (orderId != this.orderId) {
+                flush();
+                this.orderId = orderId;
+                this.epochMinute = toEpochMinute(registeredDateTime);
+            }
+            amountByType[type.ordinal()] += amount;
+        }
+
+        private void flush() {
+            if (orderId == -1) {
+                return;
+            }
+            ring.record(epochMinute, amountByType);
+            Arrays.fill(amountByType, 0);
+            orderId = -1;
+        }
+    }
+}
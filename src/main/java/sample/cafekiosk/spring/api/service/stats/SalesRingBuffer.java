@@ -0,0 +1,127 @@
+package sample.cafekiosk.spring.api.service.stats;
+
+import sample.cafekiosk.spring.domain.product.ProductType;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 분 단위 매출 bucket 을 고정 크기 원형 배열에 담는다.
+ * - bucket 은 (epoch 분 % 크기) 자리에 있고, 크기만큼 지난 분이 오면 비우고 다시 쓴다.
+ * - 금액과 주문 수는 LongAdder 로 더해서, 같은 분에 결제가 몰려도 한 값에 CAS 경합이 생기지 않는다.
+ * - bucket 을 다시 쓰는 순간 읽으면 그 bucket 이 잠깐 빠지거나 덜 더해질 수 있다. (실시간 대시보드 용도라 허용)
+ */
+class SalesRingBuffer {
+
+    private static final int TYPE_COUNT = ProductType.values().length;
+
+    private final Bucket[] buckets;
+
+    SalesRingBuffer(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("매출 bucket 개수는 1개 이상이어야 합니다.");
+        }
+        buckets = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    /**
+     * 주문 하나의 ProductType.ordinal() 별 금액을 해당 분에 더한다.
+     * 원형 배열이 담고 있는 기간보다 오래된 분이면 버린다.
+     */
+    void record(long epochMinute, long[] amountByType) {
+        Bucket bucket = bucketFor(epochMinute);
+        if (bucket == null) {
+            return;
+        }
+
+        bucket.orderCount.increment();
+        for (int type = 0; type < TYPE_COUNT; type++) {
+            if (amountByType[type] == 0) {
+                continue;
+            }
+            bucket.amounts[type].add(amountByType[type]);
+            bucket.orderCounts[type].increment();
+        }
+    }
+
+    /**
+     * fromMinute <= 분 <= toMinute 인 bucket 들의 합 (bucket 개수만큼만 본다.)
+     */
+    Totals sum(long fromMinute, long toMinute) {
+        Totals totals = new Totals();
+        for (Bucket bucket : buckets) {
+            long minute = bucket.minute;
+            if (minute < fromMinute || minute > toMinute) {
+                continue;
+            }
+            totals.orderCount += bucket.orderCount.sum();
+            for (int type = 0; type < TYPE_COUNT; type++) {
+                totals.amounts[type] += bucket.amounts[type].sum();
+                totals.orderCounts[type] += bucket.orderCounts[type].sum();
+            }
+        }
+        return totals;
+    }
+
+    private Bucket bucketFor(long epochMinute) {
+        Bucket bucket = buckets[(int) Math.floorMod(epochMinute, (long) buckets.length)];
+        if (bucket.minute == epochMinute) {
+            return bucket;
+        }
+
+        synchronized (bucket) {
+            if (bucket.minute < epochMinute) {
+                bucket.reset(epochMinute);
+            }
+            return bucket.minute == epochMinute ? bucket : null;
+        }
+    }
+
+    private static class Bucket {
+
+        private final LongAdder orderCount = new LongAdder();
+        private final LongAdder[] amounts = createAdders();
+        private final LongAdder[] orderCounts = createAdders();
+
+        private volatile long minute = Long.MIN_VALUE;
+
+        // 값을 먼저 비우고 분을 바꿔서, 새 분으로 보이는 bucket 에 이전 분의 값이 남지 않게 한다.
+        private void reset(long epochMinute) {
+            orderCount.reset();
+            for (int type = 0; type < TYPE_COUNT; type++) {
+                amounts[type].reset();
+                orderCounts[type].reset();
+            }
+            minute = epochMinute;
+        }
+
+        private static LongAdder[] createAdders() {
+            LongAdder[] adders = new LongAdder[TYPE_COUNT];
+            for (int type = 0; type < TYPE_COUNT; type++) {
+                adders[type] = new LongAdder();
+            }
+            return adders;
+        }
+    }
+
+    static class Totals {
+
+        private long orderCount;
+        private final long[] amounts = new long[TYPE_COUNT];
+        private final long[] orderCounts = new long[TYPE_COUNT];
+
+        long getOrderCount() {
+            return orderCount;
+        }
+
+        long getAmount(ProductType type) {
+            return amounts[type.ordinal()];
+        }
+
+        long getOrderCount(ProductType type) {
+            return orderCounts[type.ordinal()];
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package sample.cafekiosk.spring.api.service.stats.response;
+
+import lombok.Getter;
+import sample.cafekiosk.spring.domain.product.ProductType;
+
+@Getter
+public class LiveProductTypeSalesResponse {
+
+    private final ProductType type;
+    private final long orderCount;
+    private final long amount;
+
+    public LiveProductTypeSalesResponse(ProductType type, long orderCount, long amount) {
+        this.type = type;
+        this.orderCount = orderCount;
+        this.amount = amount;
+    }
+}
@@ -0,0 +1,28 @@
+package sample.cafekiosk.spring.api.service.stats.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+public class LiveSalesResponse {
+
+    private final LocalDate date;
+    private final LocalDateTime asOf;
+    private final long orderCount;
+    private final long totalAmount;
+    private final List<LiveProductTypeSalesResponse> types;
+
+    @Builder
+    private LiveSalesResponse(LocalDate date, LocalDateTime asOf, long orderCount, long totalAmount,
+                              List<LiveProductTypeSalesResponse> types) {
+        this.date = date;
+        this.asOf = asOf;
+        this.orderCount = orderCount;
+        this.totalAmount = totalAmount;
+        this.types = types;
+    }
+}
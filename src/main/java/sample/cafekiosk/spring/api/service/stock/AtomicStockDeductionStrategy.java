@@ -0,0 +1,114 @@
+package sample.cafekiosk.spring.api.service.stock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import sample.cafekiosk.spring.domain.stock.StockDeductResult;
+import sample.cafekiosk.spring.domain.stock.StockJdbcRepository;
+import sample.cafekiosk.spring.domain.stock.StockRepository;
+import sample.cafekiosk.spring.domain.stock.StockVersionView;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Component
+@ConditionalOnProperty(name = StockDeductionStrategy.MODE_PROPERTY, havingValue = "atomic", matchIfMissing = true)
+@RequiredArgsConstructor
+public class AtomicStockDeductionStrategy implements StockDeductionStrategy {
+
+    private final StockJdbcRepository stockJdbcRepository;
+    private final StockRepository stockRepository;
+    private final StockSlotRegistry stockSlotRegistry;
+
+    /**
+     * 상품마다 slot 하나를 무작위로 골라 상품번호 순으로 batch 차감하고, 고른 slot 이 부족한 상품은 그 상품의 slot 들에서 다시 차감한다.
+     * 다시 차감할 때 잡는 lock 이 이미 잡은 lock 보다 뒤 순서(상품번호, slot)가 되도록, batch 는 여러 slot 으로 나뉜 상품에서 끊어서 보낸다.
+     * 그러면 부족할 수 있는 상품은 항상 batch 의 마지막이라, 다시 차감하는 동안 잡고 있는 lock 은 앞 상품들의 slot 뿐이다.
+     * (조건을 만족하지 못해 아무 row 도 바꾸지 못한 UPDATE 는 READ COMMITTED 에서 lock 을 남기지 않는다.)
+     * 품절 여부는 slot 의 마지막 수량을 가져간 상품만 재고 합계를 조회해서 확인한다.
+     */
+    @Override
+    public List<String> deduct(Map<String, Integer> quantityByProductNumber) {
+        Map<String, Integer> batch = new LinkedHashMap<>();
+        Map<String, Integer> slotByProductNumber = new HashMap<>();
+        Set<String> soldOutCandidates = new TreeSet<>();
+        for (Map.Entry<String, Integer> entry : quantityByProductNumber.entrySet()) {
+            String productNumber = entry.getKey();
+            int slot = stockSlotRegistry.pickSlot(productNumber);
+            batch.put(productNumber, entry.getValue());
+            slotByProductNumber.put(productNumber, slot);
+            if (stockSlotRegistry.isSharded(productNumber)) {
+                deductBatch(batch, slotByProductNumber, soldOutCandidates);
+                batch.clear();
+            }
+        }
+        deductBatch(batch, slotByProductNumber, soldOutCandidates);
+
+        if (soldOutCandidates.isEmpty()) {
+            return List.of();
+        }
+        return stockRepository.findSoldOutProductNumbers(soldOutCandidates);
+    }
+
+    private void deductBatch(Map<String, Integer> batch, Map<String, Integer> slotByProductNumber,
+                             Set<String> soldOutCandidates) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        StockDeductResult result = stockJdbcRepository.deductQuantities(batch, slotByProductNumber);
+        soldOutCandidates.addAll(result.getEmptiedProductNumbers());
+
+        // 고른 slot 이 부족했던 상품만 실제 slot 들을 읽어서 다시 시도
+        // 다시 시도하는 상품은 재고가 얼마 남지 않은 상품이므로 품절 여부도 확인한다.
+        for (String productNumber : result.getFailedProductNumbers()) {
+            int quantity = batch.get(productNumber);
+            if (!deductFromOtherSlot(productNumber, quantity)) {
+                deductAcrossLockedSlots(productNumber, quantity);
+            }
+            soldOutCandidates.add(productNumber);
+        }
+    }
+
+    @Override
+    public void restore(Map<String, Integer> quantityByProductNumber) {
+        stockJdbcRepository.applyDeltas(StockSlots.toDeltas(quantityByProductNumber, 1));
+    }
+
+    /**
+     * 수량이 충분한 다른 slot 하나에서 차감한다.
+     *
+     * @return 한 slot 으로는 부족해서 모든 slot 에 나눠 차감해야 하면 false
+     */
+    private boolean deductFromOtherSlot(String productNumber, int quantity) {
+        List<StockVersionView> slots = stockRepository.findVersionViewsByProductNumber(productNumber);
+        stockSlotRegistry.register(productNumber, slots.size());
+        if (StockSlots.sum(slots, StockVersionView::getQuantity) < quantity) {
+            throw new IllegalArgumentException("재고가 부족한 상품이 있습니다.");
+        }
+
+        List<StockVersionView> candidates = new ArrayList<>(slots);
+        while (!candidates.isEmpty()) {
+            StockVersionView slot = StockSlots.pick(candidates, StockVersionView::getQuantity, quantity);
+            if (slot.getQuantity() < quantity) {
+                return false;
+            }
+            if (stockJdbcRepository.deductQuantity(slot.getId(), quantity)) {
+                return true;
+            }
+            candidates.remove(slot);
+        }
+        return false;
+    }
+
+    /**
+     * 한 slot 으로는 부족한 상품의 slot 들을 slot 순으로 lock 을 잡고 나눠서 차감한다.
+     */
+    private void deductAcrossLockedSlots(String productNumber, int quantity) {
+        StockSlots.deductAcross(stockRepository.findAllForUpdateByProductNumberIn(List.of(productNumber)), quantity);
+    }
+}
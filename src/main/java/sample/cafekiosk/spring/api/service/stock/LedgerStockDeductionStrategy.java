@@ -0,0 +1,63 @@
+package sample.cafekiosk.spring.api.service.stock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * stock 테이블 대신 메모리의 재고 원장에서 예약하고, DB 반영은 원장의 flusher 에 맡긴다.
+ * 예약과 복구 모두 주문 트랜잭션 안에서 원장의 journal 에 기록하고, 커밋되면 확정, 롤백되면 메모리의 예약만 되돌린다.
+ */
+@Component
+@ConditionalOnProperty(name = StockDeductionStrategy.MODE_PROPERTY, havingValue = "ledger")
+@RequiredArgsConstructor
+public class LedgerStockDeductionStrategy implements StockDeductionStrategy {
+
+    private final StockLedger stockLedger;
+
+    @Override
+    public List<String> deduct(Map<String, Integer> quantityByProductNumber) {
+        String key = stockLedger.reserve(new TreeMap<>(quantityByProductNumber));
+        completeWithTransaction(key);
+
+        // 원장의 남은 수량은 메모리에 있으므로 DB 를 조회하지 않는다.
+        return quantityByProductNumber.keySet().stream()
+                .filter(productNumber -> stockLedger.available(productNumber) <= 0)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void restore(Map<String, Integer> quantityByProductNumber) {
+        String key = stockLedger.release(new TreeMap<>(quantityByProductNumber));
+        completeWithTransaction(key);
+    }
+
+    /**
+     * 트랜잭션이 커밋되면 기록을 확정하고, 롤백되면 예약을 되돌린다. 트랜잭션이 없으면 바로 확정한다.
+     * 확정과 취소 모두 메모리만 바꾸므로 커밋 이후 콜백에서 예외가 나가지 않는다.
+     */
+    private void completeWithTransaction(String key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            stockLedger.confirm(key);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    stockLedger.confirm(key);
+                } else {
+                    stockLedger.cancel(key);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,121 @@
+package sample.cafekiosk.spring.api.service.stock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import sample.cafekiosk.spring.domain.stock.StockJdbcRepository;
+import sample.cafekiosk.spring.domain.stock.StockRepository;
+import sample.cafekiosk.spring.domain.stock.StockVersionView;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 읽어온 버전이 그대로일 때만 차감하고, 다른 주문이 먼저 차감했다면 다시 읽어서 재시도한다.
+ * 재시도는 상품 단위로 현재 트랜잭션 안에서 이뤄지기 때문에 주문 전체를 다시 실행하지 않는다.
+ * 같은 트랜잭션에서 다시 읽을 때 다른 주문이 커밋한 버전이 보여야 하므로 READ COMMITTED 이하의 격리 수준이 필요하다.
+ * (REPEATABLE READ 에서는 매번 같은 snapshot 을 읽어 재시도가 성공할 수 없으므로 시작할 때 실패한다.)
+ * 재시도마다 트랜잭션을 새로 열면 주문이 롤백돼도 차감이 남으므로 그렇게 하지 않는다.
+ */
+@Component
+@ConditionalOnProperty(name = StockDeductionStrategy.MODE_PROPERTY, havingValue = "optimistic")
+public class OptimisticStockDeductionStrategy implements StockDeductionStrategy {
+
+    private final StockRepository stockRepository;
+    private final StockJdbcRepository stockJdbcRepository;
+    private final int maxAttempts;
+    private final Duration backoff;
+
+    public OptimisticStockDeductionStrategy(DataSource dataSource,
+                                            StockRepository stockRepository,
+                                            StockJdbcRepository stockJdbcRepository,
+                                            @Value("${cafekiosk.stock.optimistic.max-attempts:5}") int maxAttempts,
+                                            @Value("${cafekiosk.stock.optimistic.backoff:10ms}") Duration backoff) {
+        requireReadCommitted(dataSource);
+        this.stockRepository = stockRepository;
+        this.stockJdbcRepository = stockJdbcRepository;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+    }
+
+    @Override
+    public List<String> deduct(Map<String, Integer> quantityByProductNumber) {
+        List<String> soldOutProductNumbers = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : quantityByProductNumber.entrySet()) {
+            if (deductWithRetry(entry.getKey(), entry.getValue())) {
+                soldOutProductNumbers.add(entry.getKey());
+            }
+        }
+        return soldOutProductNumbers;
+    }
+
+    /**
+     * 복구는 조건 없이 더하면서 version 을 올리므로, 동시에 차감하던 주문은 충돌로 보고 다시 읽는다.
+     */
+    @Override
+    public void restore(Map<String, Integer> quantityByProductNumber) {
+        stockJdbcRepository.applyDeltas(StockSlots.toDeltas(quantityByProductNumber, 1));
+    }
+
+    private static void requireReadCommitted(DataSource dataSource) {
+        int isolation;
+        try (Connection connection = dataSource.getConnection()) {
+            isolation = connection.getTransactionIsolation();
+        } catch (SQLException e) {
+            throw new IllegalStateException("DB 의 트랜잭션 격리 수준을 확인하지 못했습니다.", e);
+        }
+        if (isolation > Connection.TRANSACTION_READ_COMMITTED) {
+            throw new IllegalStateException("optimistic 재고 차감은 READ COMMITTED 이하의 격리 수준에서만 사용할 수 있습니다.");
+        }
+    }
+
+    /**
+     * @return 마지막으로 읽은 slot 들 기준으로 차감 후 재고가 남지 않으면 true
+     */
+    private boolean deductWithRetry(String productNumber, int quantity) {
+        int remaining = quantity;
+        int conflicts = 0;
+        while (true) {
+            List<StockVersionView> slots = stockRepository.findVersionViewsByProductNumber(productNumber);
+            if (StockSlots.sum(slots, StockVersionView::getQuantity) < remaining) {
+                throw new IllegalArgumentException("재고가 부족한 상품이 있습니다.");
+            }
+
+            // 수량이 충분한 slot 을 무작위로 고르고, 없으면 가장 많은 slot 부터 나눠서 차감
+            StockVersionView slot = StockSlots.pick(slots, StockVersionView::getQuantity, remaining);
+            int deductQuantity = Math.min(remaining, slot.getQuantity());
+            if (stockRepository.deductQuantityIfVersionMatches(slot.getId(), slot.getVersion(), deductQuantity) == 1) {
+                remaining -= deductQuantity;
+                if (remaining == 0) {
+                    return StockSlots.sum(slots, StockVersionView::getQuantity) - deductQuantity <= 0;
+                }
+                continue;
+            }
+
+            if (++conflicts >= maxAttempts) {
+                throw new IllegalStateException("재고 차감 중 충돌이 반복되어 주문에 실패했습니다.");
+            }
+            sleepWithJitter(conflicts);
+        }
+    }
+
+    /**
+     * 재시도할 때마다 대기 상한을 두 배로 늘리고, 그 안에서 무작위로 기다린다. (full jitter)
+     * 같은 상품을 두고 경합하는 주문들이 동시에 다시 부딪히지 않도록 한다.
+     */
+    private void sleepWithJitter(int attempt) {
+        long maxSleepMillis = backoff.toMillis() << (attempt - 1);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(maxSleepMillis + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("재고 차감 재시도 중 인터럽트가 발생했습니다.", e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package sample.cafekiosk.spring.api.service.stock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import sample.cafekiosk.spring.domain.stock.Stock;
+import sample.cafekiosk.spring.domain.stock.StockJdbcRepository;
+import sample.cafekiosk.spring.domain.stock.StockRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = StockDeductionStrategy.MODE_PROPERTY, havingValue = "pessimistic")
+@RequiredArgsConstructor
+public class PessimisticStockDeductionStrategy implements StockDeductionStrategy {
+
+    private final StockRepository stockRepository;
+    private final StockJdbcRepository stockJdbcRepository;
+
+    @Override
+    public List<String> deduct(Map<String, Integer> quantityByProductNumber) {
+        // 상품번호, slot 순으로 정렬해서 lock 을 잡기 때문에 주문끼리 교착 상태가 생기지 않는다.
+        List<Stock> stocks = stockRepository.findAllForUpdateByProductNumberIn(quantityByProductNumber.keySet());
+        Map<String, List<Stock>> slotsByProductNumber = stocks.stream()
+                .collect(Collectors.groupingBy(Stock::getProductNumber, TreeMap::new, Collectors.toList()));
+        if (slotsByProductNumber.size() != quantityByProductNumber.size()) {
+            throw new IllegalArgumentException("재고가 부족한 상품이 있습니다.");
+        }
+
+        // 상품의 모든 slot 에 lock 을 잡고 있으므로, 차감한 slot 들의 합이 곧 남은 재고
+        List<String> soldOutProductNumbers = new ArrayList<>();
+        for (Map.Entry<String, List<Stock>> entry : slotsByProductNumber.entrySet()) {
+            StockSlots.deductAcross(entry.getValue(), quantityByProductNumber.get(entry.getKey()));
+            if (StockSlots.sum(entry.getValue(), Stock::getQuantity) <= 0) {
+                soldOutProductNumbers.add(entry.getKey());
+            }
+        }
+        return soldOutProductNumbers;
+    }
+
+    @Override
+    public void restore(Map<String, Integer> quantityByProductNumber) {
+        stockJdbcRepository.applyDeltas(StockSlots.toDeltas(quantityByProductNumber, 1));
+    }
+}
@@ -0,0 +1,35 @@
+package sample.cafekiosk.spring.api.service.stock;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 재고 차감 방식
+ * cafekiosk.stock.deduction-mode 설정으로 배포 환경마다 하나를 선택한다.
+ * - atomic : 조건부 UPDATE 한 번으로 차감 (기본값)
+ * - optimistic : @Version 비교 후 차감, 충돌 시 jitter 를 준 제한된 재시도
+ * - pessimistic : select ... for update 로 상품번호 순서대로 lock 후 차감
+ * - ledger : 메모리의 재고 원장에서 CAS 로 예약하고, stock 테이블에는 모아서 나중에 반영
+ */
+public interface StockDeductionStrategy {
+
+    String MODE_PROPERTY = "cafekiosk.stock.deduction-mode";
+
+    /**
+     * 상품번호별 수량만큼 재고를 차감한다.
+     * 호출하는 쪽의 트랜잭션 안에서 실행되며, 하나라도 재고가 부족하면 예외를 던진다.
+     *
+     * @param quantityByProductNumber 상품번호 순으로 정렬된 상품번호별 차감 수량
+     * @return 이번 차감으로 재고가 남지 않게 된 상품번호 (차감 직후 품절 알림용)
+     */
+    List<String> deduct(Map<String, Integer> quantityByProductNumber);
+
+    /**
+     * 차감했던 수량을 재고에 되돌린다. (결제 실패, 주문 취소, 재고 점유 만료)
+     * 호출하는 쪽의 트랜잭션 안에서 실행된다.
+     *
+     * @param quantityByProductNumber 상품번호 순으로 정렬된 상품번호별 복구 수량
+     */
+    void restore(Map<String, Integer> quantityByProductNumber);
+
+}
@@ -0,0 +1,75 @@
+package sample.cafekiosk.spring.api.service.stock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sample.cafekiosk.spring.domain.stock.StockHold;
+import sample.cafekiosk.spring.domain.stock.StockHoldRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * 주문이 점유한 재고를 기록하고, 결제 결과에 따라 확정하거나 되돌린다.
+ * 주문 상태 변경은 호출하는 쪽에서 주문 row 를 lock 한 뒤에 함께 처리한다.
+ */
+@Transactional
+@Service
+public class StockHoldService {
+
+    private final StockHoldRepository stockHoldRepository;
+    private final StockDeductionStrategy stockDeductionStrategy;
+    private final Duration ttl;
+
+    public StockHoldService(StockHoldRepository stockHoldRepository,
+                            StockDeductionStrategy stockDeductionStrategy,
+                            @Value("${cafekiosk.stock.hold.ttl:15m}") Duration ttl) {
+        this.stockHoldRepository = stockHoldRepository;
+        this.stockDeductionStrategy = stockDeductionStrategy;
+        this.ttl = ttl;
+    }
+
+    /**
+     * 이미 차감한 수량을 주문의 점유로 기록한다.
+     *
+     * @return 점유 만료 시각
+     */
+    public LocalDateTime hold(Long orderId, Map<String, Integer> quantityByProductNumber, LocalDateTime registeredDateTime) {
+        LocalDateTime expiresAt = registeredDateTime.plus(ttl);
+        List<StockHold> holds = quantityByProductNumber.entrySet().stream()
+                .map(entry -> StockHold.create(orderId, entry.getKey(), entry.getValue(), expiresAt))
+                .collect(Collectors.toList());
+        stockHoldRepository.saveAll(holds);
+        return expiresAt;
+    }
+
+    /**
+     * 점유만 지워서 주문 생성 시 차감한 재고를 확정한다.
+     */
+    public void confirm(Long orderId) {
+        stockHoldRepository.deleteAllByOrderIdIn(List.of(orderId));
+    }
+
+    /**
+     * 주문들이 점유한 수량을 상품별로 합쳐 한 번에 재고에 되돌리고 점유를 지운다.
+     */
+    public void release(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+
+        List<StockHold> holds = stockHoldRepository.findAllByOrderIdIn(orderIds);
+        Map<String, Integer> quantityByProductNumber = holds.stream()
+                .collect(Collectors.groupingBy(StockHold::getProductNumber, TreeMap::new,
+                        Collectors.summingInt(StockHold::getQuantity)));
+        if (!quantityByProductNumber.isEmpty()) {
+            stockDeductionStrategy.restore(quantityByProductNumber);
+        }
+        stockHoldRepository.deleteAllByOrderIdIn(orderIds);
+    }
+}
@@ -0,0 +1,325 @@
+package sample.cafekiosk.spring.api.service.stock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sample.cafekiosk.spring.domain.stock.Stock;
+import sample.cafekiosk.spring.domain.stock.StockJdbcRepository;
+import sample.cafekiosk.spring.domain.stock.StockLedgerReservation;
+import sample.cafekiosk.spring.domain.stock.StockLedgerReservationRepository;
+import sample.cafekiosk.spring.domain.stock.StockRepository;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 상품번호별 가용 재고를 메모리에 두고 CAS 로 예약하는 재고 원장
+ * - 상품마다 독립된 카운터를 ConcurrentHashMap 에 두기 때문에 서로 다른 상품의 주문끼리는 경합하지 않는다.
+ * - 예약과 복구는 주문 트랜잭션이 커밋되기 전에 key 를 붙여 journal 에 기록하고, 같은 트랜잭션에서 key 로 예약 row 를 남긴다.
+ *   재시작할 때는 예약 row 가 있는 key 의 기록만 다시 적용하므로, 커밋 직후에 종료되어도 차감이 사라지지 않고
+ *   롤백된 주문의 기록은 적용되지 않는다.
+ * - stock 테이블에는 flusher 가 모아서 반영하고, 상품의 증감량은 lock 을 잡은 slot 들에 고르게 나눈다. (write-behind)
+ * - 이 모드에서는 원장이 재고의 기준이므로, 다른 경로로 stock 테이블을 직접 수정하면 안 된다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = StockDeductionStrategy.MODE_PROPERTY, havingValue = "ledger")
+public class StockLedger implements SmartLifecycle {
+
+    private final StockRepository stockRepository;
+    private final StockJdbcRepository stockJdbcRepository;
+    private final StockLedgerReservationRepository reservationRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final StockLedgerJournal journal;
+    private final Duration flushInterval;
+
+    private final ConcurrentHashMap<String, AtomicLong> availableByProductNumber = new ConcurrentHashMap<>();
+    // journal 에 기록했지만 주문 트랜잭션이 아직 끝나지 않은 기록
+    private final ConcurrentHashMap<String, StockLedgerJournal.Entry> inFlightEntries = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+    private volatile boolean running;
+
+    public StockLedger(StockRepository stockRepository,
+                       StockJdbcRepository stockJdbcRepository,
+                       StockLedgerReservationRepository reservationRepository,
+                       EntityManager entityManager,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${cafekiosk.stock.ledger.journal-dir}") Path journalDirectory,
+                       @Value("${cafekiosk.stock.ledger.fsync:true}") boolean fsync,
+                       @Value("${cafekiosk.stock.ledger.flush-interval:1s}") Duration flushInterval) {
+        this.stockRepository = stockRepository;
+        this.stockJdbcRepository = stockJdbcRepository;
+        this.reservationRepository = reservationRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.journal = new StockLedgerJournal(journalDirectory, fsync);
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * 상품번호별 수량을 모두 예약하거나, 하나라도 부족하면 아무것도 예약하지 않는다.
+     * 예약한 수량은 호출하는 쪽의 트랜잭션 안에서 journal 과 예약 row 로 남기며,
+     * 트랜잭션이 커밋되면 confirm, 롤백되면 cancel 을 돌려받은 key 로 호출해야 한다.
+     */
+    public String reserve(Map<String, Integer> quantityByProductNumber) {
+        List<Map.Entry<String, Integer>> reserved = new ArrayList<>(quantityByProductNumber.size());
+        for (Map.Entry<String, Integer> entry : quantityByProductNumber.entrySet()) {
+            AtomicLong available = availableOf(entry.getKey());
+            if (available == null || !tryDeduct(available, entry.getValue())) {
+                reserved.forEach(done -> availableOf(done.getKey()).addAndGet(done.getValue()));
+                throw new IllegalArgumentException("재고가 부족한 상품이 있습니다.");
+            }
+            reserved.add(entry);
+        }
+
+        try {
+            return record(StockSlots.toDeltas(quantityByProductNumber, -1));
+        } catch (RuntimeException e) {
+            reserved.forEach(done -> availableOf(done.getKey()).addAndGet(done.getValue()));
+            throw e;
+        }
+    }
+
+    /**
+     * 커밋된 주문에서 차감했던 수량을 되돌린다. (주문 취소 등)
+     * reserve 와 같이 호출하는 쪽의 트랜잭션 안에서 기록하고, 원장의 가용 재고는 confirm 할 때 늘어난다.
+     */
+    public String release(Map<String, Integer> quantityByProductNumber) {
+        // 카운터를 먼저 만들어 둬야 confirm 할 때 DB 에서 읽어오지 않고, 아직 반영 전인 증감량이 중복으로 더해지지 않는다.
+        quantityByProductNumber.keySet().forEach(this::availableOf);
+        return record(StockSlots.toDeltas(quantityByProductNumber, 1));
+    }
+
+    /**
+     * 커밋된 주문의 기록을 다음 반영 대상에 넣는다. 메모리만 바꾸므로 afterCommit 에서 호출해도 실패하지 않는다.
+     */
+    public void confirm(String key) {
+        StockLedgerJournal.Entry entry = inFlightEntries.remove(key);
+        if (entry == null) {
+            return;
+        }
+        // 예약(음수)은 reserve 에서 이미 빼 두었으므로, 복구(양수)만 가용 재고에 더한다.
+        entry.getDeltas().forEach((productNumber, delta) -> {
+            AtomicLong available = availableByProductNumber.get(productNumber);
+            if (delta > 0 && available != null) {
+                available.addAndGet(delta);
+            }
+        });
+        journal.confirm(entry);
+    }
+
+    /**
+     * 커밋되지 않은 주문의 예약을 메모리에서 되돌린다. journal 의 기록은 예약 row 가 없으므로 다시 적용되지 않는다.
+     */
+    public void cancel(String key) {
+        StockLedgerJournal.Entry entry = inFlightEntries.remove(key);
+        if (entry == null) {
+            return;
+        }
+        entry.getDeltas().forEach((productNumber, delta) -> {
+            AtomicLong available = availableByProductNumber.get(productNumber);
+            if (delta < 0 && available != null) {
+                available.addAndGet(-delta);
+            }
+        });
+        try {
+            journal.discard(entry);
+        } catch (IOException e) {
+            log.warn("롤백된 재고 원장 기록의 segment 를 지우지 못했습니다. 다음 재시작 때 지워집니다.", e);
+        }
+    }
+
+    public long available(String productNumber) {
+        AtomicLong available = availableOf(productNumber);
+        return available == null ? 0L : available.get();
+    }
+
+    /**
+     * 커밋된 기록의 증감량을 상품의 slot 들에 나눠 한 번의 batch UPDATE 로 반영하고, 같은 트랜잭션에서 기록들의 예약 row 를 지운다.
+     */
+    public void flush() {
+        StockLedgerJournal.Batch batch;
+        try {
+            batch = journal.drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException("재고 원장 journal 을 넘기지 못했습니다.", e);
+        }
+        if (batch == null) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<String, Long> deltas = batch.mergeDeltas();
+                if (!deltas.isEmpty()) {
+                    List<Stock> lockedSlots = stockRepository.findAllForUpdateByProductNumberIn(deltas.keySet());
+                    stockJdbcRepository.applySlotDeltas(StockSlots.spreadDeltas(lockedSlots, deltas));
+                }
+                reservationRepository.deleteAllByIdInBatch(batch.keys());
+            });
+        } catch (RuntimeException e) {
+            journal.rollback(batch);
+            throw e;
+        }
+
+        try {
+            journal.complete(batch);
+        } catch (IOException e) {
+            // 예약 row 는 이미 지워졌으므로 남은 segment 는 다음 재시작 때 건너뛰고 지워진다.
+            log.warn("반영이 끝난 재고 원장 journal 을 지우지 못했습니다.", e);
+        }
+    }
+
+    /**
+     * DB 의 재고에 커밋됐지만 아직 반영되지 않은 journal 기록을 더해 원장을 다시 만든다.
+     * 예약 row 가 없는 key 의 기록은 롤백됐거나 이미 반영된 것이므로 버린다.
+     */
+    void recover() throws IOException {
+        List<StockLedgerJournal.Entry> entries = journal.recover();
+        Set<String> committedKeys = reservationRepository.findAllById(entries.stream()
+                        .map(StockLedgerJournal.Entry::getKey)
+                        .collect(Collectors.toList())).stream()
+                .map(StockLedgerReservation::getId)
+                .collect(Collectors.toSet());
+
+        availableByProductNumber.clear();
+        for (StockLedgerJournal.Entry entry : entries) {
+            if (!committedKeys.contains(entry.getKey())) {
+                journal.discard(entry);
+                continue;
+            }
+            entry.getDeltas().forEach((productNumber, delta) -> {
+                AtomicLong available = availableOf(productNumber);
+                if (available != null) {
+                    available.addAndGet(delta);
+                }
+            });
+            journal.confirm(entry);
+        }
+    }
+
+    // 호출하는 쪽의 트랜잭션에 참여해서 (없으면 새로 열어서) 예약 row 를 남긴다.
+    private String record(Map<String, Long> deltaByProductNumber) {
+        String key = UUID.randomUUID().toString();
+        StockLedgerJournal.Entry entry;
+        try {
+            entry = journal.append(key, deltaByProductNumber);
+        } catch (IOException e) {
+            throw new UncheckedIOException("재고 원장 기록에 실패했습니다.", e);
+        }
+        inFlightEntries.put(key, entry);
+
+        try {
+            // id 를 직접 정하는 엔티티라 save() 는 merge 로 select 를 먼저 보내므로 persist 로 insert 한다.
+            transactionTemplate.executeWithoutResult(status -> entityManager.persist(StockLedgerReservation.of(key)));
+        } catch (RuntimeException e) {
+            inFlightEntries.remove(key);
+            try {
+                journal.discard(entry);
+            } catch (IOException discardFailure) {
+                e.addSuppressed(discardFailure);
+            }
+            throw e;
+        }
+        return key;
+    }
+
+    /**
+     * 처음 찾는 상품은 DB 에서 slot 합계를 읽어 카운터를 만든다.
+     * 재고 row 가 없는 상품은 카운터를 만들지 않으므로, 나중에 재고가 등록되면 그때 읽어온다.
+     */
+    private AtomicLong availableOf(String productNumber) {
+        return availableByProductNumber.computeIfAbsent(productNumber, key ->
+                stockRepository.sumQuantityByProductNumberIn(List.of(key)).stream()
+                        .findFirst()
+                        .map(view -> new AtomicLong(view.getQuantity()))
+                        .orElse(null));
+    }
+
+    private static boolean tryDeduct(AtomicLong available, int quantity) {
+        long current;
+        do {
+            current = available.get();
+            if (current < quantity) {
+                return false;
+            }
+        } while (!available.compareAndSet(current, current - quantity));
+        return true;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("재고 원장을 DB 에 반영하지 못했습니다. 다음 주기에 다시 시도합니다.", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        try {
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("재고 원장 journal 을 복구하지 못했습니다.", e);
+        }
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-ledger-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(flushInterval.toMillis() * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        flushQuietly();
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("재고 원장 journal 을 닫지 못했습니다.", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 웹 서버보다 먼저 시작해서 복구가 끝난 뒤에 주문을 받고, 웹 서버가 멈춘 뒤에 마지막으로 반영한다.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
@@ -0,0 +1,259 @@
+package sample.cafekiosk.spring.api.service.stock;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 재고 원장의 증감 기록을 로컬 파일에 순서대로 덧붙이는 journal
+ * 한 줄에 "기록 key 상품번호 증감량" 하나를 기록하고, DB 에 반영할 때마다 새 segment 파일로 넘어간다.
+ * 기록은 주문 트랜잭션이 커밋되기 전에 남기므로, 커밋 여부는 key 로 DB 의 예약 row 를 찾아 판단한다.
+ * segment 의 모든 기록이 DB 에 반영되거나 롤백으로 버려지면 segment 를 지운다.
+ */
+class StockLedgerJournal {
+
+    private static final String SEGMENT_PREFIX = "stock-ledger-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final boolean fsync;
+
+    private final Object lock = new Object();
+    // segment 별로 아직 반영되지도, 버려지지도 않은 기록 수
+    private final Map<Path, Integer> unresolvedBySegment = new HashMap<>();
+    private List<Entry> confirmedEntries = new ArrayList<>();
+    private FileChannel segment;
+    private Path segmentPath;
+    private boolean segmentWritten;
+    private long segmentIndex;
+
+    StockLedgerJournal(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+    }
+
+    /**
+     * 남아 있는 segment 의 기록을 key 별로 읽어 돌려주고, 새 segment 를 연다.
+     * 돌려준 기록은 호출하는 쪽에서 커밋 여부에 따라 confirm 또는 discard 해야 한다.
+     */
+    List<Entry> recover() throws IOException {
+        synchronized (lock) {
+            Files.createDirectories(directory);
+
+            Map<String, Entry> entries = new LinkedHashMap<>();
+            List<Path> segments = listSegments();
+            for (Path path : segments) {
+                segmentIndex = Math.max(segmentIndex, indexOf(path));
+                readSegment(path, entries);
+            }
+            entries.values().forEach(entry -> unresolvedBySegment.merge(entry.getSegment(), 1, Integer::sum));
+            for (Path path : segments) {
+                if (!unresolvedBySegment.containsKey(path)) {
+                    Files.delete(path);
+                }
+            }
+
+            openSegment();
+            return new ArrayList<>(entries.values());
+        }
+    }
+
+    /**
+     * key 로 상품번호별 증감량을 기록한다. 반환되면 재시작하더라도 key 의 커밋 여부에 따라 다시 적용되는 것이 보장된다.
+     */
+    Entry append(String key, Map<String, Long> deltaByProductNumber) throws IOException {
+        synchronized (lock) {
+            StringBuilder lines = new StringBuilder();
+            for (Map.Entry<String, Long> delta : deltaByProductNumber.entrySet()) {
+                lines.append(key).append(' ')
+                        .append(delta.getKey()).append(' ')
+                        .append(delta.getValue()).append('\n');
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                segment.write(buffer);
+            }
+            if (fsync) {
+                segment.force(false);
+            }
+
+            segmentWritten = true;
+            unresolvedBySegment.merge(segmentPath, 1, Integer::sum);
+            return new Entry(key, new LinkedHashMap<>(deltaByProductNumber), segmentPath);
+        }
+    }
+
+    /**
+     * 커밋된 기록을 다음 반영 대상에 넣는다. 메모리만 바꾸므로 실패하지 않는다.
+     */
+    void confirm(Entry entry) {
+        synchronized (lock) {
+            confirmedEntries.add(entry);
+        }
+    }
+
+    /**
+     * 롤백된 기록을 버린다. 파일에는 남지만 재시작할 때 DB 에 key 가 없으므로 다시 적용되지 않는다.
+     */
+    void discard(Entry entry) throws IOException {
+        synchronized (lock) {
+            resolve(entry);
+        }
+    }
+
+    /**
+     * 지금까지 커밋된 기록을 꺼내고 새 segment 로 넘어간다.
+     */
+    Batch drain() throws IOException {
+        synchronized (lock) {
+            if (confirmedEntries.isEmpty()) {
+                return null;
+            }
+
+            List<Entry> entries = confirmedEntries;
+            confirmedEntries = new ArrayList<>();
+
+            // 실패한 batch 를 되돌린 뒤 새 기록 없이 다시 꺼내는 경우에는 segment 를 넘기지 않는다.
+            if (segmentWritten) {
+                Path closedPath = segmentPath;
+                segment.close();
+                openSegment();
+                deleteIfResolved(closedPath);
+            }
+            return new Batch(entries);
+        }
+    }
+
+    /**
+     * DB 반영이 끝난 batch 의 기록을 정리하고, 남은 기록이 없는 segment 를 지운다.
+     */
+    void complete(Batch batch) throws IOException {
+        synchronized (lock) {
+            for (Entry entry : batch.getEntries()) {
+                resolve(entry);
+            }
+        }
+    }
+
+    /**
+     * DB 반영에 실패한 batch 의 기록을 되돌려 다음 반영 때 다시 시도한다.
+     */
+    void rollback(Batch batch) {
+        synchronized (lock) {
+            confirmedEntries.addAll(0, batch.getEntries());
+        }
+    }
+
+    void close() throws IOException {
+        synchronized (lock) {
+            if (segment != null) {
+                segment.close();
+            }
+        }
+    }
+
+    private void resolve(Entry entry) throws IOException {
+        unresolvedBySegment.merge(entry.getSegment(), -1, Integer::sum);
+        deleteIfResolved(entry.getSegment());
+    }
+
+    // 기록 중인 segment 는 지우지 않는다.
+    private void deleteIfResolved(Path path) throws IOException {
+        if (unresolvedBySegment.getOrDefault(path, 0) <= 0 && !path.equals(segmentPath)) {
+            unresolvedBySegment.remove(path);
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private void readSegment(Path path, Map<String, Entry> entries) throws IOException {
+        String content = Files.readString(path, StandardCharsets.UTF_8);
+        // 기록 도중 종료되어 줄바꿈 없이 잘린 마지막 줄은 반환되지 않은 기록이므로 버린다.
+        int end = content.lastIndexOf('\n');
+        if (end < 0) {
+            return;
+        }
+
+        for (String line : content.substring(0, end).split("\n")) {
+            String[] tokens = line.split(" ");
+            entries.computeIfAbsent(tokens[0], key -> new Entry(key, new LinkedHashMap<>(), path))
+                    .getDeltas().merge(tokens[1], Long.parseLong(tokens[2]), Long::sum);
+        }
+    }
+
+    private static long indexOf(Path path) {
+        String fileName = path.getFileName().toString();
+        return Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private void openSegment() throws IOException {
+        Path path = directory.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, ++segmentIndex, SEGMENT_SUFFIX));
+        segment = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentPath = path;
+        segmentWritten = false;
+        unresolvedBySegment.putIfAbsent(path, 0);
+    }
+
+    /**
+     * 한 번의 예약 또는 복구로 기록한 상품번호별 증감량
+     */
+    @Getter
+    static class Entry {
+
+        private final String key;
+        private final Map<String, Long> deltas;
+        private final Path segment;
+
+        private Entry(String key, Map<String, Long> deltas, Path segment) {
+            this.key = key;
+            this.deltas = deltas;
+            this.segment = segment;
+        }
+    }
+
+    @Getter
+    static class Batch {
+
+        private final List<Entry> entries;
+
+        private Batch(List<Entry> entries) {
+            this.entries = entries;
+        }
+
+        /**
+         * 기록들의 증감량을 상품번호별로 합친다. 합이 0 인 상품은 뺀다.
+         */
+        Map<String, Long> mergeDeltas() {
+            Map<String, Long> deltas = new HashMap<>();
+            entries.forEach(entry -> entry.getDeltas().forEach((productNumber, delta) -> deltas.merge(productNumber, delta, Long::sum)));
+            deltas.values().removeIf(delta -> delta == 0L);
+            return deltas;
+        }
+
+        List<String> keys() {
+            return entries.stream().map(Entry::getKey).collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package sample.cafekiosk.spring.api.service.stock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sample.cafekiosk.spring.domain.stock.Stock;
+import sample.cafekiosk.spring.domain.stock.StockRepository;
+
+import java.util.List;
+
+@Transactional
+@Service
+@RequiredArgsConstructor
+public class StockService {
+
+    private final StockRepository stockRepository;
+    private final StockSlotRegistry stockSlotRegistry;
+
+    /**
+     * 상품의 재고를 slotCount 개의 row 로 다시 나눈다.
+     * 주문이 몰리는 상품은 slot 을 늘려서 하나의 row lock 에 주문이 줄 서지 않도록 한다.
+     */
+    public void shard(String productNumber, int slotCount) {
+        List<Stock> slots = stockRepository.findAllForUpdateByProductNumberIn(List.of(productNumber));
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("재고가 없는 상품입니다.");
+        }
+
+        int quantity = (int) StockSlots.sum(slots, Stock::getQuantity);
+        List<Stock> newSlots = Stock.createSlots(productNumber, quantity, slotCount);
+
+        // (product_number, slot) 유니크 제약 때문에 기존 slot 을 먼저 지우고 새로 저장
+        stockRepository.deleteAllInBatch(slots);
+        stockRepository.saveAll(newSlots);
+
+        stockSlotRegistry.register(productNumber, slotCount);
+    }
+}
@@ -0,0 +1,52 @@
+package sample.cafekiosk.spring.api.service.stock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import sample.cafekiosk.spring.domain.stock.StockRepository;
+import sample.cafekiosk.spring.domain.stock.StockSlotCountView;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 상품별 재고 slot 개수를 메모리에 들고 있다가, 차감할 slot 을 무작위로 골라준다.
+ * 여기 값은 첫 시도 slot 을 고르는 데에만 쓰이기 때문에 잠시 틀려도 재고가 틀어지지는 않는다.
+ * (고른 slot 이 부족하거나 없으면 DB 의 실제 slot 들을 다시 읽어서 차감)
+ */
+@Component
+@RequiredArgsConstructor
+public class StockSlotRegistry {
+
+    private final StockRepository stockRepository;
+
+    // slot 이 1개인 상품은 담지 않는다.
+    private final Map<String, Integer> slotCounts = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refresh() {
+        slotCounts.clear();
+        for (StockSlotCountView view : stockRepository.findShardedSlotCounts()) {
+            slotCounts.put(view.getProductNumber(), (int) view.getSlotCount());
+        }
+    }
+
+    public int pickSlot(String productNumber) {
+        int slotCount = slotCounts.getOrDefault(productNumber, 1);
+        return slotCount == 1 ? 0 : ThreadLocalRandom.current().nextInt(slotCount);
+    }
+
+    public boolean isSharded(String productNumber) {
+        return slotCounts.containsKey(productNumber);
+    }
+
+    public void register(String productNumber, int slotCount) {
+        if (slotCount > 1) {
+            slotCounts.put(productNumber, slotCount);
+        } else {
+            slotCounts.remove(productNumber);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package sample.cafekiosk.spring.api.service.stock;
+
+import sample.cafekiosk.spring.domain.stock.Stock;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToIntFunction;
+
+/**
+ * 여러 slot 으로 나뉜 재고에서 차감할 slot 을 고르는 규칙
+ */
+final class StockSlots {
+
+    private StockSlots() {
+    }
+
+    /**
+     * 수량이 충분한 slot 중 하나를 무작위로 고르고, 없으면 수량이 가장 많은 slot 을 고른다.
+     */
+    static <T> T pick(List<T> slots, ToIntFunction<T> quantityOf, int quantity) {
+        List<T> candidates = new ArrayList<>();
+        T largest = null;
+        for (T slot : slots) {
+            if (quantityOf.applyAsInt(slot) >= quantity) {
+                candidates.add(slot);
+            }
+            if (largest == null || quantityOf.applyAsInt(slot) > quantityOf.applyAsInt(largest)) {
+                largest = slot;
+            }
+        }
+        if (candidates.isEmpty()) {
+            return largest;
+        }
+        return candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
+    }
+
+    static <T> long sum(List<T> slots, ToIntFunction<T> quantityOf) {
+        long sum = 0;
+        for (T slot : slots) {
+            sum += quantityOf.applyAsInt(slot);
+        }
+        return sum;
+    }
+
+    /**
+     * lock 을 잡은 slot 들에서 차감한다.
+     * 한 slot 으로 충분하면 그 slot 에서, 아니면 여러 slot 에 나눠서 차감한다.
+     */
+    static void deductAcross(List<Stock> lockedSlots, int quantity) {
+        if (sum(lockedSlots, Stock::getQuantity) < quantity) {
+            throw new IllegalArgumentException("재고가 부족한 상품이 있습니다.");
+        }
+
+        int remaining = quantity;
+        while (remaining > 0) {
+            Stock slot = pick(lockedSlots, Stock::getQuantity, remaining);
+            int deductQuantity = Math.min(remaining, slot.getQuantity());
+            slot.deductQuantity(deductQuantity);
+            remaining -= deductQuantity;
+        }
+    }
+
+    /**
+     * 상품번호별 증감량을 상품의 slot 들에 나눈다. 반영 후 slot 들의 수량이 createSlots 처럼 고르게 되도록
+     * slot 마다 필요한 증감량을 계산하므로, 한 slot 만 음수가 되는 일이 없다.
+     *
+     * @param lockedSlots 상품번호, slot 순으로 정렬된 재고 row
+     * @return 재고 row id 별 증감량
+     */
+    static Map<Long, Long> spreadDeltas(List<Stock> lockedSlots, Map<String, Long> deltaByProductNumber) {
+        Map<Long, Long> deltaByStockId = new LinkedHashMap<>();
+        int from = 0;
+        while (from < lockedSlots.size()) {
+            String productNumber = lockedSlots.get(from).getProductNumber();
+            int to = from;
+            while (to < lockedSlots.size() && lockedSlots.get(to).getProductNumber().equals(productNumber)) {
+                to++;
+            }
+
+            List<Stock> slots = lockedSlots.subList(from, to);
+            long total = sum(slots, Stock::getQuantity) + deltaByProductNumber.getOrDefault(productNumber, 0L);
+            int slotCount = slots.size();
+            for (int i = 0; i < slotCount; i++) {
+                long target = Math.floorDiv(total, slotCount) + (i < Math.floorMod(total, slotCount) ? 1 : 0);
+                long delta = target - slots.get(i).getQuantity();
+                if (delta != 0) {
+                    deltaByStockId.put(slots.get(i).getId(), delta);
+                }
+            }
+            from = to;
+        }
+        return deltaByStockId;
+    }
+
+    /**
+     * 상품번호별 수량을 부호를 붙인 증감량으로 바꾼다. (복구 +1, 차감 -1)
+     */
+    static Map<String, Long> toDeltas(Map<String, Integer> quantityByProductNumber, int sign) {
+        Map<String, Long> deltas = new LinkedHashMap<>();
+        quantityByProductNumber.forEach((productNumber, quantity) -> deltas.put(productNumber, (long) sign * quantity));
+        return deltas;
+    }
+}
@@ -0,0 +1,58 @@
+package sample.cafekiosk.spring.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import sample.cafekiosk.spring.api.limit.AdaptiveConcurrencyLimiter;
+import sample.cafekiosk.spring.api.limit.ConcurrencyLimitInterceptor;
+
+import java.time.Duration;
+
+/**
+ * 주문 / 상품 API 에 각각 동시 처리 한도를 둔다.
+ * 두 API 는 느려지는 원인(재고 차감 vs 상품 조회)이 달라서 한도를 따로 조절한다.
+ * 원래 오래 걸리는 요청(매출 리포트, 일괄 주문, 상품 import, SSE, 변경 목록)은 지연 시간이 한도 조절을 왜곡하고
+ * SSE 는 연결 내내 자리를 차지하므로 한도 대상에서 뺀다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "cafekiosk.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    private final AdaptiveConcurrencyLimiter orderConcurrencyLimiter;
+    private final AdaptiveConcurrencyLimiter productConcurrencyLimiter;
+    private final Duration retryAfter;
+
+    public ConcurrencyLimitConfig(@Value("${cafekiosk.concurrency-limit.initial-limit:20}") int initialLimit,
+                                  @Value("${cafekiosk.concurrency-limit.min-limit:4}") int minLimit,
+                                  @Value("${cafekiosk.concurrency-limit.max-limit:200}") int maxLimit,
+                                  @Value("${cafekiosk.concurrency-limit.latency-threshold:250ms}") Duration latencyThreshold,
+                                  @Value("${cafekiosk.concurrency-limit.backoff-ratio:0.9}") double backoffRatio,
+                                  @Value("${cafekiosk.concurrency-limit.retry-after:1s}") Duration retryAfter) {
+        this.orderConcurrencyLimiter = new AdaptiveConcurrencyLimiter("order", initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio);
+        this.productConcurrencyLimiter = new AdaptiveConcurrencyLimiter("product", initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio);
+        this.retryAfter = retryAfter;
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter orderConcurrencyLimiter() {
+        return orderConcurrencyLimiter;
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter productConcurrencyLimiter() {
+        return productConcurrencyLimiter;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConcurrencyLimitInterceptor(orderConcurrencyLimiter, retryAfter))
+                .addPathPatterns("/api/v1/orders/**")
+                .excludePathPatterns("/api/v1/orders/sales-report", "/api/v1/orders/batch");
+        registry.addInterceptor(new ConcurrencyLimitInterceptor(productConcurrencyLimiter, retryAfter))
+                .addPathPatterns("/api/v1/products/**")
+                .excludePathPatterns("/api/v1/products/import", "/api/v1/products/stream", "/api/v1/products/changes");
+    }
+}
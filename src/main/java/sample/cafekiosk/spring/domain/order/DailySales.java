@@ -0,0 +1,62 @@
+package sample.cafekiosk.spring.domain.order;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import sample.cafekiosk.spring.domain.BaseEntity;
+import sample.cafekiosk.spring.domain.PooledSequenceGenerator;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import java.time.LocalDate;
+
+/**
+ * 일자별 결제 완료 매출 합계
+ * 결제 완료 트랜잭션마다 한 row 를 더하므로, 하루 매출을 slot 개의 row 로 나눠 두고 일자의 매출은 모든 slot 의 합
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_daily_sales_sales_date_slot", columnNames = {"salesDate", "slot"}))
+public class DailySales extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_sales_seq")
+    @GenericGenerator(name = "daily_sales_seq", strategy = PooledSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "daily_sales_seq"))
+    private Long id;
+
+    private LocalDate salesDate;
+
+    private int slot;
+
+    private long totalAmount;
+
+    private long orderCount;
+
+    @Builder
+    private DailySales(LocalDate salesDate, int slot, long totalAmount, long orderCount) {
+        this.salesDate = salesDate;
+        this.slot = slot;
+        this.totalAmount = totalAmount;
+        this.orderCount = orderCount;
+    }
+
+    /**
+     * 매출이 0인 집계 row
+     */
+    public static DailySales create(LocalDate salesDate, int slot) {
+        return DailySales.builder()
+                .salesDate(salesDate)
+                .slot(slot)
+                .build();
+    }
+}
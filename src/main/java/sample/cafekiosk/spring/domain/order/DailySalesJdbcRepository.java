@@ -0,0 +1,33 @@
+package sample.cafekiosk.spring.domain.order;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 매출 집계 row 를 조회하지 않고 UPDATE 한 번으로 더한다.
+ * 결제 완료 트랜잭션 안에서 호출되므로, row lock 은 결제 완료가 커밋될 때까지 유지된다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DailySalesJdbcRepository {
+
+    private static final String ADD_SQL =
+            "update daily_sales set total_amount = total_amount + ?, order_count = order_count + 1, modified_date_time = ? " +
+            "where sales_date = ? and slot = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return 해당 일자/slot 의 집계 row 가 없어서 더하지 못했으면 false
+     */
+    public boolean add(LocalDate salesDate, int slot, long amount) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.update(ADD_SQL, amount, now, Date.valueOf(salesDate), slot) == 1;
+    }
+}
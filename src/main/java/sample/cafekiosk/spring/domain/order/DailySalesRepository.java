@@ -0,0 +1,21 @@
+package sample.cafekiosk.spring.domain.order;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface DailySalesRepository extends JpaRepository<DailySales, Long> {
+
+    // 집계 row 가 없는 일자는 null
+    @Query("select sum(d.totalAmount) from DailySales d where d.salesDate = :salesDate")
+    Long sumTotalAmountBySalesDate(@Param("salesDate") LocalDate salesDate);
+
+    @Modifying
+    @Query("delete from DailySales d where d.salesDate = :salesDate")
+    int deleteAllBySalesDate(@Param("salesDate") LocalDate salesDate);
+}
@@ -4,23 +4,37 @@ import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import sample.cafekiosk.spring.domain.BaseEntity;
+import sample.cafekiosk.spring.domain.PooledSequenceGenerator;
 import sample.cafekiosk.spring.domain.orderproduct.OrderProduct;
 import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductSnapshot;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Getter
 @Entity
-@Table(name = "orders")
+// 매출 리포트가 기간을 나눠 조회할 때 구간마다 전체 주문을 훑지 않도록
+@Table(name = "orders", indexes = @Index(name = "idx_orders_status_registered_date_time",
+        columnList = "orderStatus, registeredDateTime"))
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Order extends BaseEntity {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @GenericGenerator(name = "orders_seq", strategy = PooledSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "orders_seq"))
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -37,12 +51,19 @@ public class Order extends BaseEntity {
 
     @Builder
     private Order(List<Product> products, OrderStatus orderStatus, LocalDateTime registeredDateTime) {
+        this(toSnapshots(products), productOf(products), orderStatus, registeredDateTime);
+    }
+
+    /**
+     * 주문 상품에는 productReference 로 얻은 상품을 연결하고, 가격은 스냅샷의 가격을 쓴다.
+     */
+    private Order(List<ProductSnapshot> products, Function<ProductSnapshot, Product> productReference,
+                  OrderStatus orderStatus, LocalDateTime registeredDateTime) {
         this.orderStatus = orderStatus;
-        this.totalPrice = calculateTotalPrice(products);
         this.registeredDateTime = registeredDateTime;
-        this.orderProducts = products.stream()
-                .map(product -> new OrderProduct(this, product))
-                .collect(Collectors.toList());    }
+        this.orderProducts = createOrderProducts(products, productReference);
+        this.totalPrice = calculateTotalPrice(orderProducts);
+    }
 
 
     public static Order create(List<Product> products, LocalDateTime registeredDateTime) {
@@ -53,14 +74,68 @@ public class Order extends BaseEntity {
                 .build();
     }
 
-    private int calculateTotalPrice(List<Product> products) {
+    /**
+     * 캐시된 상품 정보로 주문을 만든다. 주문 상품에는 productReference 로 얻은 상품(프록시)을 연결한다.
+     */
+    public static Order create(List<ProductSnapshot> products, Function<ProductSnapshot, Product> productReference,
+                               LocalDateTime registeredDateTime) {
+        return new Order(products, productReference, OrderStatus.INIT, registeredDateTime);
+    }
+
+    private static List<ProductSnapshot> toSnapshots(List<Product> products) {
         return products.stream()
-                .mapToInt(Product::getPrice)
+                .map(ProductSnapshot::of)
+                .collect(Collectors.toList());
+    }
+
+    private static Function<ProductSnapshot, Product> productOf(List<Product> products) {
+        Map<String, Product> productMap = new HashMap<>();
+        products.forEach(product -> productMap.putIfAbsent(product.getProductNumber(), product));
+        return snapshot -> productMap.get(snapshot.getProductNumber());
+    }
+
+    // 같은 상품은 주문 상품 하나로 합치고 수량으로 기록 (처음 나온 순서 유지)
+    private List<OrderProduct> createOrderProducts(List<ProductSnapshot> products, Function<ProductSnapshot, Product> productReference) {
+        Map<String, ProductSnapshot> productMap = new LinkedHashMap<>();
+        Map<String, Integer> quantityMap = new HashMap<>();
+        for (ProductSnapshot product : products) {
+            productMap.putIfAbsent(product.getProductNumber(), product);
+            quantityMap.merge(product.getProductNumber(), 1, Integer::sum);
+        }
+
+        return productMap.values().stream()
+                .map(product -> new OrderProduct(this, productReference.apply(product),
+                        quantityMap.get(product.getProductNumber()), product.getPrice()))
+                .collect(Collectors.toList());
+    }
+
+    private int calculateTotalPrice(List<OrderProduct> orderProducts) {
+        return orderProducts.stream()
+                .mapToInt(OrderProduct::getLinePrice)
                 .sum();
     }
 
+    // 결제 완료된 주문의 registeredDateTime 은 결제 시각이다. (매출 집계/리포트/실시간 매출 복구가 이 값으로 일자를 나눈다.)
     public void paymentCompleted(LocalDateTime time) {
+        validateInit();
         this.registeredDateTime = time;
         this.orderStatus = OrderStatus.PAYMENT_COMPLETED;
     }
+
+    public void paymentFailed() {
+        validateInit();
+        this.orderStatus = OrderStatus.PAYMENT_FAILED;
+    }
+
+    // 결제 전 주문만 취소할 수 있다. (재고 점유 만료 포함)
+    public void cancel() {
+        validateInit();
+        this.orderStatus = OrderStatus.CANCEL;
+    }
+
+    private void validateInit() {
+        if (this.orderStatus != OrderStatus.INIT) {
+            throw new OrderStatusTransitionException("결제 대기 중인 주문이 아닙니다.");
+        }
+    }
 }
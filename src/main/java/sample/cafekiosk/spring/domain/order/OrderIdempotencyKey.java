@@ -0,0 +1,56 @@
+package sample.cafekiosk.spring.domain.order;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import sample.cafekiosk.spring.domain.BaseEntity;
+import sample.cafekiosk.spring.domain.PooledSequenceGenerator;
+
+import javax.persistence.*;
+
+/**
+ * 주문 생성 요청에 붙어 온 Idempotency-Key 와 그 키로 만들어진 주문
+ * 키에 unique 제약을 걸어 두었기 때문에, 같은 키로 동시에 들어온 요청은 DB 에서 하나만 등록된다.
+ */
+@Getter
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_order_idempotency_key", columnNames = "idempotencyKey"))
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OrderIdempotencyKey extends BaseEntity {
+
+    public static final int MAX_KEY_LENGTH = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_idempotency_key_seq")
+    @GenericGenerator(name = "order_idempotency_key_seq", strategy = PooledSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "order_idempotency_key_seq"))
+    private Long id;
+
+    @Column(nullable = false, length = MAX_KEY_LENGTH)
+    private String idempotencyKey;
+
+    private Long orderId;
+
+    @Builder
+    private OrderIdempotencyKey(String idempotencyKey, Long orderId) {
+        this.idempotencyKey = idempotencyKey;
+        this.orderId = orderId;
+    }
+
+    /**
+     * 주문을 만들기 전에 키부터 선점한다.
+     */
+    public static OrderIdempotencyKey claim(String idempotencyKey) {
+        return OrderIdempotencyKey.builder()
+                .idempotencyKey(idempotencyKey)
+                .build();
+    }
+
+    public void assignOrder(Long orderId) {
+        this.orderId = orderId;
+    }
+}
@@ -0,0 +1,38 @@
+package sample.cafekiosk.spring.domain.order;
+
+import lombok.Getter;
+import sample.cafekiosk.spring.domain.orderproduct.OrderProduct;
+import sample.cafekiosk.spring.domain.product.ProductType;
+
+import java.time.LocalDateTime;
+
+/**
+ * 주문의 결제가 완료되었을 때 발행한다.
+ * 결제가 커밋된 뒤에 실시간 매출 집계에 더하는 용도로 쓴다.
+ */
+@Getter
+public class OrderPaymentCompletedEvent {
+
+    private final Long orderId;
+    private final LocalDateTime paymentDateTime;
+
+    // ProductType.ordinal() 별 주문 금액
+    private final long[] amountByType;
+
+    public OrderPaymentCompletedEvent(Long orderId, LocalDateTime paymentDateTime, long[] amountByType) {
+        this.orderId = orderId;
+        this.paymentDateTime = paymentDateTime;
+        this.amountByType = amountByType;
+    }
+
+    /**
+     * paymentDateTime 은 결제 완료 요청이 받은 결제 시각이다. (Order.paymentCompleted 로 주문에도 같은 값이 남는다.)
+     */
+    public static OrderPaymentCompletedEvent of(Order order, LocalDateTime paymentDateTime) {
+        long[] amountByType = new long[ProductType.values().length];
+        for (OrderProduct orderProduct : order.getOrderProducts()) {
+            amountByType[orderProduct.getProduct().getType().ordinal()] += orderProduct.getLinePrice();
+        }
+        return new OrderPaymentCompletedEvent(order.getId(), paymentDateTime, amountByType);
+    }
+}
@@ -1,12 +1,16 @@
 package sample.cafekiosk.spring.domain.order;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -17,4 +21,29 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findOrdersBy(@Param("startDateTime") LocalDateTime startDateTime,
                              @Param("endDateTime") LocalDateTime endDateTime,
                              @Param("orderStatus") OrderStatus orderStatus);
+
+    // 주문 엔티티를 올리지 않고 DB 에서 합계만 계산 (해당하는 주문이 없으면 null)
+    @Query("select sum(o.totalPrice) from Order o where o.registeredDateTime >= :startDateTime " +
+            "and o.registeredDateTime < :endDateTime " +
+            "and o.orderStatus = :orderStatus")
+    Long sumTotalPriceBy(@Param("startDateTime") LocalDateTime startDateTime,
+                         @Param("endDateTime") LocalDateTime endDateTime,
+                         @Param("orderStatus") OrderStatus orderStatus);
+
+    @Query("select count(o) from Order o where o.registeredDateTime >= :startDateTime " +
+            "and o.registeredDateTime < :endDateTime " +
+            "and o.orderStatus = :orderStatus")
+    long countBy(@Param("startDateTime") LocalDateTime startDateTime,
+                 @Param("endDateTime") LocalDateTime endDateTime,
+                 @Param("orderStatus") OrderStatus orderStatus);
+
+    // 결제 완료와 재고 점유 만료가 같은 주문을 동시에 처리하지 않도록 주문 row 를 lock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from Order o where o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from Order o where o.id in :ids and o.orderStatus = :orderStatus order by o.id")
+    List<Order> findAllForUpdateByIdInAndOrderStatus(@Param("ids") Collection<Long> ids,
+                                                     @Param("orderStatus") OrderStatus orderStatus);
 }
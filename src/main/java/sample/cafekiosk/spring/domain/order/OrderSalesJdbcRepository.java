@@ -0,0 +1,97 @@
+package sample.cafekiosk.spring.domain.order;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import sample.cafekiosk.spring.domain.product.ProductType;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * 결제 완료 주문의 주문 상품 row 를 엔티티로 만들지 않고 forward-only 커서로 한 줄씩 흘려보낸다.
+ * fetchSize 만큼만 드라이버가 미리 가져오므로, 기간 안의 주문 상품이 몇 건이든 메모리 사용량이 늘어나지 않는다.
+ * (PostgreSQL 처럼 트랜잭션 안에서만 커서를 쓰는 DB 가 있어 읽기 전용 트랜잭션 안에서 호출한다.)
+ */
+@Repository
+public class OrderSalesJdbcRepository {
+
+    private static final String PAID_ORDER_LINES_SQL =
+            "select op.product_id, op.quantity, op.unit_price " +
+            "from order_product op join orders o on o.id = op.order_id " +
+            "where o.order_status = ? and o.registered_date_time >= ? and o.registered_date_time < ?";
+
+    private static final String PAID_ORDER_AMOUNTS_BY_TYPE_SQL =
+            "select o.id, o.registered_date_time, p.type, sum(cast(op.quantity as bigint) * op.unit_price) " +
+            "from order_product op join orders o on o.id = op.order_id join product p on p.id = op.product_id " +
+            "where o.order_status = ? and o.registered_date_time >= ? and o.registered_date_time < ? " +
+            "group by o.id, o.registered_date_time, p.type order by o.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public OrderSalesJdbcRepository(JdbcTemplate jdbcTemplate,
+                                    @Value("${cafekiosk.order.sales-report.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * startDateTime <= 결제 완료 시간 < endDateTime 인 주문 상품을 한 줄씩 handler 에 넘긴다.
+     */
+    public void streamPaidOrderLines(LocalDateTime startDateTime, LocalDateTime endDateTime, OrderLineHandler handler) {
+        jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(PAID_ORDER_LINES_SQL,
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(fetchSize);
+                    statement.setString(1, OrderStatus.PAYMENT_COMPLETED.name());
+                    statement.setTimestamp(2, Timestamp.valueOf(startDateTime));
+                    statement.setTimestamp(3, Timestamp.valueOf(endDateTime));
+                    return statement;
+                },
+                resultSet -> {
+                    handler.accept(resultSet.getLong(1), resultSet.getInt(2), resultSet.getInt(3));
+                }
+        );
+    }
+
+    /**
+     * startDateTime <= 결제 완료 시간 < endDateTime 인 주문의 상품 타입별 금액을 주문 id 순서로 handler 에 넘긴다.
+     */
+    public void streamPaidOrderAmountsByType(LocalDateTime startDateTime, LocalDateTime endDateTime,
+                                             OrderAmountHandler handler) {
+        jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(PAID_ORDER_AMOUNTS_BY_TYPE_SQL,
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(fetchSize);
+                    statement.setString(1, OrderStatus.PAYMENT_COMPLETED.name());
+                    statement.setTimestamp(2, Timestamp.valueOf(startDateTime));
+                    statement.setTimestamp(3, Timestamp.valueOf(endDateTime));
+                    return statement;
+                },
+                resultSet -> {
+                    handler.accept(resultSet.getLong(1), resultSet.getTimestamp(2).toLocalDateTime(),
+                            ProductType.valueOf(resultSet.getString(3)), resultSet.getLong(4));
+                }
+        );
+    }
+
+    /**
+     * row 마다 객체를 만들지 않도록 컬럼을 primitive 로 받는다.
+     */
+    @FunctionalInterface
+    public interface OrderLineHandler {
+
+        void accept(long productId, int quantity, int unitPrice);
+    }
+
+    @FunctionalInterface
+    public interface OrderAmountHandler {
+
+        void accept(long orderId, LocalDateTime registeredDateTime, ProductType type, long amount);
+    }
+}
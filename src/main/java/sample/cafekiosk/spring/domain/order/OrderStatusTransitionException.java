@@ -0,0 +1,13 @@
+package sample.cafekiosk.spring.domain.order;
+
+/**
+ * 현재 주문 상태에서 허용되지 않는 상태 변경 (이미 결제된 주문의 재결제, 만료된 주문의 취소 등)
+ */
+public class OrderStatusTransitionException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    public OrderStatusTransitionException(String message) {
+        super(message);
+    }
+}
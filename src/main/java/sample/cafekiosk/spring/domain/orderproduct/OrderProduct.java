@@ -3,7 +3,11 @@ package sample.cafekiosk.spring.domain.orderproduct;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import sample.cafekiosk.spring.domain.BaseEntity;
+import sample.cafekiosk.spring.domain.PooledSequenceGenerator;
 import sample.cafekiosk.spring.domain.order.Order;
 import sample.cafekiosk.spring.domain.product.Product;
 
@@ -14,7 +18,10 @@ import javax.persistence.*;
 @Entity
 public class OrderProduct extends BaseEntity {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_product_seq")
+    @GenericGenerator(name = "order_product_seq", strategy = PooledSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "order_product_seq"))
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -23,8 +30,20 @@ public class OrderProduct extends BaseEntity {
     @ManyToOne(fetch = FetchType.LAZY)
     private Product product;
 
-    public OrderProduct(Order order, Product product) {
+    private int quantity;
+
+    // 주문 시점의 상품 가격 (이후 상품 가격이 바뀌어도 주문 금액은 그대로)
+    private int unitPrice;
+
+    // product 가 아직 로딩되지 않은 프록시일 수 있으므로 가격은 따로 받는다.
+    public OrderProduct(Order order, Product product, int quantity, int unitPrice) {
         this.order = order;
         this.product = product;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+    }
+
+    public int getLinePrice() {
+        return unitPrice * quantity;
     }
 }
@@ -0,0 +1,26 @@
+package sample.cafekiosk.spring.domain.product;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 상품이 등록되거나 판매 상태가 바뀌었을 때 발행한다.
+ * 커밋된 뒤에 메뉴 캐시를 갱신하는 용도로 쓴다.
+ */
+@Getter
+public class ProductChangedEvent {
+
+    private final List<String> productNumbers;
+
+    public ProductChangedEvent(String productNumber) {
+        this(List.of(productNumber));
+    }
+
+    /**
+     * 대량 등록처럼 여러 상품이 한 번에 바뀐 경우
+     */
+    public ProductChangedEvent(List<String> productNumbers) {
+        this.productNumbers = List.copyOf(productNumbers);
+    }
+}
@@ -0,0 +1,48 @@
+package sample.cafekiosk.spring.domain.product;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import sample.cafekiosk.spring.domain.BaseEntity;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * 다음에 나눠줄 상품번호
+ * 서버마다 상품번호를 blockSize 개씩 예약해 가고, 예약한 번호는 메모리에서 하나씩 꺼내 쓴다.
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+public class ProductNumberCounter extends BaseEntity {
+
+    private static final Long SINGLETON_ID = 1L;
+
+    @Id
+    private Long id;
+
+    private long nextValue;
+
+    private ProductNumberCounter(Long id, long nextValue) {
+        this.id = id;
+        this.nextValue = nextValue;
+    }
+
+    public static ProductNumberCounter startFrom(long nextValue) {
+        return new ProductNumberCounter(SINGLETON_ID, nextValue);
+    }
+
+    public static Long singletonId() {
+        return SINGLETON_ID;
+    }
+
+    /**
+     * blockSize 개의 번호를 예약하고 예약한 첫 번호를 돌려준다.
+     */
+    public long reserve(int blockSize) {
+        long start = nextValue;
+        nextValue += blockSize;
+        return start;
+    }
+}
@@ -0,0 +1,18 @@
+package sample.cafekiosk.spring.domain.product;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+@Repository
+public interface ProductNumberCounterRepository extends JpaRepository<ProductNumberCounter, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from ProductNumberCounter c where c.id = :id")
+    Optional<ProductNumberCounter> findByIdForUpdate(@Param("id") Long id);
+}
@@ -1,10 +1,14 @@
 package sample.cafekiosk.spring.domain.product;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -18,6 +22,29 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     List<Product> findAllByProductNumberIn(List<String> productNumbers);
 
+    Optional<Product> findByProductNumber(String productNumber);
+
+    @Query("select p.productNumber from Product p")
+    List<String> findAllProductNumbers();
+
+    /**
+     * (modifiedDateTime, id) 순서로 cursor 다음에 변경된 상품을 horizon 직전까지 조회한다.
+     */
+    @Query("select p from Product p " +
+            "where (p.modifiedDateTime > :modifiedDateTime or (p.modifiedDateTime = :modifiedDateTime and p.id > :id)) " +
+            "and p.modifiedDateTime < :horizon " +
+            "order by p.modifiedDateTime, p.id")
+    List<Product> findChangedAfter(@Param("modifiedDateTime") LocalDateTime modifiedDateTime,
+                                   @Param("id") Long id,
+                                   @Param("horizon") LocalDateTime horizon,
+                                   Pageable pageable);
+
     @Query(value = "select p.product_number from product p order by id desc limit 1", nativeQuery = true)
     String findLastedProductNumber();
+
+    /**
+     * 상품번호 카운터를 처음 만들 때 기존 상품번호 다음부터 나눠주기 위해 사용
+     */
+    @Query(value = "select max(cast(p.product_number as bigint)) from product p", nativeQuery = true)
+    Long findMaxProductNumber();
 }
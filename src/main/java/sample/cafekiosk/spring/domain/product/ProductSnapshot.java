@@ -0,0 +1,34 @@
+package sample.cafekiosk.spring.domain.product;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 주문할 때 필요한 상품 정보만 담은 불변 객체
+ * 영속성 컨텍스트와 무관하게 여러 스레드가 같이 읽어도 된다.
+ */
+@Getter
+public class ProductSnapshot {
+
+    private final Long id;
+    private final String productNumber;
+    private final ProductType type;
+    private final ProductSellingStatus sellingStatus;
+    private final String name;
+    private final int price;
+
+    @Builder
+    private ProductSnapshot(Long id, String productNumber, ProductType type, ProductSellingStatus sellingStatus, String name, int price) {
+        this.id = id;
+        this.productNumber = productNumber;
+        this.type = type;
+        this.sellingStatus = sellingStatus;
+        this.name = name;
+        this.price = price;
+    }
+
+    public static ProductSnapshot of(Product product) {
+        return new ProductSnapshot(product.getId(), product.getProductNumber(), product.getType(),
+                product.getSellingStatus(), product.getName(), product.getPrice());
+    }
+}
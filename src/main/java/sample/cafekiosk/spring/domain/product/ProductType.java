@@ -3,7 +3,8 @@ package sample.cafekiosk.spring.domain.product;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
-import java.util.List;
+import java.util.EnumSet;
+import java.util.Set;
 
 @Getter
 @RequiredArgsConstructor
@@ -13,9 +14,12 @@ public enum ProductType {
     BOTTLE("병 음료"),
     BAKERY("베이커리");
 
+    // 주문마다 호출되므로 매번 컬렉션을 만들지 않는다.
+    private static final Set<ProductType> STOCK_TYPES = EnumSet.of(BOTTLE, BAKERY);
+
     private final String text;
 
     public static boolean containsStockType(ProductType type) {
-        return List.of(BOTTLE, BAKERY).contains(type);
+        return STOCK_TYPES.contains(type);
     }
 }
@@ -4,28 +4,48 @@ import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import sample.cafekiosk.spring.domain.BaseEntity;
+import sample.cafekiosk.spring.domain.PooledSequenceGenerator;
 
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
+import java.util.ArrayList;
+import java.util.List;
 
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_stock_product_number_slot", columnNames = {"productNumber", "slot"}))
 public class Stock extends BaseEntity {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_seq")
+    @GenericGenerator(name = "stock_seq", strategy = PooledSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "stock_seq"))
     private Long id;
 
     private String productNumber;
 
+    // 인기 상품은 재고를 여러 row(slot)로 나눠 두고, 상품의 재고는 모든 slot 의 합
+    private int slot;
+
     private int quantity;
 
+    @Version
+    private Long version;
+
     @Builder
-    private Stock(String productNumber, int quantity) {
+    private Stock(String productNumber, int slot, int quantity) {
         this.productNumber = productNumber;
+        this.slot = slot;
         this.quantity = quantity;
     }
 
@@ -37,6 +57,27 @@ public class Stock extends BaseEntity {
                 .build();
     }
 
+    /**
+     * 재고를 slotCount 개의 row 로 최대한 고르게 나눈다.
+     * ex) 10개, 3 slot -> 4, 3, 3
+     */
+    public static List<Stock> createSlots(String productNumber, int quantity, int slotCount) {
+        if (slotCount < 1) {
+            throw new IllegalArgumentException("재고 slot 개수는 1개 이상이어야 합니다.");
+        }
+
+        List<Stock> slots = new ArrayList<>(slotCount);
+        for (int slot = 0; slot < slotCount; slot++) {
+            int slotQuantity = quantity / slotCount + (slot < quantity % slotCount ? 1 : 0);
+            slots.add(Stock.builder()
+                    .productNumber(productNumber)
+                    .slot(slot)
+                    .quantity(slotQuantity)
+                    .build());
+        }
+        return slots;
+    }
+
     public boolean isQuantityLessThan(int quantity) {
         return this.quantity < quantity;
     }
@@ -0,0 +1,23 @@
+package sample.cafekiosk.spring.domain.stock;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 조건부 UPDATE batch 로 재고를 차감한 결과
+ */
+@Getter
+public class StockDeductResult {
+
+    // 재고가 부족(혹은 재고 row 가 없음)해서 차감하지 못한 상품번호
+    private final List<String> failedProductNumbers;
+
+    // 차감하면서 slot 의 마지막 수량까지 가져간 상품번호 (상품의 재고가 모두 소진됐을 수 있다)
+    private final List<String> emptiedProductNumbers;
+
+    StockDeductResult(List<String> failedProductNumbers, List<String> emptiedProductNumbers) {
+        this.failedProductNumbers = failedProductNumbers;
+        this.emptiedProductNumbers = emptiedProductNumbers;
+    }
+}
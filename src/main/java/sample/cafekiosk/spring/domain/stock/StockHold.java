@@ -0,0 +1,57 @@
+package sample.cafekiosk.spring.domain.stock;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import sample.cafekiosk.spring.domain.BaseEntity;
+import sample.cafekiosk.spring.domain.PooledSequenceGenerator;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 결제 전(INIT) 주문이 점유하고 있는 재고
+ * 주문 생성 시 재고는 미리 차감해 두고, 결제가 완료되면 점유만 지워서 차감을 확정한다.
+ * 결제 실패, 취소, 만료 시에는 점유한 수량을 재고에 되돌린다.
+ */
+@Getter
+@Entity
+@Table(indexes = @Index(name = "idx_stock_hold_order_id", columnList = "orderId"))
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class StockHold extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_hold_seq")
+    @GenericGenerator(name = "stock_hold_seq", strategy = PooledSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "stock_hold_seq"))
+    private Long id;
+
+    private Long orderId;
+
+    private String productNumber;
+
+    private int quantity;
+
+    private LocalDateTime expiresAt;
+
+    @Builder
+    private StockHold(Long orderId, String productNumber, int quantity, LocalDateTime expiresAt) {
+        this.orderId = orderId;
+        this.productNumber = productNumber;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+    }
+
+    public static StockHold create(Long orderId, String productNumber, int quantity, LocalDateTime expiresAt) {
+        return StockHold.builder()
+                .orderId(orderId)
+                .productNumber(productNumber)
+                .quantity(quantity)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,11 @@
+package sample.cafekiosk.spring.domain.stock;
+
+import java.time.LocalDateTime;
+
+public interface StockHoldExpiryView {
+
+    Long getOrderId();
+
+    LocalDateTime getExpiresAt();
+
+}
@@ -0,0 +1,24 @@
+package sample.cafekiosk.spring.domain.stock;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockHoldRepository extends JpaRepository<StockHold, Long> {
+
+    List<StockHold> findAllByOrderIdIn(Collection<Long> orderIds);
+
+    @Modifying
+    @Query("delete from StockHold h where h.orderId in :orderIds")
+    int deleteAllByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    // 재시작 시 만료 일정을 다시 등록하기 위한 주문별 만료 시각
+    @Query("select h.orderId as orderId, min(h.expiresAt) as expiresAt from StockHold h group by h.orderId")
+    List<StockHoldExpiryView> findExpiries();
+}
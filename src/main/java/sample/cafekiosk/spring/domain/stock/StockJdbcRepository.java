@@ -0,0 +1,120 @@
+package sample.cafekiosk.spring.domain.stock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 재고 엔티티를 조회하지 않고 조건부 UPDATE 로 재고를 차감
+ * 변경감지(load -> modify -> flush) 방식은 동시 주문 시 갱신 손실이 발생하고,
+ * 트랜잭션이 끝날 때까지 row 를 잡고 있기 때문에 DB 에서 원자적으로 차감한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockJdbcRepository {
+
+    private static final String DEDUCT_SLOT_QUANTITY_SQL =
+            "update stock set quantity = quantity - ?, version = version + 1, modified_date_time = ? " +
+            "where product_number = ? and slot = ? and quantity between ? and ?";
+
+    private static final String DEDUCT_QUANTITY_BY_ID_SQL =
+            "update stock set quantity = quantity - ?, version = version + 1, modified_date_time = ? " +
+            "where id = ? and quantity >= ?";
+
+    private static final String APPLY_DELTA_SQL =
+            "update stock set quantity = quantity + ?, version = version + 1, modified_date_time = ? " +
+            "where product_number = ? and slot = 0";
+
+    private static final String APPLY_DELTA_BY_ID_SQL =
+            "update stock set quantity = quantity + ?, version = version + 1, modified_date_time = ? " +
+            "where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 상품번호별 차감 수량을 받아 한 번의 batch 로 UPDATE 를 보낸다.
+     * 상품마다 slotByProductNumber 로 정해진 slot 하나에서만 차감하며 (없으면 0번 slot),
+     * 영향받은 row 수가 0 인 상품은 해당 slot 의 재고가 부족(혹은 재고 row 가 없음)한 상품이다.
+     * 상품마다 "slot 수량이 차감 수량과 같을 때" 와 "더 많을 때" 의 UPDATE 를 차례로 보내서 둘 중 하나만 반영되게 하고,
+     * 앞의 UPDATE 가 반영된 상품은 slot 의 마지막 수량을 가져간 것으로 본다. (차감 후 수량을 다시 조회하지 않기 위함)
+     */
+    public StockDeductResult deductQuantities(Map<String, Integer> quantityByProductNumber,
+                                              Map<String, Integer> slotByProductNumber) {
+        List<String> productNumbers = new ArrayList<>(quantityByProductNumber.keySet());
+        if (productNumbers.isEmpty()) {
+            return new StockDeductResult(List.of(), List.of());
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(productNumbers.size() * 2);
+        for (String productNumber : productNumbers) {
+            int quantity = quantityByProductNumber.get(productNumber);
+            int slot = slotByProductNumber.getOrDefault(productNumber, 0);
+            batchArgs.add(new Object[]{quantity, now, productNumber, slot, quantity, quantity});
+            batchArgs.add(new Object[]{quantity, now, productNumber, slot, quantity + 1, Integer.MAX_VALUE});
+        }
+
+        int[] updatedCounts = jdbcTemplate.batchUpdate(DEDUCT_SLOT_QUANTITY_SQL, batchArgs);
+
+        List<String> failedProductNumbers = new ArrayList<>();
+        List<String> emptiedProductNumbers = new ArrayList<>();
+        for (int i = 0; i < productNumbers.size(); i++) {
+            int emptiedCount = updatedCounts[i * 2];
+            int remainedCount = updatedCounts[i * 2 + 1];
+            if (emptiedCount == 0 && remainedCount == 0) {
+                failedProductNumbers.add(productNumbers.get(i));
+            } else if (emptiedCount != 0) {
+                // SUCCESS_NO_INFO(-2) 는 드라이버가 건수를 주지 않은 경우이므로 실패로 보지 않고, 마지막 수량을 가져갔을 수 있다고 본다.
+                emptiedProductNumbers.add(productNumbers.get(i));
+            }
+        }
+        return new StockDeductResult(failedProductNumbers, emptiedProductNumbers);
+    }
+
+    /**
+     * 재고 row 하나에서 수량이 충분할 때만 차감한다.
+     */
+    public boolean deductQuantity(Long stockId, int quantity) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.update(DEDUCT_QUANTITY_BY_ID_SQL, quantity, now, stockId, quantity) == 1;
+    }
+
+    /**
+     * 상품번호별 증감량을 0번 slot 에 조건 없이 반영한다. (재고 복구용)
+     * 차감에 쓰면 0번 slot 만 음수가 될 수 있으므로, 차감은 applySlotDeltas 로 slot 마다 나눠서 반영한다.
+     */
+    public void applyDeltas(Map<String, Long> deltaByProductNumber) {
+        if (deltaByProductNumber.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(deltaByProductNumber.size());
+        for (Map.Entry<String, Long> entry : deltaByProductNumber.entrySet()) {
+            batchArgs.add(new Object[]{entry.getValue(), now, entry.getKey()});
+        }
+        jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, batchArgs);
+    }
+
+    /**
+     * 재고 row 별 증감량을 조건 없이 반영한다. (재고 원장의 write-behind 반영용)
+     */
+    public void applySlotDeltas(Map<Long, Long> deltaByStockId) {
+        if (deltaByStockId.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(deltaByStockId.size());
+        for (Map.Entry<Long, Long> entry : deltaByStockId.entrySet()) {
+            batchArgs.add(new Object[]{entry.getValue(), now, entry.getKey()});
+        }
+        jdbcTemplate.batchUpdate(APPLY_DELTA_BY_ID_SQL, batchArgs);
+    }
+}
@@ -0,0 +1,31 @@
+package sample.cafekiosk.spring.domain.stock;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import sample.cafekiosk.spring.domain.BaseEntity;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * 재고 원장(ledger)의 journal 기록이 커밋된 주문 트랜잭션의 것인지 표시
+ * 주문 트랜잭션 안에서 journal 기록과 같은 key 로 insert 하고, 기록이 stock 테이블에 반영되는 트랜잭션에서 지운다.
+ * 재시작 시에는 row 가 남아 있는 key 의 journal 기록만 다시 적용하면 된다.
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+public class StockLedgerReservation extends BaseEntity {
+
+    @Id
+    private String id;
+
+    private StockLedgerReservation(String id) {
+        this.id = id;
+    }
+
+    public static StockLedgerReservation of(String id) {
+        return new StockLedgerReservation(id);
+    }
+}
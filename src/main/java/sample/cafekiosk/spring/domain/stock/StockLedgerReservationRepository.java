@@ -0,0 +1,8 @@
+package sample.cafekiosk.spring.domain.stock;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockLedgerReservationRepository extends JpaRepository<StockLedgerReservation, String> {
+}
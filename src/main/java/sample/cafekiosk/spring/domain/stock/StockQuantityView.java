@@ -0,0 +1,8 @@
+package sample.cafekiosk.spring.domain.stock;
+
+public interface StockQuantityView {
+
+    String getProductNumber();
+
+    long getQuantity();
+}
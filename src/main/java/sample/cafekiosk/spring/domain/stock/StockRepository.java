@@ -1,13 +1,66 @@
 package sample.cafekiosk.spring.domain.stock;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Repository
 public interface StockRepository extends JpaRepository<Stock, Long> {
 
     List<Stock> findAllByProductNumberIn(List<String> productNumbers);
 
+    /**
+     * 상품의 재고는 모든 slot 수량의 합
+     */
+    @Query("select s.productNumber as productNumber, sum(s.quantity) as quantity " +
+            "from Stock s where s.productNumber in :productNumbers group by s.productNumber")
+    List<StockQuantityView> sumQuantityByProductNumberIn(@Param("productNumbers") Collection<String> productNumbers);
+
+    default List<String> findSoldOutProductNumbers(Collection<String> productNumbers) {
+        return sumQuantityByProductNumberIn(productNumbers).stream()
+                .filter(view -> view.getQuantity() <= 0)
+                .map(StockQuantityView::getProductNumber)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 재고가 여러 slot 으로 나뉘어 있는 상품들의 slot 개수
+     */
+    @Query("select s.productNumber as productNumber, count(s) as slotCount " +
+            "from Stock s group by s.productNumber having count(s) > 1")
+    List<StockSlotCountView> findShardedSlotCounts();
+
+    /**
+     * select ... for update
+     * 상품번호, slot 순으로 lock 을 잡아서 주문끼리 교착 상태에 빠지지 않도록 한다.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from Stock s where s.productNumber in :productNumbers order by s.productNumber, s.slot")
+    List<Stock> findAllForUpdateByProductNumberIn(@Param("productNumbers") Collection<String> productNumbers);
+
+    /**
+     * 영속성 컨텍스트를 거치지 않고 현재 커밋된 수량과 버전을 읽어온다.
+     */
+    @Query("select s.id as id, s.quantity as quantity, s.version as version " +
+            "from Stock s where s.productNumber = :productNumber")
+    List<StockVersionView> findVersionViewsByProductNumber(@Param("productNumber") String productNumber);
+
+    /**
+     * 읽어온 버전이 그대로일 때만 차감한다. (optimistic lock)
+     */
+    @Modifying
+    @Query("update Stock s set s.quantity = s.quantity - :quantity, s.version = s.version + 1 " +
+            "where s.id = :id and s.version = :version")
+    int deductQuantityIfVersionMatches(@Param("id") Long id,
+                                       @Param("version") Long version,
+                                       @Param("quantity") int quantity);
+
 }
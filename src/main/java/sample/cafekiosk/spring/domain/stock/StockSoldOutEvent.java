@@ -0,0 +1,19 @@
+package sample.cafekiosk.spring.domain.stock;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 주문으로 재고가 모두 소진된 상품이 생겼을 때 발행한다.
+ * 주문이 커밋된 뒤에 키오스크에 품절을 알리는 용도로 쓴다.
+ */
+@Getter
+public class StockSoldOutEvent {
+
+    private final List<String> productNumbers;
+
+    public StockSoldOutEvent(List<String> productNumbers) {
+        this.productNumbers = productNumbers;
+    }
+}
@@ -0,0 +1,10 @@
+package sample.cafekiosk.spring.domain.stock;
+
+public interface StockVersionView {
+
+    Long getId();
+
+    int getQuantity();
+
+    Long getVersion();
+}
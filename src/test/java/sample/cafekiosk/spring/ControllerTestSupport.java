@@ -8,12 +8,22 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 import sample.cafekiosk.spring.api.controller.order.OrderController;
 import sample.cafekiosk.spring.api.controller.product.ProductController;
+import sample.cafekiosk.spring.api.controller.product.ProductEventStream;
+import sample.cafekiosk.spring.api.controller.product.SellingProductsPayloadCache;
+import sample.cafekiosk.spring.api.controller.stats.StatsController;
+import sample.cafekiosk.spring.api.service.order.OrderBatchService;
+import sample.cafekiosk.spring.api.service.order.OrderIdempotencyService;
 import sample.cafekiosk.spring.api.service.order.OrderService;
+import sample.cafekiosk.spring.api.service.order.SalesReportService;
+import sample.cafekiosk.spring.api.service.product.ProductChangeService;
+import sample.cafekiosk.spring.api.service.product.ProductImportService;
 import sample.cafekiosk.spring.api.service.product.ProductService;
+import sample.cafekiosk.spring.api.service.stats.LiveSalesCounter;
 
 @WebMvcTest(controllers = {
         OrderController.class,
-        ProductController.class
+        ProductController.class,
+        StatsController.class
 })
 public abstract class ControllerTestSupport {
 
@@ -26,7 +36,31 @@ public abstract class ControllerTestSupport {
     @MockBean
     protected ProductService productService;
 
+    @MockBean
+    protected SellingProductsPayloadCache sellingProductsPayloadCache;
+
+    @MockBean
+    protected ProductChangeService productChangeService;
+
+    @MockBean
+    protected ProductEventStream productEventStream;
+
+    @MockBean
+    protected ProductImportService productImportService;
+
     @MockBean
     protected OrderService orderService;
 
+    @MockBean
+    protected OrderBatchService orderBatchService;
+
+    @MockBean
+    protected OrderIdempotencyService orderIdempotencyService;
+
+    @MockBean
+    protected SalesReportService salesReportService;
+
+    @MockBean
+    protected LiveSalesCounter liveSalesCounter;
+
 }
@@ -2,19 +2,34 @@ package sample.cafekiosk.spring.api.controller.order;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import sample.cafekiosk.spring.ControllerTestSupport;
+import sample.cafekiosk.spring.api.limit.AdaptiveConcurrencyLimiter;
+import sample.cafekiosk.spring.api.controller.order.request.OrderBatchCreateRequest;
 import sample.cafekiosk.spring.api.controller.order.request.OrderCreateRequest;
+import sample.cafekiosk.spring.domain.order.OrderStatusTransitionException;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class OrderControllerTest extends ControllerTestSupport {
 
+    @Autowired
+    private AdaptiveConcurrencyLimiter orderConcurrencyLimiter;
+
     @DisplayName("신규 주문을 등록한다.")
     @Test
     void createOrder() throws Exception {
@@ -39,6 +54,83 @@ class OrderControllerTest extends ControllerTestSupport {
                 .andExpect(jsonPath("$.data").isEmpty());
     }
 
+    @DisplayName("Idempotency-Key 가 붙은 신규 주문은 키 단위로 중복을 걸러서 등록한다.")
+    @Test
+    void createOrderWithIdempotencyKey() throws Exception {
+        // given
+        OrderCreateRequest request = OrderCreateRequest.builder()
+                                                    .productNumbers(List.of("001"))
+                                                    .build();
+
+        // when  // then
+        mockMvc.perform(
+                        post("/api/v1/orders/new")
+                                .header("Idempotency-Key", "kiosk-1-0001")
+                                .content(objectMapper.writeValueAsString(request))
+                                .contentType(APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("200"));
+
+        then(orderIdempotencyService).should().createOrder(eq("kiosk-1-0001"), any(), any());
+    }
+
+    @DisplayName("동시에 처리 중인 주문 요청이 한도에 차면 503 과 Retry-After 로 바로 거절한다.")
+    @Test
+    void createOrderOverConcurrencyLimit() throws Exception {
+        // given
+        OrderCreateRequest request = OrderCreateRequest.builder()
+                                                    .productNumbers(List.of("001"))
+                                                    .build();
+
+        List<Long> acquired = new ArrayList<>();
+        while (orderConcurrencyLimiter.tryAcquire()) {
+            acquired.add(System.nanoTime());
+        }
+
+        // when  // then
+        try {
+            mockMvc.perform(
+                            post("/api/v1/orders/new")
+                                    .content(objectMapper.writeValueAsString(request))
+                                    .contentType(APPLICATION_JSON)
+                    )
+                    .andDo(print())
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(jsonPath("$.code").value("503"))
+                    .andExpect(jsonPath("$.status").value("SERVICE_UNAVAILABLE"))
+                    .andExpect(jsonPath("$.data").isEmpty());
+        } finally {
+            acquired.forEach(startedAt -> orderConcurrencyLimiter.release(startedAt, startedAt));
+        }
+    }
+
+    @DisplayName("오래 걸리는 매출 리포트 조회는 주문 요청의 동시 처리 한도에 묶이지 않는다.")
+    @Test
+    void getSalesReportOverConcurrencyLimit() throws Exception {
+        // given
+        List<Long> acquired = new ArrayList<>();
+        while (orderConcurrencyLimiter.tryAcquire()) {
+            acquired.add(System.nanoTime());
+        }
+
+        // when  // then
+        try {
+            mockMvc.perform(
+                            get("/api/v1/orders/sales-report")
+                                    .param("startDate", "2023-03-01")
+                                    .param("endDate", "2023-03-31")
+                    )
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.code").value("200"));
+        } finally {
+            acquired.forEach(startedAt -> orderConcurrencyLimiter.release(startedAt, startedAt));
+        }
+    }
+
     @DisplayName("신규 주문을 등록할 때 상품번호는 1개 이상이어야 한다.")
     @Test
     void createOrderWithEmptyProductNumbers() throws Exception {
@@ -62,4 +154,114 @@ class OrderControllerTest extends ControllerTestSupport {
                 .andExpect(jsonPath("$.data").isEmpty());
     }
 
-}
\ No newline at end of file
+    @DisplayName("여러 주문을 한 번에 등록한다.")
+    @Test
+    void createOrders() throws Exception {
+        // given
+        OrderBatchCreateRequest request = OrderBatchCreateRequest.builder()
+                .orders(List.of(
+                        OrderCreateRequest.builder().productNumbers(List.of("001")).build(),
+                        OrderCreateRequest.builder().productNumbers(List.of("002")).build()
+                ))
+                .build();
+
+        // when // then
+        mockMvc.perform(
+                        post("/api/v1/orders/batch")
+                                .content(objectMapper.writeValueAsString(request))
+                                .contentType(APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("200"))
+                .andExpect(jsonPath("$.status").value("OK"))
+                .andExpect(jsonPath("$.message").value("OK"));
+    }
+
+    @DisplayName("여러 주문을 한 번에 등록할 때 각 주문의 상품번호는 1개 이상이어야 한다.")
+    @Test
+    void createOrdersWithEmptyProductNumbers() throws Exception {
+        // given
+        OrderBatchCreateRequest request = OrderBatchCreateRequest.builder()
+                .orders(List.of(OrderCreateRequest.builder().productNumbers(List.of()).build()))
+                .build();
+
+        // when // then
+        mockMvc.perform(
+                        post("/api/v1/orders/batch")
+                                .content(objectMapper.writeValueAsString(request))
+                                .contentType(APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("400"))
+                .andExpect(jsonPath("$.status").value("BAD_REQUEST"))
+                .andExpect(jsonPath("$.message").value("상품 번호 리스트는 필수입니다."))
+                .andExpect(jsonPath("$.data").isEmpty());
+    }
+
+    @DisplayName("주문의 결제를 완료한다.")
+    @Test
+    void completePayment() throws Exception {
+        // when // then
+        mockMvc.perform(
+                        post("/api/v1/orders/{orderId}/payment", 1L)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("200"))
+                .andExpect(jsonPath("$.status").value("OK"))
+                .andExpect(jsonPath("$.message").value("OK"));
+    }
+
+    @DisplayName("결제 대기 중이 아닌 주문의 결제를 완료하면 409 를 돌려준다.")
+    @Test
+    void completePaymentWithoutInit() throws Exception {
+        // given
+        given(orderService.completePayment(eq(1L), any()))
+                .willThrow(new OrderStatusTransitionException("결제 대기 중인 주문이 아닙니다."));
+
+        // when // then
+        mockMvc.perform(
+                        post("/api/v1/orders/{orderId}/payment", 1L)
+                )
+                .andDo(print())
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("409"))
+                .andExpect(jsonPath("$.status").value("CONFLICT"))
+                .andExpect(jsonPath("$.message").value("결제 대기 중인 주문이 아닙니다."))
+                .andExpect(jsonPath("$.data").isEmpty());
+    }
+
+    @DisplayName("결제 대기 중인 주문을 취소한다.")
+    @Test
+    void cancelOrder() throws Exception {
+        // when // then
+        mockMvc.perform(
+                        post("/api/v1/orders/{orderId}/cancel", 1L)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("200"))
+                .andExpect(jsonPath("$.status").value("OK"))
+                .andExpect(jsonPath("$.message").value("OK"));
+    }
+
+    @DisplayName("기간별 매출 리포트를 조회한다.")
+    @Test
+    void getSalesReport() throws Exception {
+        // when // then
+        mockMvc.perform(
+                        get("/api/v1/orders/sales-report")
+                                .param("startDate", "2023-03-01")
+                                .param("endDate", "2023-03-31")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("200"))
+                .andExpect(jsonPath("$.status").value("OK"))
+                .andExpect(jsonPath("$.message").value("OK"));
+
+        then(salesReportService).should().getSalesReport(LocalDate.of(2023, 3, 1), LocalDate.of(2023, 3, 31));
+    }
+}
@@ -0,0 +1,43 @@
+package sample.cafekiosk.spring.api.controller.product;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AcceptEncodingTest {
+
+    @DisplayName("gzip 또는 * 의 q 값이 0 보다 크면 gzip 을 받는다.")
+    @ParameterizedTest
+    @ValueSource(strings = {"gzip", "GZIP", "x-gzip", "gzip;q=0.5", "deflate, gzip ; Q=0.001", "deflate, *;q=0.1", "*"})
+    void acceptsGzip(String acceptEncoding) {
+        // when
+        boolean accepted = AcceptEncoding.acceptsGzip(acceptEncoding);
+
+        // then
+        assertThat(accepted).isTrue();
+    }
+
+    @DisplayName("gzip 의 q 값이 0 이거나 잘못됐으면, * 가 허용하더라도 gzip 을 받지 않는다.")
+    @ParameterizedTest
+    @ValueSource(strings = {"gzip;q=0", "gzip; q=0.0, deflate", "*;q=0.5, gzip;q=0", "gzip;q=abc", "identity", "*;q=0", ""})
+    void rejectsGzip(String acceptEncoding) {
+        // when
+        boolean accepted = AcceptEncoding.acceptsGzip(acceptEncoding);
+
+        // then
+        assertThat(accepted).isFalse();
+    }
+
+    @DisplayName("Accept-Encoding 헤더가 없으면 gzip 을 받지 않는다.")
+    @Test
+    void acceptsGzipWithoutHeader() {
+        // when
+        boolean accepted = AcceptEncoding.acceptsGzip(null);
+
+        // then
+        assertThat(accepted).isFalse();
+    }
+}
@@ -2,20 +2,40 @@ package sample.cafekiosk.spring.api.controller.product;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import sample.cafekiosk.spring.ControllerTestSupport;
+import sample.cafekiosk.spring.api.ApiResponse;
 import sample.cafekiosk.spring.api.controller.product.dto.request.ProductCreateRequest;
+import sample.cafekiosk.spring.api.controller.product.dto.request.ProductSellingStatusChangeRequest;
+import sample.cafekiosk.spring.api.service.product.request.ProductImportServiceRequest;
+import sample.cafekiosk.spring.api.service.product.response.ProductImportResponse;
 import sample.cafekiosk.spring.api.service.product.response.ProductResponse;
 import sample.cafekiosk.spring.domain.product.ProductSellingStatus;
 import sample.cafekiosk.spring.domain.product.ProductType;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.then;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class ProductControllerTest extends ControllerTestSupport {
@@ -167,8 +187,7 @@ class ProductControllerTest extends ControllerTestSupport {
     @Test
     void getSellingProducts() throws Exception {
         // given
-        List<ProductResponse> result = List.of();
-        when(productService.getSellingProducts()).thenReturn(result);
+        when(sellingProductsPayloadCache.get()).thenReturn(createPayload());
 
         // when  // then
         //      api 를 쏘는 역할
@@ -178,9 +197,281 @@ class ProductControllerTest extends ControllerTestSupport {
                 )
                 .andDo(print()) // 실행 상세 로그 확인
                 .andExpect(status().isOk())// 결과 상태 조회
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().string("Cache-Control", "no-cache"))
                 .andExpect(jsonPath("$.code").value("200"))
                 .andExpect(jsonPath("$.status").value("OK"))
                 .andExpect(jsonPath("$.message").value("OK"))
                 .andExpect(jsonPath("$.data").isArray());
     }
-}
\ No newline at end of file
+
+    @DisplayName("판매 상품을 조회할 때 ETag 가 바뀌지 않았으면 본문 없이 304 를 돌려준다.")
+    @Test
+    void getSellingProductsNotModified() throws Exception {
+        // given
+        SellingProductsPayload payload = createPayload();
+        when(sellingProductsPayloadCache.get()).thenReturn(payload);
+
+        // when  // then
+        mockMvc.perform(
+                        get("/api/v1/products/selling")
+                                .header("If-None-Match", payload.getEtag(false))
+                )
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", payload.getEtag(false)))
+                .andExpect(content().bytes(new byte[0]));
+
+        then(productService).shouldHaveNoInteractions();
+    }
+
+    @DisplayName("gzip 을 받을 수 있는 요청에는 미리 압축해 둔 메뉴를 내려준다.")
+    @Test
+    void getSellingProductsWithGzip() throws Exception {
+        // given
+        SellingProductsPayload payload = createPayload();
+        when(sellingProductsPayloadCache.get()).thenReturn(payload);
+
+        // when
+        byte[] body = mockMvc.perform(
+                        get("/api/v1/products/selling")
+                                .header("Accept-Encoding", "gzip, deflate")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", payload.getEtag(true)))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // then
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(in.readAllBytes()).isEqualTo(payload.getBody(false));
+        }
+    }
+
+    @DisplayName("gzip 의 q 값이 0 이면 압축하지 않은 메뉴를 내려준다.")
+    @ParameterizedTest
+    @ValueSource(strings = {"gzip;q=0", "gzip; q=0.0, deflate", "*;q=0.5, gzip;q=0", "identity"})
+    void getSellingProductsWithoutAcceptableGzip(String acceptEncoding) throws Exception {
+        // given
+        SellingProductsPayload payload = createPayload();
+        when(sellingProductsPayloadCache.get()).thenReturn(payload);
+
+        // when // then
+        mockMvc.perform(
+                        get("/api/v1/products/selling")
+                                .header("Accept-Encoding", acceptEncoding)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("ETag", payload.getEtag(false)))
+                .andExpect(content().bytes(payload.getBody(false)));
+    }
+
+    @DisplayName("gzip 을 직접 적지 않아도 * 의 q 값이 0 보다 크면 압축한 메뉴를 내려준다.")
+    @ParameterizedTest
+    @ValueSource(strings = {"gzip;q=0.5", "GZIP", "deflate, *;q=0.1"})
+    void getSellingProductsWithAcceptableGzip(String acceptEncoding) throws Exception {
+        // given
+        SellingProductsPayload payload = createPayload();
+        when(sellingProductsPayloadCache.get()).thenReturn(payload);
+
+        // when // then
+        mockMvc.perform(
+                        get("/api/v1/products/selling")
+                                .header("Accept-Encoding", acceptEncoding)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", payload.getEtag(true)));
+    }
+
+    @DisplayName("상품의 판매 상태를 변경한다.")
+    @Test
+    void changeSellingStatus() throws Exception {
+        // given
+        ProductSellingStatusChangeRequest request = ProductSellingStatusChangeRequest.builder()
+                .sellingStatus(ProductSellingStatus.STOP_SELLING)
+                .build();
+
+        // when  // then
+        mockMvc.perform(
+                        post("/api/v1/products/001/selling-status")
+                                .content(objectMapper.writeValueAsString(request))
+                                .contentType(APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("200"))
+                .andExpect(jsonPath("$.status").value("OK"))
+                .andExpect(jsonPath("$.message").value("OK"));
+    }
+
+    @DisplayName("상품의 판매 상태를 변경할 때 판매 상태는 필수값이다.")
+    @Test
+    void changeSellingStatusWithoutSellingStatus() throws Exception {
+        // given
+        ProductSellingStatusChangeRequest request = ProductSellingStatusChangeRequest.builder()
+                .build();
+
+        // when  // then
+        mockMvc.perform(
+                        post("/api/v1/products/001/selling-status")
+                                .content(objectMapper.writeValueAsString(request))
+                                .contentType(APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("400"))
+                .andExpect(jsonPath("$.status").value("BAD_REQUEST"))
+                .andExpect(jsonPath("$.message").value("상품 판매 상태는 필수입니다."))
+                .andExpect(jsonPath("$.data").isEmpty());
+    }
+
+    @DisplayName("cursor 이후에 변경된 상품을 조회한다.")
+    @Test
+    void getProductChanges() throws Exception {
+        // when  // then
+        mockMvc.perform(
+                        get("/api/v1/products/changes")
+                                .queryParam("since", "MjAyMy0wMS0wMVQwMDowMHwx")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("200"))
+                .andExpect(jsonPath("$.status").value("OK"));
+
+        then(productChangeService).should().getChanges(eq("MjAyMy0wMS0wMVQwMDowMHwx"), any());
+    }
+
+    @DisplayName("잘못된 cursor 로 변경된 상품을 조회하면 400 을 돌려준다.")
+    @Test
+    void getProductChangesWithInvalidCursor() throws Exception {
+        // given
+        when(productChangeService.getChanges(eq("invalid"), any()))
+                .thenThrow(new IllegalArgumentException("잘못된 cursor 입니다."));
+
+        // when  // then
+        mockMvc.perform(
+                        get("/api/v1/products/changes")
+                                .queryParam("since", "invalid")
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("400"))
+                .andExpect(jsonPath("$.status").value("BAD_REQUEST"))
+                .andExpect(jsonPath("$.message").value("잘못된 cursor 입니다."))
+                .andExpect(jsonPath("$.data").isEmpty());
+    }
+
+    @DisplayName("상품 이벤트 스트림에 연결하면 비동기로 응답을 열어 둔다.")
+    @Test
+    void streamProductEvents() throws Exception {
+        // given
+        when(productEventStream.subscribe("epoch-3")).thenReturn(new SseEmitter());
+
+        // when  // then
+        mockMvc.perform(
+                        get("/api/v1/products/stream")
+                                .header("Last-Event-ID", "epoch-3")
+                )
+                .andDo(print())
+                .andExpect(request().asyncStarted());
+    }
+
+    @DisplayName("JSONL 로 상품을 한 줄씩 읽어 대량 등록한다.")
+    @Test
+    void importProductsFromJsonLines() throws Exception {
+        // given
+        List<ProductImportServiceRequest> received = stubImport();
+        String body = "{\"type\":\"HANDMADE\",\"sellingStatus\":\"SELLING\",\"name\":\"아메리카노\",\"price\":4000}\n" +
+                "\n" +
+                "{\"type\":\"BOTTLE\",\"sellingStatus\":\"SELLING\",\"name\":\"생수\",\"price\":1000,\"stockQuantity\":10}\n";
+
+        // when  // then
+        mockMvc.perform(
+                        post("/api/v1/products/import")
+                                .content(body.getBytes(StandardCharsets.UTF_8))
+                                .contentType("application/x-ndjson")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.importedCount").value(2));
+
+        assertThat(received).extracting("type", "name", "price", "stockQuantity")
+                .containsExactly(
+                        tuple(ProductType.HANDMADE, "아메리카노", 4000, 0),
+                        tuple(ProductType.BOTTLE, "생수", 1000, 10)
+                );
+    }
+
+    @DisplayName("CSV 로 상품을 대량 등록한다. 첫 줄은 헤더이고 따옴표로 감싼 값에는 쉼표를 쓸 수 있다.")
+    @Test
+    void importProductsFromCsv() throws Exception {
+        // given
+        List<ProductImportServiceRequest> received = stubImport();
+        String body = "name,type,sellingStatus,price,stockQuantity\n" +
+                "\"라떼, 아이스\",HANDMADE,SELLING,4500,\n" +
+                "크루아상,BAKERY,HOLD,3000,5\n";
+
+        // when  // then
+        mockMvc.perform(
+                        post("/api/v1/products/import")
+                                .content(body.getBytes(StandardCharsets.UTF_8))
+                                .contentType("text/csv")
+                )
+                .andDo(print())
+                .andExpect(status().isOk());
+
+        assertThat(received).extracting("type", "sellingStatus", "name", "price", "stockQuantity")
+                .containsExactly(
+                        tuple(ProductType.HANDMADE, ProductSellingStatus.SELLING, "라떼, 아이스", 4500, 0),
+                        tuple(ProductType.BAKERY, ProductSellingStatus.HOLD, "크루아상", 3000, 5)
+                );
+    }
+
+    @DisplayName("대량 등록 중 검증에 실패한 줄이 있으면 몇 번째 줄인지 알려준다.")
+    @Test
+    void importProductsWithInvalidLine() throws Exception {
+        // given
+        stubImport();
+        String body = "type,sellingStatus,name,price\n" +
+                "HANDMADE,SELLING,아메리카노,4000\n" +
+                "HANDMADE,SELLING,,4000\n";
+
+        // when  // then
+        mockMvc.perform(
+                        post("/api/v1/products/import")
+                                .content(body.getBytes(StandardCharsets.UTF_8))
+                                .contentType("text/csv")
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("3번째 줄: 상품 이름은 필수입니다."));
+    }
+
+    // 실제 서비스처럼 요청을 끝까지 꺼내 읽는다.
+    private List<ProductImportServiceRequest> stubImport() {
+        List<ProductImportServiceRequest> received = new ArrayList<>();
+        when(productImportService.importProducts(any())).thenAnswer(invocation -> {
+            Iterator<ProductImportServiceRequest> rows = invocation.getArgument(0);
+            rows.forEachRemaining(received::add);
+            return new ProductImportResponse(received.size(), 0);
+        });
+        return received;
+    }
+
+    private SellingProductsPayload createPayload() throws Exception {
+        List<ProductResponse> products = List.of(ProductResponse.builder()
+                .id(1L)
+                .productNumber("001")
+                .type(ProductType.HANDMADE)
+                .sellingStatus(ProductSellingStatus.SELLING)
+                .name("아메리카노")
+                .price(4000)
+                .build());
+        return SellingProductsPayload.of(products, objectMapper.writeValueAsBytes(ApiResponse.ok(products)), true);
+    }
+}
@@ -0,0 +1,62 @@
+package sample.cafekiosk.spring.api.controller.product;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ProductEventRingTest {
+
+    @DisplayName("sequence 다음에 쌓인 이벤트를 순서대로 읽는다.")
+    @Test
+    void readAfter() {
+        // given
+        ProductEventRing ring = new ProductEventRing(4, "epoch");
+        ring.append(ProductStreamEvent.CATALOG, List.of("001"));
+        ring.append(ProductStreamEvent.STOCK_OUT, List.of("002"));
+        ring.append(ProductStreamEvent.CATALOG, List.of("003"));
+
+        // when
+        List<ProductStreamEvent> events = ring.readAfter(1);
+
+        // then
+        assertThat(events).extracting("sequence", "type")
+                .containsExactly(
+                        tuple(2L, ProductStreamEvent.STOCK_OUT),
+                        tuple(3L, ProductStreamEvent.CATALOG)
+                );
+        assertThat(ring.readAfter(3)).isEmpty();
+    }
+
+    @DisplayName("이미 덮어써서 빠진 이벤트가 있거나 아직 없는 sequence 면 읽을 수 없다.")
+    @Test
+    void readAfterOverwritten() {
+        // given
+        ProductEventRing ring = new ProductEventRing(2, "epoch");
+        for (int i = 0; i < 5; i++) {
+            ring.append(ProductStreamEvent.CATALOG, List.of("001"));
+        }
+
+        // when // then
+        assertThat(ring.readAfter(2)).isNull();
+        assertThat(ring.readAfter(3)).extracting("sequence").containsExactly(4L, 5L);
+        assertThat(ring.readAfter(6)).isNull();
+    }
+
+    @DisplayName("이 서버가 발급한 이벤트 id 에서만 sequence 를 읽는다.")
+    @Test
+    void sequenceOf() {
+        // given
+        ProductEventRing ring = new ProductEventRing(4, "epoch");
+        ProductStreamEvent event = ring.append(ProductStreamEvent.CATALOG, List.of("001"));
+
+        // when // then
+        assertThat(ring.sequenceOf(ring.idOf(event))).isEqualTo(1);
+        assertThat(ring.sequenceOf("restarted-1")).isEqualTo(-1);
+        assertThat(ring.sequenceOf("epoch-abc")).isEqualTo(-1);
+        assertThat(ring.sequenceOf(null)).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,191 @@
+package sample.cafekiosk.spring.api.controller.product;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import sample.cafekiosk.spring.domain.product.ProductChangedEvent;
+import sample.cafekiosk.spring.domain.stock.StockSoldOutEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductEventStreamTest {
+
+    private static final Pattern ID_PATTERN = Pattern.compile("id:(\\S+)");
+
+    private ProductEventStream stream;
+
+    @BeforeEach
+    void setUp() {
+        stream = new ProductEventStream(4, Duration.ofMinutes(1), Duration.ofMinutes(1), 2, 1);
+        stream.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.stop();
+    }
+
+    @DisplayName("연결된 모든 키오스크에 상품 변경과 품절 이벤트를 보낸다.")
+    @Test
+    void broadcast() throws Exception {
+        // given
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        stream.register(first, null);
+        stream.register(second, null);
+
+        // when
+        stream.onProductChanged(new ProductChangedEvent("001"));
+        stream.onStockSoldOut(new StockSoldOutEvent(List.of("002")));
+
+        // then
+        for (RecordingEmitter emitter : List.of(first, second)) {
+            List<String> events = emitter.awaitEvents(2);
+            assertThat(events.get(0)).contains("event:catalog").contains("[001]");
+            assertThat(events.get(1)).contains("event:stock-out").contains("[002]");
+        }
+        assertThat(stream.getSubscriberCount()).isEqualTo(2);
+    }
+
+    @DisplayName("Last-Event-ID 로 재연결하면 그 이후의 이벤트부터 이어서 보낸다.")
+    @Test
+    void resumeFromLastEventId() throws Exception {
+        // given
+        RecordingEmitter before = new RecordingEmitter();
+        stream.register(before, null);
+        stream.onProductChanged(new ProductChangedEvent("001"));
+        String lastEventId = idOf(before.awaitEvents(1).get(0));
+        before.complete();
+
+        stream.onProductChanged(new ProductChangedEvent("002"));
+        stream.onStockSoldOut(new StockSoldOutEvent(List.of("003")));
+
+        // when
+        RecordingEmitter resumed = new RecordingEmitter();
+        stream.register(resumed, lastEventId);
+
+        // then
+        List<String> events = resumed.awaitEvents(2);
+        assertThat(events.get(0)).contains("event:catalog").contains("[002]");
+        assertThat(events.get(1)).contains("event:stock-out").contains("[003]");
+    }
+
+    @DisplayName("놓친 이벤트가 ring buffer 에 남아 있지 않거나 모르는 id 면 reset 을 보낸다.")
+    @Test
+    void resetWhenEventsAreLost() throws Exception {
+        // given
+        RecordingEmitter before = new RecordingEmitter();
+        stream.register(before, null);
+        stream.onProductChanged(new ProductChangedEvent("001"));
+        String lastEventId = idOf(before.awaitEvents(1).get(0));
+        before.complete();
+
+        // buffer-size(4) 보다 많은 이벤트가 지나감
+        for (int i = 0; i < 5; i++) {
+            stream.onProductChanged(new ProductChangedEvent("002"));
+        }
+        RecordingEmitter expired = new RecordingEmitter();
+        RecordingEmitter unknown = new RecordingEmitter();
+
+        // when
+        stream.register(expired, lastEventId);
+        stream.register(unknown, "unknown-1");
+
+        // then
+        assertThat(expired.awaitEvents(1).get(0)).contains("event:reset");
+        assertThat(unknown.awaitEvents(1).get(0)).contains("event:reset");
+    }
+
+    @DisplayName("전송이 막힌 키오스크가 있어도 다른 키오스크는 이벤트를 받고, 밀린 키오스크는 연결이 끊긴다.")
+    @Test
+    void dropSlowSubscriber() throws Exception {
+        // given
+        ProductEventStream slowStream = new ProductEventStream(4, Duration.ofMinutes(1), Duration.ofMinutes(1), 2, 2);
+        slowStream.start();
+        BlockingEmitter slow = new BlockingEmitter();
+        RecordingEmitter fast = new RecordingEmitter();
+        slowStream.register(slow, null);
+        slowStream.register(fast, null);
+
+        try {
+            // when
+            // buffer-size(4) 와 queue 크기(2) 를 넘는 이벤트가 지나감
+            for (int i = 0; i < 10; i++) {
+                slowStream.onProductChanged(new ProductChangedEvent(String.valueOf(i)));
+                fast.awaitEvents(i + 1);
+            }
+
+            // then
+            assertThat(fast.awaitEvents(10)).hasSize(10);
+            assertThat(slow.completed.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(slowStream.getSubscriberCount()).isEqualTo(1);
+        } finally {
+            slow.release.countDown();
+            slowStream.stop();
+        }
+    }
+
+    private String idOf(String event) {
+        Matcher matcher = ID_PATTERN.matcher(event);
+        assertThat(matcher.find()).isTrue();
+        return matcher.group(1);
+    }
+
+    private static class BlockingEmitter extends SseEmitter {
+
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+            super.complete();
+        }
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            String event = builder.build().stream()
+                    .map(data -> data.getData() instanceof ProductStreamEvent
+                            ? String.valueOf(((ProductStreamEvent) data.getData()).getProductNumbers())
+                            : String.valueOf(data.getData()))
+                    .collect(Collectors.joining());
+            if (!event.startsWith(":")) {
+                events.add(event);
+            }
+        }
+
+        List<String> awaitEvents(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (events.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(events).hasSizeGreaterThanOrEqualTo(count);
+            return events;
+        }
+    }
+}
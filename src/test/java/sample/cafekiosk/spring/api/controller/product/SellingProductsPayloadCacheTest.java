@@ -0,0 +1,85 @@
+package sample.cafekiosk.spring.api.controller.product;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.cafekiosk.spring.api.service.product.ProductCatalogCache;
+import sample.cafekiosk.spring.api.service.product.response.ProductResponse;
+import sample.cafekiosk.spring.domain.product.ProductSellingStatus;
+import sample.cafekiosk.spring.domain.product.ProductType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class SellingProductsPayloadCacheTest {
+
+    private final ProductCatalogCache productCatalogCache = mock(ProductCatalogCache.class);
+    private final SellingProductsPayloadCache payloadCache = new SellingProductsPayloadCache(productCatalogCache, new ObjectMapper(), true);
+
+    @DisplayName("메뉴 목록이 그대로면 직렬화해 둔 payload 를 다시 쓴다.")
+    @Test
+    void getWithSameProducts() {
+        // given
+        List<ProductResponse> products = List.of(createResponse("001", 4000));
+        given(productCatalogCache.getSellingProducts()).willReturn(products);
+
+        // when
+        SellingProductsPayload first = payloadCache.get();
+        SellingProductsPayload second = payloadCache.get();
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(new String(first.getBody(false), StandardCharsets.UTF_8))
+                .startsWith("{\"code\":200,\"status\":\"OK\",\"message\":\"OK\",\"data\":[{");
+    }
+
+    @DisplayName("메뉴 목록이 바뀌면 다시 직렬화하고, 내용이 다르면 ETag 도 달라진다.")
+    @Test
+    void getWithChangedProducts() {
+        // given
+        given(productCatalogCache.getSellingProducts()).willReturn(List.of(createResponse("001", 4000)));
+        SellingProductsPayload before = payloadCache.get();
+
+        given(productCatalogCache.getSellingProducts()).willReturn(List.of(createResponse("001", 4500)));
+
+        // when
+        SellingProductsPayload after = payloadCache.get();
+
+        // then
+        assertThat(after).isNotSameAs(before);
+        assertThat(after.getEtag(false)).isNotEqualTo(before.getEtag(false));
+    }
+
+    @DisplayName("내용이 같은 메뉴는 다시 직렬화해도 같은 ETag 를 가진다.")
+    @Test
+    void getWithEqualProducts() {
+        // given
+        given(productCatalogCache.getSellingProducts()).willReturn(List.of(createResponse("001", 4000)));
+        SellingProductsPayload before = payloadCache.get();
+
+        given(productCatalogCache.getSellingProducts()).willReturn(List.of(createResponse("001", 4000)));
+
+        // when
+        SellingProductsPayload after = payloadCache.get();
+
+        // then
+        assertThat(after).isNotSameAs(before);
+        assertThat(after.getEtag(false)).isEqualTo(before.getEtag(false));
+        assertThat(after.getEtag(true)).isNotEqualTo(after.getEtag(false));
+    }
+
+    private ProductResponse createResponse(String productNumber, int price) {
+        return ProductResponse.builder()
+                .id(1L)
+                .productNumber(productNumber)
+                .type(ProductType.HANDMADE)
+                .sellingStatus(ProductSellingStatus.SELLING)
+                .name("아메리카노")
+                .price(price)
+                .build();
+    }
+}
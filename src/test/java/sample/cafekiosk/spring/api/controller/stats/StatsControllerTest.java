@@ -0,0 +1,33 @@
+package sample.cafekiosk.spring.api.controller.stats;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.cafekiosk.spring.ControllerTestSupport;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.then;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class StatsControllerTest extends ControllerTestSupport {
+
+    @DisplayName("오늘의 실시간 매출을 조회한다.")
+    @Test
+    void getLiveSales() throws Exception {
+        // when // then
+        mockMvc.perform(
+                        get("/api/v1/stats/live")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("200"))
+                .andExpect(jsonPath("$.status").value("OK"))
+                .andExpect(jsonPath("$.message").value("OK"));
+
+        then(liveSalesCounter).should().getTodaySales(any(LocalDateTime.class));
+    }
+}
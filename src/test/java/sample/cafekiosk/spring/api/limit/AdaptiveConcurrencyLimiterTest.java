@@ -0,0 +1,128 @@
+package sample.cafekiosk.spring.api.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofMillis(500).toNanos();
+
+    @DisplayName("처리 중인 요청이 한도에 차면 더 이상 받지 않고 거절 횟수를 센다.")
+    @Test
+    void tryAcquireOverLimit() {
+        // given
+        AdaptiveConcurrencyLimiter limiter = createLimiter(2, 1, 10);
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        // when
+        boolean acquired = limiter.tryAcquire();
+
+        // then
+        assertThat(acquired).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+        assertThat(limiter.getRejectedCount()).isEqualTo(1);
+    }
+
+    @DisplayName("한도를 충분히 쓰면서 빠르게 끝난 요청이 있으면 한도를 1씩 늘린다.")
+    @Test
+    void increaseLimit() {
+        // given
+        AdaptiveConcurrencyLimiter limiter = createLimiter(2, 1, 3);
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire();
+            limiter.tryAcquire();
+            limiter.release(0, FAST);
+            limiter.release(0, FAST);
+        }
+
+        // then
+        assertThat(limiter.getLimit()).isEqualTo(3);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @DisplayName("한도를 거의 쓰지 않을 때는 빠르게 끝나도 한도를 늘리지 않는다.")
+    @Test
+    void keepLimitWhenIdle() {
+        // given
+        AdaptiveConcurrencyLimiter limiter = createLimiter(10, 1, 20);
+
+        // when
+        limiter.tryAcquire();
+        limiter.release(0, FAST);
+
+        // then
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @DisplayName("늦게 끝난 요청이 있으면 한도를 줄이고, 줄이기 전에 시작한 요청으로는 다시 줄이지 않는다.")
+    @Test
+    void decreaseLimit() {
+        // given
+        AdaptiveConcurrencyLimiter limiter = createLimiter(10, 1, 20);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire();
+        }
+
+        // when
+        limiter.release(0, SLOW);
+        limiter.release(1, SLOW + 1);
+        limiter.release(SLOW + 10, SLOW + 10 + SLOW);
+
+        // then
+        assertThat(limiter.getLimit()).isEqualTo(6);
+    }
+
+    @DisplayName("한도는 최솟값 아래로 줄어들지 않는다.")
+    @Test
+    void decreaseLimitToMin() {
+        // given
+        AdaptiveConcurrencyLimiter limiter = createLimiter(2, 2, 10);
+        limiter.tryAcquire();
+
+        // when
+        limiter.release(0, SLOW);
+
+        // then
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @DisplayName("현재 한도와 거절 횟수를 metric 으로 노출한다.")
+    @Test
+    void bindTo() {
+        // given
+        AdaptiveConcurrencyLimiter limiter = createLimiter(1, 1, 10);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        limiter.bindTo(registry);
+
+        // when
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        // then
+        assertThat(registry.get("cafekiosk.concurrency.limit").tag("group", "order").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("cafekiosk.concurrency.rejected").tag("group", "order").functionCounter().count()).isEqualTo(1);
+    }
+
+    @DisplayName("최솟값, 초기값, 최댓값의 순서가 맞지 않으면 생성할 수 없다.")
+    @Test
+    void createWithInvalidLimits() {
+        // when // then
+        assertThatThrownBy(() -> createLimiter(1, 2, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("동시 처리 한도는 1 <= min <= initial <= max 여야 합니다.");
+    }
+
+    private AdaptiveConcurrencyLimiter createLimiter(int initialLimit, int minLimit, int maxLimit) {
+        return new AdaptiveConcurrencyLimiter("order", initialLimit, minLimit, maxLimit, Duration.ofMillis(250), 0.8);
+    }
+}
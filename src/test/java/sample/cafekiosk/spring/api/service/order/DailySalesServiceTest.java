@@ -0,0 +1,228 @@
+package sample.cafekiosk.spring.api.service.order;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import sample.cafekiosk.spring.IntegrationTestSupport;
+import sample.cafekiosk.spring.api.service.order.request.OrderCreateServiceRequest;
+import sample.cafekiosk.spring.api.service.product.ProductNumberFilter;
+import sample.cafekiosk.spring.api.service.product.ProductSnapshotCache;
+import sample.cafekiosk.spring.domain.order.DailySales;
+import sample.cafekiosk.spring.domain.order.DailySalesRepository;
+import sample.cafekiosk.spring.domain.order.Order;
+import sample.cafekiosk.spring.domain.order.OrderRepository;
+import sample.cafekiosk.spring.domain.order.OrderStatus;
+import sample.cafekiosk.spring.domain.orderproduct.OrderProductRepository;
+import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductChangedEvent;
+import sample.cafekiosk.spring.domain.product.ProductRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sample.cafekiosk.spring.domain.product.ProductType.HANDMADE;
+
+class DailySalesServiceTest extends IntegrationTestSupport {
+
+    @Autowired
+    private DailySalesService dailySalesService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderProductRepository orderProductRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductNumberFilter productNumberFilter;
+
+    @Autowired
+    private DailySalesRepository dailySalesRepository;
+
+    @Autowired
+    private ProductSnapshotCache productSnapshotCache;
+
+    @AfterEach
+    void tearDown() {
+        productSnapshotCache.invalidateAll();
+        orderProductRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        dailySalesRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("결제가 완료되면 결제 일자의 매출 집계에 주문 금액이 더해진다.")
+    @Test
+    void recordOnPaymentCompleted() {
+        // given
+        productRepository.save(createProduct("001", 1000));
+        Long orderId1 = createOrder();
+        Long orderId2 = createOrder();
+        Long orderId3 = createOrder();
+
+        // when
+        orderService.completePayment(orderId1, LocalDateTime.of(2023, 3, 4, 23, 59, 59));
+        orderService.completePayment(orderId2, LocalDateTime.of(2023, 3, 5, 0, 0));
+        orderService.completePayment(orderId3, LocalDateTime.of(2023, 3, 5, 23, 59, 59));
+
+        // then
+        assertThat(dailySalesService.getTotalAmount(LocalDate.of(2023, 3, 4))).isEqualTo(1000);
+        assertThat(dailySalesService.getTotalAmount(LocalDate.of(2023, 3, 5))).isEqualTo(2000);
+        assertThat(dailySalesRepository.findAll())
+                .extracting(DailySales::getSalesDate)
+                .containsOnly(LocalDate.of(2023, 3, 4), LocalDate.of(2023, 3, 5));
+    }
+
+    @DisplayName("결제 완료가 실패하면 매출 집계에도 더해지지 않는다.")
+    @Test
+    void recordRolledBackWithPayment() {
+        // given
+        productRepository.save(createProduct("001", 1000));
+        Long orderId = createOrder();
+        LocalDateTime paymentDateTime = LocalDateTime.of(2023, 3, 5, 12, 0);
+        orderService.completePayment(orderId, paymentDateTime);
+
+        // when // then
+        assertThatThrownBy(() -> orderService.completePayment(orderId, paymentDateTime))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(dailySalesService.getTotalAmount(paymentDateTime.toLocalDate())).isEqualTo(1000);
+    }
+
+    @DisplayName("동시에 결제가 완료되어도 매출이 누락되지 않고, 집계 row 는 slot 개수를 넘지 않는다.")
+    @Test
+    void recordConcurrently() throws Exception {
+        // given
+        productRepository.save(createProduct("001", 1000));
+        int orderCount = 40;
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < orderCount; i++) {
+            orderIds.add(createOrder());
+        }
+        LocalDateTime paymentDateTime = LocalDateTime.of(2023, 3, 5, 12, 0);
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long orderId : orderIds) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                orderService.completePayment(orderId, paymentDateTime);
+                return null;
+            }));
+        }
+
+        // when
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+
+        // then
+        assertThat(dailySalesService.getTotalAmount(paymentDateTime.toLocalDate())).isEqualTo(orderCount * 1000L);
+        List<DailySales> rows = dailySalesRepository.findAll();
+        assertThat(rows.size()).isLessThanOrEqualTo(8);
+        assertThat(rows.stream().mapToLong(DailySales::getOrderCount).sum()).isEqualTo(orderCount);
+    }
+
+    @DisplayName("매출 집계가 없는 일자의 매출은 0 이다.")
+    @Test
+    void getTotalAmountWithoutDailySales() {
+        // given
+        Product product = createProduct("001", 1000);
+        productRepository.save(product);
+        orderRepository.save(createPaymentCompletedOrder(LocalDateTime.of(2023, 3, 5, 10, 0), product));
+
+        // when
+        long totalAmount = dailySalesService.getTotalAmount(LocalDate.of(2023, 3, 5));
+
+        // then
+        assertThat(totalAmount).isZero();
+    }
+
+    @DisplayName("집계 전에 결제된 주문과 집계된 주문이 섞인 일자를 backfill 하면 중복 없이 결제 완료 주문 합계가 된다.")
+    @Test
+    void backfill() {
+        // given
+        Product product = productRepository.save(createProduct("001", 1000));
+        orderRepository.saveAll(List.of(
+                createPaymentCompletedOrder(LocalDateTime.of(2023, 3, 5, 10, 0), product),
+                createPaymentCompletedOrder(LocalDateTime.of(2023, 3, 6, 0, 0), product)
+        ));
+        orderService.completePayment(createOrder(), LocalDateTime.of(2023, 3, 5, 12, 0));
+
+        // when
+        dailySalesService.backfill(LocalDate.of(2023, 3, 5));
+
+        // then
+        assertThat(dailySalesService.getTotalAmount(LocalDate.of(2023, 3, 5))).isEqualTo(2000);
+        assertThat(dailySalesRepository.findAll())
+                .extracting(DailySales::getSalesDate, DailySales::getOrderCount)
+                .containsExactly(tuple(LocalDate.of(2023, 3, 5), 2L));
+    }
+
+    @DisplayName("backfill 한 뒤의 결제도 매출 집계에 더해진다.")
+    @Test
+    void recordAfterBackfill() {
+        // given
+        Product product = productRepository.save(createProduct("001", 1000));
+        orderRepository.save(createPaymentCompletedOrder(LocalDateTime.of(2023, 3, 5, 10, 0), product));
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            orderIds.add(createOrder());
+        }
+        dailySalesService.backfill(LocalDate.of(2023, 3, 5));
+
+        // when
+        for (Long orderId : orderIds) {
+            orderService.completePayment(orderId, LocalDateTime.of(2023, 3, 5, 12, 0));
+        }
+
+        // then
+        assertThat(dailySalesService.getTotalAmount(LocalDate.of(2023, 3, 5))).isEqualTo(9000);
+    }
+
+    private Long createOrder() {
+        OrderCreateServiceRequest request = OrderCreateServiceRequest.builder()
+                .productNumbers(List.of("001"))
+                .build();
+        return orderService.createOrder(request, LocalDateTime.now()).getId();
+    }
+
+    private Order createPaymentCompletedOrder(LocalDateTime registeredDateTime, Product product) {
+        return Order.builder()
+                .products(List.of(product))
+                .orderStatus(OrderStatus.PAYMENT_COMPLETED)
+                .registeredDateTime(registeredDateTime)
+                .build();
+    }
+
+    private Product createProduct(String productNumber, int price) {
+        // 상품 등록 서비스를 거치지 않고 저장하므로, 등록 후 발행되는 상품 변경 이벤트를 필터에 직접 전달한다.
+        productNumberFilter.onProductChanged(new ProductChangedEvent(productNumber));
+        return Product.builder()
+                .type(HANDMADE)
+                .productNumber(productNumber)
+                .price(price)
+                .sellingStatus(SELLING)
+                .name("메뉴 이름")
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package sample.cafekiosk.spring.api.service.order;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HashedTimingWheelTest {
+
+    private static final long TICK = 10L;
+
+    @DisplayName("만료 시각이 속한 tick 이 끝나야 만료되고, 그 전에는 만료되지 않는다.")
+    @Test
+    void advance() {
+        // given
+        HashedTimingWheel wheel = new HashedTimingWheel(TICK, 4, 0L);
+        wheel.schedule(1L, 25L);
+
+        // when // then
+        assertThat(wheel.advance(29L)).isEmpty();
+        assertThat(wheel.advance(30L)).containsExactly(1L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @DisplayName("wheel 한 바퀴보다 먼 만료 시각은 남은 바퀴 수만큼 기다렸다가 만료된다.")
+    @Test
+    void advanceWithRounds() {
+        // given
+        HashedTimingWheel wheel = new HashedTimingWheel(TICK, 4, 0L);
+        wheel.schedule(1L, 95L);
+        wheel.schedule(2L, 15L);
+
+        // when // then
+        assertThat(wheel.advance(20L)).containsExactly(2L);
+        assertThat(wheel.advance(90L)).isEmpty();
+        assertThat(wheel.advance(100L)).containsExactly(1L);
+    }
+
+    @DisplayName("같은 tick 에 만료되는 주문들은 한 번에 돌려주고, 취소된 주문은 제외한다.")
+    @Test
+    void advanceWithCancel() {
+        // given
+        HashedTimingWheel wheel = new HashedTimingWheel(TICK, 4, 0L);
+        wheel.schedule(1L, 11L);
+        wheel.schedule(2L, 12L);
+        wheel.schedule(3L, 13L);
+
+        // when
+        wheel.cancel(2L);
+
+        // then
+        assertThat(wheel.advance(20L)).containsExactly(1L, 3L);
+    }
+
+    @DisplayName("이미 지난 만료 시각으로 등록하면 다음 tick 에 바로 만료된다.")
+    @Test
+    void scheduleOverdue() {
+        // given
+        HashedTimingWheel wheel = new HashedTimingWheel(TICK, 4, 0L);
+        wheel.advance(50L);
+
+        // when
+        wheel.schedule(1L, 5L);
+
+        // then
+        assertThat(wheel.advance(60L)).containsExactly(1L);
+    }
+
+    @DisplayName("wheel 크기가 2의 거듭제곱이 아니면 예외가 발생한다.")
+    @Test
+    void createWithInvalidWheelSize() {
+        // when // then
+        assertThatThrownBy(() -> new HashedTimingWheel(TICK, 6, 0L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("wheel 크기는 2의 거듭제곱이어야 합니다.");
+    }
+}
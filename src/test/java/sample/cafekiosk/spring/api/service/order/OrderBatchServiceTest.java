@@ -0,0 +1,162 @@
+package sample.cafekiosk.spring.api.service.order;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import sample.cafekiosk.spring.IntegrationTestSupport;
+import sample.cafekiosk.spring.api.service.order.request.OrderCreateServiceRequest;
+import sample.cafekiosk.spring.api.service.order.response.OrderBatchResultResponse;
+import sample.cafekiosk.spring.api.service.product.ProductNumberFilter;
+import sample.cafekiosk.spring.domain.order.OrderRepository;
+import sample.cafekiosk.spring.domain.orderproduct.OrderProductRepository;
+import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductChangedEvent;
+import sample.cafekiosk.spring.domain.product.ProductRepository;
+import sample.cafekiosk.spring.domain.product.ProductType;
+import sample.cafekiosk.spring.domain.stock.Stock;
+import sample.cafekiosk.spring.domain.stock.StockHoldRepository;
+import sample.cafekiosk.spring.domain.stock.StockRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sample.cafekiosk.spring.domain.product.ProductType.BAKERY;
+import static sample.cafekiosk.spring.domain.product.ProductType.BOTTLE;
+import static sample.cafekiosk.spring.domain.product.ProductType.HANDMADE;
+
+class OrderBatchServiceTest extends IntegrationTestSupport {
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderProductRepository orderProductRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductNumberFilter productNumberFilter;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    @AfterEach
+    void tearDown() {
+        orderProductRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        stockRepository.deleteAllInBatch();
+        stockHoldRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("여러 주문을 한 번에 등록하고, 주문들의 재고를 합쳐서 차감한다.")
+    @Test
+    void createOrders() {
+        // given
+        LocalDateTime registeredDateTime = LocalDateTime.now();
+        productRepository.saveAll(List.of(
+                createProduct(BOTTLE, "001", 1000),
+                createProduct(BAKERY, "002", 3000),
+                createProduct(HANDMADE, "003", 5000)
+        ));
+        stockRepository.saveAll(List.of(Stock.create("001", 3), Stock.create("002", 1)));
+
+        List<OrderCreateServiceRequest> requests = List.of(
+                createRequest("001", "001", "003"),
+                createRequest("001", "002"),
+                createRequest("003")
+        );
+
+        // when
+        List<OrderBatchResultResponse> results = orderBatchService.createOrders(requests, registeredDateTime);
+
+        // then
+        assertThat(results).hasSize(3)
+                .extracting("index", "success", "order.totalPrice")
+                .containsExactly(
+                        tuple(0, true, 7000),
+                        tuple(1, true, 4000),
+                        tuple(2, true, 5000)
+                );
+        assertThat(orderRepository.findAll()).hasSize(3);
+        assertThat(orderProductRepository.findAll()).hasSize(5);
+        assertThat(stockRepository.findAll())
+                .extracting("productNumber", "quantity")
+                .containsExactlyInAnyOrder(
+                        tuple("001", 0),
+                        tuple("002", 0)
+                );
+        assertThat(stockHoldRepository.findAll())
+                .extracting("orderId", "productNumber", "quantity")
+                .containsExactlyInAnyOrder(
+                        tuple(results.get(0).getOrder().getId(), "001", 2),
+                        tuple(results.get(1).getOrder().getId(), "001", 1),
+                        tuple(results.get(1).getOrder().getId(), "002", 1)
+                );
+    }
+
+    @DisplayName("재고가 부족하거나 없는 상품이 포함된 주문만 실패하고 나머지 주문은 등록된다.")
+    @Test
+    void createOrdersWithFailures() {
+        // given
+        LocalDateTime registeredDateTime = LocalDateTime.now();
+        productRepository.saveAll(List.of(
+                createProduct(BOTTLE, "001", 1000),
+                createProduct(HANDMADE, "002", 3000)
+        ));
+        stockRepository.save(Stock.create("001", 2));
+
+        List<OrderCreateServiceRequest> requests = List.of(
+                createRequest("001"),
+                createRequest("001", "001"),
+                createRequest("002", "999"),
+                createRequest("001", "002")
+        );
+
+        // when
+        List<OrderBatchResultResponse> results = orderBatchService.createOrders(requests, registeredDateTime);
+
+        // then
+        assertThat(results).hasSize(4)
+                .extracting("index", "success", "message")
+                .containsExactly(
+                        tuple(0, true, null),
+                        tuple(1, false, "재고가 부족한 상품이 있습니다."),
+                        tuple(2, false, "존재하지 않는 상품이 포함되어 있습니다."),
+                        tuple(3, true, null)
+                );
+        assertThat(orderRepository.findAll()).hasSize(2);
+        assertThat(stockRepository.findAll())
+                .extracting("productNumber", "quantity")
+                .containsExactly(tuple("001", 0));
+    }
+
+    private OrderCreateServiceRequest createRequest(String... productNumbers) {
+        return OrderCreateServiceRequest.builder()
+                .productNumbers(List.of(productNumbers))
+                .build();
+    }
+
+    private Product createProduct(ProductType type, String productNumber, int price) {
+        // 상품 등록 서비스를 거치지 않고 저장하므로, 등록 후 발행되는 상품 변경 이벤트를 필터에 직접 전달한다.
+        productNumberFilter.onProductChanged(new ProductChangedEvent(productNumber));
+        return Product.builder()
+                .type(type)
+                .productNumber(productNumber)
+                .price(price)
+                .sellingStatus(SELLING)
+                .name("메뉴 이름")
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package sample.cafekiosk.spring.api.service.order;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import sample.cafekiosk.spring.domain.stock.StockHoldRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+
+class OrderExpirySchedulerTest {
+
+    private final OrderExpiryService orderExpiryService = mock(OrderExpiryService.class);
+    private final OrderExpiryScheduler orderExpiryScheduler = new OrderExpiryScheduler(
+            orderExpiryService, mock(StockHoldRepository.class), Duration.ofMillis(1), 8);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @DisplayName("주문 트랜잭션이 커밋된 뒤에 만료 일정이 등록된다.")
+    @Test
+    void scheduleAfterCommit() throws Exception {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+        orderExpiryScheduler.schedule(1L, LocalDateTime.now().minusSeconds(1));
+
+        // when
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+        Thread.sleep(5);
+        orderExpiryScheduler.advance();
+
+        // then
+        then(orderExpiryService).should().expire(List.of(1L));
+    }
+
+    @DisplayName("주문 트랜잭션이 롤백되면 만료 일정을 등록하지 않는다.")
+    @Test
+    void scheduleRolledBack() throws Exception {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+        orderExpiryScheduler.schedule(1L, LocalDateTime.now().minusSeconds(1));
+
+        // when
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_ROLLED_BACK);
+        Thread.sleep(5);
+        orderExpiryScheduler.advance();
+
+        // then
+        then(orderExpiryService).should(never()).expire(any());
+    }
+
+    @DisplayName("결제 완료가 롤백되면 만료 일정이 취소되지 않고 남는다.")
+    @Test
+    void cancelRolledBack() throws Exception {
+        // given
+        orderExpiryScheduler.schedule(1L, LocalDateTime.now().minusSeconds(1));
+        TransactionSynchronizationManager.initSynchronization();
+        orderExpiryScheduler.cancel(1L);
+
+        // when
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_ROLLED_BACK);
+        Thread.sleep(5);
+        orderExpiryScheduler.advance();
+
+        // then
+        then(orderExpiryService).should().expire(List.of(1L));
+    }
+}
@@ -0,0 +1,142 @@
+package sample.cafekiosk.spring.api.service.order;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import sample.cafekiosk.spring.IntegrationTestSupport;
+import sample.cafekiosk.spring.api.service.product.ProductNumberFilter;
+import sample.cafekiosk.spring.api.service.product.ProductSnapshotCache;
+import sample.cafekiosk.spring.api.service.order.request.OrderCreateServiceRequest;
+import sample.cafekiosk.spring.domain.order.DailySalesRepository;
+import sample.cafekiosk.spring.domain.order.OrderRepository;
+import sample.cafekiosk.spring.domain.order.OrderStatus;
+import sample.cafekiosk.spring.domain.orderproduct.OrderProductRepository;
+import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductChangedEvent;
+import sample.cafekiosk.spring.domain.product.ProductRepository;
+import sample.cafekiosk.spring.domain.stock.Stock;
+import sample.cafekiosk.spring.domain.stock.StockHoldRepository;
+import sample.cafekiosk.spring.domain.stock.StockRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sample.cafekiosk.spring.domain.product.ProductType.BOTTLE;
+
+class OrderExpiryServiceTest extends IntegrationTestSupport {
+
+    @Autowired
+    private OrderExpiryService orderExpiryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderProductRepository orderProductRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductNumberFilter productNumberFilter;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    @Autowired
+    private DailySalesRepository dailySalesRepository;
+
+    @Autowired
+    private ProductSnapshotCache productSnapshotCache;
+
+    @AfterEach
+    void tearDown() {
+        productSnapshotCache.invalidateAll();
+        orderProductRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        stockRepository.deleteAllInBatch();
+        stockHoldRepository.deleteAllInBatch();
+        dailySalesRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("만료된 결제 대기 주문들을 취소하고 점유했던 재고를 한 번에 되돌린다.")
+    @Test
+    void expire() {
+        // given
+        productRepository.saveAll(List.of(createProduct("001"), createProduct("002")));
+        stockRepository.saveAll(List.of(Stock.create("001", 5), Stock.create("002", 5)));
+
+        Long orderId1 = createOrder(List.of("001", "001", "002"));
+        Long orderId2 = createOrder(List.of("001"));
+
+        // when
+        List<Long> expiredOrderIds = orderExpiryService.expire(List.of(orderId1, orderId2));
+
+        // then
+        assertThat(expiredOrderIds).containsExactlyInAnyOrder(orderId1, orderId2);
+        assertThat(orderRepository.findAll())
+                .extracting("orderStatus")
+                .containsOnly(OrderStatus.CANCEL);
+        assertThat(stockHoldRepository.findAll()).isEmpty();
+        assertThat(stockRepository.findAll())
+                .extracting("productNumber", "quantity")
+                .containsExactlyInAnyOrder(
+                        tuple("001", 5),
+                        tuple("002", 5)
+                );
+    }
+
+    @DisplayName("만료 전에 결제가 완료된 주문은 취소하지 않고 재고도 되돌리지 않는다.")
+    @Test
+    void expireWithPaymentCompleted() {
+        // given
+        productRepository.save(createProduct("001"));
+        stockRepository.save(Stock.create("001", 5));
+
+        Long paidOrderId = createOrder(List.of("001", "001"));
+        Long orderId = createOrder(List.of("001"));
+        orderService.completePayment(paidOrderId, LocalDateTime.now());
+
+        // when
+        List<Long> expiredOrderIds = orderExpiryService.expire(List.of(paidOrderId, orderId));
+
+        // then
+        assertThat(expiredOrderIds).containsExactly(orderId);
+        assertThat(orderRepository.findById(paidOrderId)).get()
+                .extracting("orderStatus")
+                .isEqualTo(OrderStatus.PAYMENT_COMPLETED);
+        assertThat(stockRepository.findAll())
+                .extracting("productNumber", "quantity")
+                .containsExactly(tuple("001", 3));
+    }
+
+    private Long createOrder(List<String> productNumbers) {
+        OrderCreateServiceRequest request = OrderCreateServiceRequest.builder()
+                .productNumbers(productNumbers)
+                .build();
+        return orderService.createOrder(request, LocalDateTime.now()).getId();
+    }
+
+    private Product createProduct(String productNumber) {
+        // 상품 등록 서비스를 거치지 않고 저장하므로, 등록 후 발행되는 상품 변경 이벤트를 필터에 직접 전달한다.
+        productNumberFilter.onProductChanged(new ProductChangedEvent(productNumber));
+        return Product.builder()
+                .type(BOTTLE)
+                .productNumber(productNumber)
+                .price(1000)
+                .sellingStatus(SELLING)
+                .name("메뉴 이름")
+                .build();
+    }
+}
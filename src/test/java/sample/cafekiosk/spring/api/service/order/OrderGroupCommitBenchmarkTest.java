@@ -0,0 +1,139 @@
+package sample.cafekiosk.spring.api.service.order;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import sample.cafekiosk.spring.IntegrationTestSupport;
+import sample.cafekiosk.spring.api.service.order.request.OrderCreateServiceRequest;
+import sample.cafekiosk.spring.domain.order.OrderRepository;
+import sample.cafekiosk.spring.domain.orderproduct.OrderProductRepository;
+import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductRepository;
+import sample.cafekiosk.spring.domain.product.ProductType;
+import sample.cafekiosk.spring.domain.stock.Stock;
+import sample.cafekiosk.spring.domain.stock.StockHoldRepository;
+import sample.cafekiosk.spring.domain.stock.StockRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sample.cafekiosk.spring.domain.product.ProductType.BOTTLE;
+import static sample.cafekiosk.spring.domain.product.ProductType.HANDMADE;
+
+/**
+ * 요청마다 트랜잭션을 커밋하는 방식과 group commit 방식의 주문 등록 처리량을 비교한다.
+ * ./gradlew benchmark 로 실행
+ */
+@Tag("benchmark")
+class OrderGroupCommitBenchmarkTest extends IntegrationTestSupport {
+
+    private static final int ORDERS_PER_THREAD = 100;
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderProductRepository orderProductRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    @AfterEach
+    void tearDown() {
+        orderProductRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        stockRepository.deleteAllInBatch();
+        stockHoldRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("주문 등록 방식별 동시 주문 처리량을 측정한다.")
+    @ParameterizedTest(name = "{0} / threads={1}")
+    @CsvSource({
+            "per-request,1", "per-request,8", "per-request,32",
+            "group-commit,1", "group-commit,8", "group-commit,32"
+    })
+    void createOrder(String mode, int threads) throws Exception {
+        // given
+        productRepository.saveAll(List.of(createProduct(BOTTLE, "001"), createProduct(HANDMADE, "002")));
+        stockRepository.save(Stock.create("001", threads * ORDERS_PER_THREAD));
+        OrderCreateServiceRequest request = OrderCreateServiceRequest.builder()
+                .productNumbers(List.of("001", "002"))
+                .build();
+
+        OrderGroupCommitWriter writer = new OrderGroupCommitWriter(orderBatchService, orderService, 32, Duration.ofNanos(500_000), 1024);
+        writer.start();
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                for (int order = 0; order < ORDERS_PER_THREAD; order++) {
+                    if (mode.equals("group-commit")) {
+                        writer.createOrder(request, LocalDateTime.now());
+                    } else {
+                        orderService.createOrder(request, LocalDateTime.now());
+                    }
+                }
+                return null;
+            }));
+        }
+
+        // when
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executorService.shutdown();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+        writer.stop();
+
+        // then
+        int orderCount = threads * ORDERS_PER_THREAD;
+        System.out.printf("[order-group-commit] mode=%-12s threads=%2d orders=%5d throughput=%8.1f orders/s%n",
+                mode, threads, orderCount, orderCount / (elapsedNanos / 1_000_000_000.0));
+
+        assertThat(orderRepository.count()).isEqualTo(orderCount);
+        assertThat(stockRepository.findAll())
+                .extracting("quantity")
+                .containsExactly(0);
+    }
+
+    private Product createProduct(ProductType type, String productNumber) {
+        return Product.builder()
+                .type(type)
+                .productNumber(productNumber)
+                .price(1000)
+                .sellingStatus(SELLING)
+                .name("메뉴 이름")
+                .build();
+    }
+}
@@ -0,0 +1,152 @@
+package sample.cafekiosk.spring.api.service.order;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import sample.cafekiosk.spring.IntegrationTestSupport;
+import sample.cafekiosk.spring.api.service.order.request.OrderCreateServiceRequest;
+import sample.cafekiosk.spring.api.service.order.response.OrderResponse;
+import sample.cafekiosk.spring.api.service.product.ProductNumberFilter;
+import sample.cafekiosk.spring.domain.order.OrderRepository;
+import sample.cafekiosk.spring.domain.orderproduct.OrderProductRepository;
+import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductChangedEvent;
+import sample.cafekiosk.spring.domain.product.ProductRepository;
+import sample.cafekiosk.spring.domain.stock.Stock;
+import sample.cafekiosk.spring.domain.stock.StockHoldRepository;
+import sample.cafekiosk.spring.domain.stock.StockRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sample.cafekiosk.spring.domain.product.ProductType.BOTTLE;
+
+class OrderGroupCommitWriterTest extends IntegrationTestSupport {
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderProductRepository orderProductRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductNumberFilter productNumberFilter;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    private OrderGroupCommitWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = new OrderGroupCommitWriter(orderBatchService, orderService, 8, Duration.ofMillis(20), 64);
+        writer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.stop();
+        orderProductRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        stockRepository.deleteAllInBatch();
+        stockHoldRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("동시에 들어온 주문들을 모아서 등록하고, 각 요청에 자기 주문의 결과를 돌려준다.")
+    @Test
+    void createOrder() {
+        // given
+        productRepository.save(createProduct("001"));
+        stockRepository.save(Stock.create("001", 10));
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        LocalDateTime registeredDateTime = LocalDateTime.now();
+
+        // when
+        List<CompletableFuture<OrderResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> writer.createOrder(createRequest("001"), registeredDateTime), executorService));
+        }
+        List<OrderResponse> responses = new ArrayList<>();
+        futures.forEach(future -> responses.add(future.join()));
+        executorService.shutdown();
+
+        // then
+        assertThat(responses).extracting("id").doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(orderRepository.findAll()).hasSize(8);
+        assertThat(stockRepository.findAll())
+                .extracting("quantity")
+                .containsExactly(2);
+    }
+
+    @DisplayName("재고가 부족한 주문은 개별 주문 등록과 같은 예외가 발생한다.")
+    @Test
+    void createOrderWithNoStock() {
+        // given
+        productRepository.save(createProduct("001"));
+        stockRepository.save(Stock.create("001", 1));
+
+        // when // then
+        assertThatThrownBy(() -> writer.createOrder(createRequest("001", "001"), LocalDateTime.now()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("재고가 부족한 상품이 있습니다.");
+        assertThat(orderRepository.findAll()).isEmpty();
+    }
+
+    @DisplayName("writer 가 멈춘 뒤에 들어온 주문은 기다리지 않고 거절한다.")
+    @Test
+    void createOrderAfterStop() {
+        // given
+        productRepository.save(createProduct("001"));
+        stockRepository.save(Stock.create("001", 10));
+        writer.stop();
+
+        // when // then
+        assertThatThrownBy(() -> writer.createOrder(createRequest("001"), LocalDateTime.now()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("서버가 종료 중이라 주문을 등록하지 못했습니다.");
+        assertThat(orderRepository.findAll()).isEmpty();
+    }
+
+    private OrderCreateServiceRequest createRequest(String... productNumbers) {
+        return OrderCreateServiceRequest.builder()
+                .productNumbers(List.of(productNumbers))
+                .build();
+    }
+
+    private Product createProduct(String productNumber) {
+        // 상품 등록 서비스를 거치지 않고 저장하므로, 등록 후 발행되는 상품 변경 이벤트를 필터에 직접 전달한다.
+        productNumberFilter.onProductChanged(new ProductChangedEvent(productNumber));
+        return Product.builder()
+                .type(BOTTLE)
+                .productNumber(productNumber)
+                .price(1000)
+                .sellingStatus(SELLING)
+                .name("메뉴 이름")
+                .build();
+    }
+}
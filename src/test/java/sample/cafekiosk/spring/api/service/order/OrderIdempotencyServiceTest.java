@@ -0,0 +1,206 @@
+package sample.cafekiosk.spring.api.service.order;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import sample.cafekiosk.spring.IntegrationTestSupport;
+import sample.cafekiosk.spring.api.service.product.ProductNumberFilter;
+import sample.cafekiosk.spring.api.service.product.ProductSnapshotCache;
+import sample.cafekiosk.spring.api.service.order.request.OrderCreateServiceRequest;
+import sample.cafekiosk.spring.api.service.order.response.OrderResponse;
+import sample.cafekiosk.spring.domain.order.OrderIdempotencyKeyRepository;
+import sample.cafekiosk.spring.domain.order.OrderRepository;
+import sample.cafekiosk.spring.domain.orderproduct.OrderProductRepository;
+import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductChangedEvent;
+import sample.cafekiosk.spring.domain.product.ProductRepository;
+import sample.cafekiosk.spring.domain.stock.Stock;
+import sample.cafekiosk.spring.domain.stock.StockHoldRepository;
+import sample.cafekiosk.spring.domain.stock.StockRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sample.cafekiosk.spring.domain.product.ProductType.BOTTLE;
+
+class OrderIdempotencyServiceTest extends IntegrationTestSupport {
+
+    @Autowired
+    private OrderIdempotencyService orderIdempotencyService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderProductRepository orderProductRepository;
+
+    @Autowired
+    private OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductNumberFilter productNumberFilter;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    // 캐시는 테스트 컨텍스트와 함께 재사용되므로 테스트마다 다른 키를 쓴다.
+    private final String idempotencyKey = UUID.randomUUID().toString();
+
+    @Autowired
+    private ProductSnapshotCache productSnapshotCache;
+
+    @AfterEach
+    void tearDown() {
+        productSnapshotCache.invalidateAll();
+        orderIdempotencyKeyRepository.deleteAllInBatch();
+        orderProductRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        stockRepository.deleteAllInBatch();
+        stockHoldRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("같은 Idempotency-Key 로 재시도하면 새로 주문하지 않고 처음 등록한 주문을 돌려준다.")
+    @Test
+    void createOrderWithSameKey() {
+        // given
+        LocalDateTime registeredDateTime = LocalDateTime.now();
+        productRepository.save(createProduct("001", 1000));
+        stockRepository.save(Stock.create("001", 5));
+
+        OrderCreateServiceRequest request = createRequest("001");
+
+        // when
+        OrderResponse first = orderIdempotencyService.createOrder(idempotencyKey, request, registeredDateTime);
+        OrderResponse retried = orderIdempotencyService.createOrder(idempotencyKey, request, registeredDateTime);
+
+        // then
+        assertThat(retried).isSameAs(first);
+        assertThat(orderRepository.count()).isEqualTo(1);
+        assertThat(stockRepository.findAll()).extracting("quantity").containsExactly(4);
+        assertThat(orderIdempotencyKeyRepository.findByIdempotencyKey(idempotencyKey))
+                .hasValueSatisfying(key -> assertThat(key.getOrderId()).isEqualTo(first.getId()));
+    }
+
+    @DisplayName("같은 Idempotency-Key 로 동시에 들어온 요청은 먼저 들어온 요청의 결과를 함께 받는다.")
+    @Test
+    void createOrderWithSameKeyConcurrently() throws Exception {
+        // given
+        LocalDateTime registeredDateTime = LocalDateTime.now();
+        productRepository.save(createProduct("001", 1000));
+        stockRepository.save(Stock.create("001", 10));
+
+        OrderCreateServiceRequest request = createRequest("001");
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+
+        // when
+        List<Future<OrderResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                return orderIdempotencyService.createOrder(idempotencyKey, request, registeredDateTime);
+            }));
+        }
+        start.countDown();
+
+        List<Long> orderIds = new ArrayList<>();
+        for (Future<OrderResponse> future : futures) {
+            orderIds.add(future.get().getId());
+        }
+        executorService.shutdown();
+
+        // then
+        assertThat(orderIds).hasSize(threads).containsOnly(orderIds.get(0));
+        assertThat(orderRepository.count()).isEqualTo(1);
+        assertThat(stockRepository.findAll()).extracting("quantity").containsExactly(9);
+    }
+
+    @DisplayName("메모리에 남아 있지 않은 키라도 이미 등록된 주문이 있으면 그 주문을 돌려준다.")
+    @Test
+    void createOrderWithStoredKey() {
+        // given
+        LocalDateTime registeredDateTime = LocalDateTime.now();
+        productRepository.save(createProduct("001", 1000));
+        stockRepository.save(Stock.create("001", 5));
+
+        OrderCreateServiceRequest request = createRequest("001");
+        OrderResponse first = orderIdempotencyService.createOrder(idempotencyKey, request, registeredDateTime);
+
+        // 재시작한 서버처럼 비어 있는 캐시
+        OrderIdempotencyService restarted = new OrderIdempotencyService(orderService, 100, Duration.ofHours(1));
+
+        // when
+        OrderResponse retried = restarted.createOrder(idempotencyKey, request, registeredDateTime);
+
+        // then
+        assertThat(retried.getId()).isEqualTo(first.getId());
+        assertThat(retried.getTotalPrice()).isEqualTo(1000);
+        assertThat(orderRepository.count()).isEqualTo(1);
+        assertThat(stockRepository.findAll()).extracting("quantity").containsExactly(4);
+    }
+
+    @DisplayName("실패한 요청은 기억하지 않으므로 같은 키로 다시 시도할 수 있다.")
+    @Test
+    void createOrderAfterFailure() {
+        // given
+        LocalDateTime registeredDateTime = LocalDateTime.now();
+        productRepository.save(createProduct("001", 1000));
+        Stock stock = stockRepository.save(Stock.create("001", 0));
+
+        OrderCreateServiceRequest request = createRequest("001");
+        assertThatThrownBy(() -> orderIdempotencyService.createOrder(idempotencyKey, request, registeredDateTime))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("재고가 부족한 상품이 있습니다.");
+
+        stockRepository.delete(stock);
+        stockRepository.save(Stock.create("001", 1));
+
+        // when
+        OrderResponse response = orderIdempotencyService.createOrder(idempotencyKey, request, registeredDateTime);
+
+        // then
+        assertThat(response.getId()).isNotNull();
+        assertThat(orderRepository.count()).isEqualTo(1);
+        assertThat(orderIdempotencyKeyRepository.count()).isEqualTo(1);
+    }
+
+    private OrderCreateServiceRequest createRequest(String... productNumbers) {
+        return OrderCreateServiceRequest.builder()
+                .productNumbers(List.of(productNumbers))
+                .build();
+    }
+
+    private Product createProduct(String productNumber, int price) {
+        // 상품 등록 서비스를 거치지 않고 저장하므로, 등록 후 발행되는 상품 변경 이벤트를 필터에 직접 전달한다.
+        productNumberFilter.onProductChanged(new ProductChangedEvent(productNumber));
+        return Product.builder()
+                .type(BOTTLE)
+                .productNumber(productNumber)
+                .price(price)
+                .sellingStatus(SELLING)
+                .name("메뉴 이름")
+                .build();
+    }
+}
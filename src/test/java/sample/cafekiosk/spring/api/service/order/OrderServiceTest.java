@@ -1,28 +1,43 @@
 package sample.cafekiosk.spring.api.service.order;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 import sample.cafekiosk.spring.IntegrationTestSupport;
+import sample.cafekiosk.spring.api.service.product.ProductNumberFilter;
+import sample.cafekiosk.spring.api.service.product.ProductSnapshotCache;
 import sample.cafekiosk.spring.api.controller.order.request.OrderCreateRequest;
 import sample.cafekiosk.spring.api.service.order.response.OrderResponse;
+import sample.cafekiosk.spring.domain.order.DailySalesRepository;
 import sample.cafekiosk.spring.domain.order.OrderRepository;
+import sample.cafekiosk.spring.domain.order.OrderStatus;
 import sample.cafekiosk.spring.domain.orderproduct.OrderProductRepository;
 import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductChangedEvent;
 import sample.cafekiosk.spring.domain.product.ProductRepository;
 import sample.cafekiosk.spring.domain.product.ProductType;
 import sample.cafekiosk.spring.domain.stock.Stock;
+import sample.cafekiosk.spring.domain.stock.StockHoldRepository;
 import sample.cafekiosk.spring.domain.stock.StockRepository;
+import sample.cafekiosk.spring.domain.stock.StockSoldOutEvent;
 
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.*;
 import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
 import static sample.cafekiosk.spring.domain.product.ProductType.*;
 
 //@Transactional
+@RecordApplicationEvents
 class OrderServiceTest extends IntegrationTestSupport {
 
     @Autowired
@@ -40,13 +55,34 @@ class OrderServiceTest extends IntegrationTestSupport {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductNumberFilter productNumberFilter;
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    @Autowired
+    private DailySalesRepository dailySalesRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @Autowired
+    private ProductSnapshotCache productSnapshotCache;
+
 
     @AfterEach
     void tearDown() {
+        productSnapshotCache.invalidateAll();
         orderProductRepository.deleteAllInBatch();
         productRepository.deleteAllInBatch();
         orderRepository.deleteAllInBatch();
         stockRepository.deleteAllInBatch();
+        stockHoldRepository.deleteAllInBatch();
+        dailySalesRepository.deleteAllInBatch();
     }
 
 
@@ -102,6 +138,9 @@ class OrderServiceTest extends IntegrationTestSupport {
         assertThat(orderResponse)
                 .extracting("registeredDateTime", "totalPrice")
                 .contains(registeredDateTime, 2000);
+        assertThat(orderProductRepository.findAll()).hasSize(1)
+                .extracting("quantity", "unitPrice")
+                .containsExactly(tuple(2, 1000));
         assertThat(orderResponse.getProducts()).hasSize(2)
                 .extracting("productNumber", "price")
                 .containsExactlyInAnyOrder(
@@ -110,6 +149,67 @@ class OrderServiceTest extends IntegrationTestSupport {
                 );
     }
 
+    @DisplayName("주문으로 재고를 모두 소진한 상품이 있으면 품절 이벤트를 발행한다.")
+    @Test
+    void createOrderPublishesSoldOut() {
+        // given
+        productRepository.saveAll(List.of(createProduct(BOTTLE, "001", 1000), createProduct(BAKERY, "002", 3000)));
+        stockRepository.saveAll(List.of(Stock.create("001", 1), Stock.create("002", 2)));
+
+        OrderCreateRequest request = OrderCreateRequest.builder()
+                .productNumbers(List.of("001", "002"))
+                .build();
+
+        // when
+        orderService.createOrder(request.toServiceRequest(), LocalDateTime.now());
+
+        // then
+        assertThat(applicationEvents.stream(StockSoldOutEvent.class))
+                .singleElement()
+                .extracting(StockSoldOutEvent::getProductNumbers)
+                .isEqualTo(List.of("001"));
+    }
+
+    @DisplayName("등록된 적 없는 상품번호가 포함된 주문은 상품을 조회하지 않고 거절한다.")
+    @Test
+    void createOrderWithUnknownProductNumber() {
+        // given
+        productRepository.save(createProduct(HANDMADE, "001", 1000));
+
+        OrderCreateRequest request = OrderCreateRequest.builder()
+                .productNumbers(List.of("001", "unknown-001"))
+                .build();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        // when // then
+        assertThatThrownBy(() -> orderService.createOrder(request.toServiceRequest(), LocalDateTime.now()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("존재하지 않는 상품이 포함되어 있습니다.");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @DisplayName("상품번호 필터를 통과했더라도 조회되지 않는 상품이 있으면 주문을 거절한다.")
+    @Test
+    void createOrderWithDeletedProduct() {
+        // given
+        productRepository.save(createProduct(HANDMADE, "001", 1000));
+        productRepository.deleteAllInBatch();
+
+        OrderCreateRequest request = OrderCreateRequest.builder()
+                .productNumbers(List.of("001"))
+                .build();
+
+        // when // then
+        assertThatThrownBy(() -> orderService.createOrder(request.toServiceRequest(), LocalDateTime.now()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("존재하지 않는 상품이 포함되어 있습니다.");
+        assertThat(orderRepository.findAll()).isEmpty();
+    }
+
     @DisplayName("재고와 관련된 상품이 포함되어 있는 주문번호 리스트를 받아 주문을 생성한다.")
     @Test
     void creatOrderWithStock() {
@@ -179,7 +279,121 @@ class OrderServiceTest extends IntegrationTestSupport {
                 .hasMessage("재고가 부족한 상품이 있습니다.");
     }
 
+    @DisplayName("재고가 필요한 상품을 주문하면 차감한 수량만큼 주문이 재고를 점유한다.")
+    @Test
+    void createOrderHoldsStock() {
+        // given
+        LocalDateTime registeredDateTime = LocalDateTime.now().withNano(0);
+        productRepository.saveAll(List.of(createProduct(BOTTLE, "001", 1000), createProduct(HANDMADE, "002", 3000)));
+        stockRepository.save(Stock.create("001", 2));
+
+        OrderCreateRequest request = OrderCreateRequest.builder()
+                .productNumbers(List.of("001", "001", "002"))
+                .build();
+
+        // when
+        OrderResponse orderResponse = orderService.createOrder(request.toServiceRequest(), registeredDateTime);
+
+        // then
+        assertThat(stockHoldRepository.findAll()).hasSize(1)
+                .extracting("orderId", "productNumber", "quantity", "expiresAt")
+                .containsExactly(tuple(orderResponse.getId(), "001", 2, registeredDateTime.plusMinutes(15)));
+    }
+
+    @DisplayName("결제가 완료되면 점유했던 재고가 최종 차감으로 확정된다.")
+    @Test
+    void completePayment() {
+        // given
+        Long orderId = createStockOrder();
+
+        // when
+        orderService.completePayment(orderId, LocalDateTime.now());
+
+        // then
+        assertThat(orderRepository.findById(orderId)).get()
+                .extracting("orderStatus")
+                .isEqualTo(OrderStatus.PAYMENT_COMPLETED);
+        assertThat(stockHoldRepository.findAll()).isEmpty();
+        assertThat(stockRepository.findAll())
+                .extracting("productNumber", "quantity")
+                .containsExactly(tuple("001", 0));
+    }
+
+    @DisplayName("결제에 실패하면 점유했던 재고를 되돌린다.")
+    @Test
+    void failPayment() {
+        // given
+        Long orderId = createStockOrder();
+
+        // when
+        orderService.failPayment(orderId);
+
+        // then
+        assertThat(orderRepository.findById(orderId)).get()
+                .extracting("orderStatus")
+                .isEqualTo(OrderStatus.PAYMENT_FAILED);
+        assertThat(stockHoldRepository.findAll()).isEmpty();
+        assertThat(stockRepository.findAll())
+                .extracting("productNumber", "quantity")
+                .containsExactly(tuple("001", 2));
+    }
+
+    @DisplayName("결제가 완료된 주문은 취소할 수 없고 재고도 되돌리지 않는다.")
+    @Test
+    void cancelOrderWithPaymentCompleted() {
+        // given
+        Long orderId = createStockOrder();
+        orderService.completePayment(orderId, LocalDateTime.now());
+
+        // when // then
+        assertThatThrownBy(() -> orderService.cancelOrder(orderId))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("결제 대기 중인 주문이 아닙니다.");
+        assertThat(stockRepository.findAll())
+                .extracting("productNumber", "quantity")
+                .containsExactly(tuple("001", 0));
+    }
+
+    @DisplayName("상품 10개를 주문해도 주문과 주문 상품은 batch insert 로 저장되어 실행하는 SQL 수가 늘어나지 않는다.")
+    @Test
+    void createOrderWithBatchInsert() {
+        // given
+        List<Product> products = IntStream.rangeClosed(1, 10)
+                .mapToObj(i -> createProduct(HANDMADE, String.format("%03d", i), 1000))
+                .collect(Collectors.toList());
+        productRepository.saveAll(products);
+
+        OrderCreateRequest request = OrderCreateRequest.builder()
+                .productNumbers(products.stream().map(Product::getProductNumber).collect(Collectors.toList()))
+                .build();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        // when
+        orderService.createOrder(request.toServiceRequest(), LocalDateTime.now());
+
+        // then
+        // 상품 조회 1 + 주문 insert 1 + 주문 상품 batch insert 1 + sequence 조회 최대 2
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(11);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(5);
+        statistics.setStatisticsEnabled(false);
+    }
+
+    private Long createStockOrder() {
+        productRepository.save(createProduct(BOTTLE, "001", 1000));
+        stockRepository.save(Stock.create("001", 2));
+
+        OrderCreateRequest request = OrderCreateRequest.builder()
+                .productNumbers(List.of("001", "001"))
+                .build();
+        return orderService.createOrder(request.toServiceRequest(), LocalDateTime.now()).getId();
+    }
+
     private Product createProduct(ProductType type, String productNumber, int price){
+        // 상품 등록 서비스를 거치지 않고 저장하므로, 등록 후 발행되는 상품 변경 이벤트를 필터에 직접 전달한다.
+        productNumberFilter.onProductChanged(new ProductChangedEvent(productNumber));
         return Product.builder()
                 .type(type)
                 .productNumber(productNumber)
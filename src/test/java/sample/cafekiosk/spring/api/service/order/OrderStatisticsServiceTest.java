@@ -9,6 +9,7 @@ import sample.cafekiosk.spring.IntegrationTestSupport;
 import sample.cafekiosk.spring.client.mail.MailSendClient;
 import sample.cafekiosk.spring.domain.histody.mail.MailSendHistory;
 import sample.cafekiosk.spring.domain.histody.mail.MailSendHistoryRepository;
+import sample.cafekiosk.spring.domain.order.DailySalesRepository;
 import sample.cafekiosk.spring.domain.order.Order;
 import sample.cafekiosk.spring.domain.order.OrderRepository;
 import sample.cafekiosk.spring.domain.order.OrderStatus;
@@ -44,6 +45,12 @@ class OrderStatisticsServiceTest extends IntegrationTestSupport {
     @Autowired
     private MailSendHistoryRepository mailSendHistoryRepository;
 
+    @Autowired
+    private DailySalesService dailySalesService;
+
+    @Autowired
+    private DailySalesRepository dailySalesRepository;
+
 
     @AfterEach
     void tearDown() {
@@ -51,6 +58,7 @@ class OrderStatisticsServiceTest extends IntegrationTestSupport {
         orderRepository.deleteAllInBatch();
         productRepository.deleteAllInBatch();
         mailSendHistoryRepository.deleteAllInBatch();
+        dailySalesRepository.deleteAllInBatch();
     }
 
     @DisplayName("결제 완료 주문들을 조회하여 매출 통계 메일을 전송한다.")
@@ -69,6 +77,8 @@ class OrderStatisticsServiceTest extends IntegrationTestSupport {
         Order order2 = createPaymentCompletedOrder(now, products);
         Order order3 = createPaymentCompletedOrder(LocalDateTime.of(2023,3,5,23,59,59), products);
         Order order4 = createPaymentCompletedOrder(LocalDateTime.of(2023,3,6,0,0), products);
+        // 결제 완료 처리를 거치지 않고 저장한 주문이므로 매출 집계를 주문에서 다시 계산해 둔다.
+        dailySalesService.backfill(LocalDate.of(2023, 3, 5));
 
         // MailSendClient 의 가짜 행동 정의
         // stubbing
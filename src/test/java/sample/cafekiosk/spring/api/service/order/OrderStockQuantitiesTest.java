@@ -0,0 +1,70 @@
+package sample.cafekiosk.spring.api.service.order;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import sample.cafekiosk.spring.domain.product.ProductSnapshot;
+import sample.cafekiosk.spring.domain.product.ProductType;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sample.cafekiosk.spring.domain.product.ProductType.BAKERY;
+import static sample.cafekiosk.spring.domain.product.ProductType.BOTTLE;
+import static sample.cafekiosk.spring.domain.product.ProductType.HANDMADE;
+
+class OrderStockQuantitiesTest {
+
+    @DisplayName("재고 관리 대상 상품만 상품번호 순으로 수량을 세고, 대상이 없으면 빈 map 을 돌려준다.")
+    @Test
+    void count() {
+        // given
+        List<ProductSnapshot> products = List.of(
+                createSnapshot(BAKERY, "003"),
+                createSnapshot(HANDMADE, "001"),
+                createSnapshot(BOTTLE, "002"),
+                createSnapshot(BAKERY, "003")
+        );
+
+        // when
+        Map<String, Integer> countingMap = count(products);
+        Map<String, Integer> emptyMap = count(products.subList(1, 2));
+
+        // then
+        assertThat(countingMap).containsExactly(entry("002", 1), entry("003", 2));
+        assertThat(countingMap.get("003")).isEqualTo(2);
+        assertThat(countingMap.get("001")).isNull();
+        assertThat(emptyMap).isEmpty();
+    }
+
+    @DisplayName("요청한 상품번호 순서대로, 중복까지 포함해서 상품을 나열한다.")
+    @Test
+    void toOrderedProducts() {
+        // given
+        ProductSnapshot americano = createSnapshot(HANDMADE, "001");
+        ProductSnapshot croissant = createSnapshot(BAKERY, "002");
+
+        // when
+        List<ProductSnapshot> products = OrderStockQuantities.toOrderedProducts(List.of("002", "001", "002"),
+                Map.of("001", americano, "002", croissant));
+
+        // then
+        assertThat(products).containsExactly(croissant, americano, croissant);
+    }
+
+    private Map<String, Integer> count(List<ProductSnapshot> products) {
+        return OrderStockQuantities.count(products, ProductSnapshot::getType, ProductSnapshot::getProductNumber);
+    }
+
+    private ProductSnapshot createSnapshot(ProductType type, String productNumber) {
+        return ProductSnapshot.builder()
+                .productNumber(productNumber)
+                .type(type)
+                .sellingStatus(SELLING)
+                .name("메뉴 이름")
+                .price(1000)
+                .build();
+    }
+}
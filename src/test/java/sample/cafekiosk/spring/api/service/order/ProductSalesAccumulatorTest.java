@@ -0,0 +1,56 @@
+package sample.cafekiosk.spring.api.service.order;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSalesAccumulatorTest {
+
+    @DisplayName("같은 상품 id 의 수량과 매출을 합친다.")
+    @Test
+    void add() {
+        // given
+        ProductSalesAccumulator accumulator = new ProductSalesAccumulator();
+
+        // when
+        accumulator.add(1L, 2, 1000);
+        accumulator.add(2L, 1, 3000);
+        accumulator.add(1L, 1, 1500);
+
+        // then
+        assertThat(accumulator.size()).isEqualTo(2);
+        assertThat(accumulator.productIdAt(0)).isEqualTo(1L);
+        assertThat(accumulator.quantityAt(0)).isEqualTo(3);
+        assertThat(accumulator.amountAt(0)).isEqualTo(3500);
+        assertThat(accumulator.productIdAt(1)).isEqualTo(2L);
+        assertThat(accumulator.amountAt(1)).isEqualTo(3000);
+    }
+
+    @DisplayName("상품 종류가 처음 크기를 넘어도 집계가 유지된다.")
+    @Test
+    void addBeyondInitialCapacity() {
+        // given
+        ProductSalesAccumulator accumulator = new ProductSalesAccumulator();
+
+        // when
+        for (int round = 0; round < 3; round++) {
+            for (long productId = 1; productId <= 1000; productId++) {
+                accumulator.add(productId * 64, 1, 100);
+            }
+        }
+
+        // then
+        assertThat(accumulator.size()).isEqualTo(1000);
+        Map<Long, Long> amounts = new HashMap<>();
+        for (int index = 0; index < accumulator.size(); index++) {
+            amounts.put(accumulator.productIdAt(index), accumulator.amountAt(index));
+        }
+        assertThat(amounts).hasSize(1000)
+                .containsEntry(64L, 300L)
+                .containsEntry(64_000L, 300L);
+    }
+}
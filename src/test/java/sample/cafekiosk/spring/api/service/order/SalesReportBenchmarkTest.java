@@ -0,0 +1,160 @@
+package sample.cafekiosk.spring.api.service.order;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import sample.cafekiosk.spring.IntegrationTestSupport;
+import sample.cafekiosk.spring.api.service.order.response.SalesReportResponse;
+import sample.cafekiosk.spring.domain.order.OrderRepository;
+import sample.cafekiosk.spring.domain.order.OrderSalesJdbcRepository;
+import sample.cafekiosk.spring.domain.order.OrderStatus;
+import sample.cafekiosk.spring.domain.orderproduct.OrderProductRepository;
+import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductRepository;
+import sample.cafekiosk.spring.domain.product.ProductType;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+
+/**
+ * 분기(90일) 매출 리포트를 한 번에 조회할 때와 일/주 단위 구간으로 나눠 동시에 조회할 때의 소요 시간을 비교한다.
+ * ./gradlew benchmark 로 실행
+ */
+@Tag("benchmark")
+class SalesReportBenchmarkTest extends IntegrationTestSupport {
+
+    private static final LocalDate START_DATE = LocalDate.of(2023, 1, 1);
+    private static final int DAYS = 90;
+    private static final int ORDERS_PER_DAY = 500;
+    private static final int PRODUCT_COUNT = 30;
+    private static final int ROUNDS = 5;
+
+    // 테스트 중 sequence 로 만들어지는 id 와 겹치지 않는 범위
+    private static final long SEED_ID_OFFSET = 1_000_000_000L;
+
+    @Autowired
+    private OrderSalesJdbcRepository orderSalesJdbcRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderProductRepository orderProductRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            products.add(Product.builder()
+                    .type(ProductType.values()[i % ProductType.values().length])
+                    .productNumber(String.format("%03d", i + 1))
+                    .price(1000 + i * 100)
+                    .sellingStatus(SELLING)
+                    .name("메뉴 이름")
+                    .build());
+        }
+        productRepository.saveAll(products);
+        seedOrders(products);
+
+        // H2 는 같은 조회를 같은 파라미터로 다시 실행하면 이전 결과를 재사용하므로, 매번 실제로 조회하도록 끈다.
+        jdbcTemplate.execute("SET OPTIMIZE_REUSE_RESULTS 0");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SET OPTIMIZE_REUSE_RESULTS 1");
+        orderProductRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("90일 매출 리포트를 구간으로 나눠 동시에 조회한 시간을 한 번에 조회한 시간과 비교하고, 결과가 같은지 확인한다.")
+    @ParameterizedTest(name = "parallelism={0} / partitionDays={1}")
+    @CsvSource({
+            "2,1", "4,1", "8,1",
+            "4,7"
+    })
+    void partitionedScan(int parallelism, int partitionDays) {
+        // given
+        SalesReportService serialService = new SalesReportService(orderSalesJdbcRepository, productRepository,
+                transactionManager, 1, 1);
+        SalesReportService partitionedService = new SalesReportService(orderSalesJdbcRepository, productRepository,
+                transactionManager, parallelism, partitionDays);
+        LocalDate endDate = START_DATE.plusDays(DAYS - 1);
+
+        try {
+            // when
+            long serialNanos = bestOf(() -> serialService.getSalesReport(START_DATE, endDate));
+            long partitionedNanos = bestOf(() -> partitionedService.getSalesReport(START_DATE, endDate));
+
+            // then
+            System.out.printf("[sales-report] lines=%d serial=%7.1fms parallelism=%d partitionDays=%d partitioned=%7.1fms speedup=%.2fx%n",
+                    DAYS * ORDERS_PER_DAY * 2, serialNanos / 1_000_000.0, parallelism, partitionDays,
+                    partitionedNanos / 1_000_000.0, (double) serialNanos / partitionedNanos);
+
+            SalesReportResponse serial = serialService.getSalesReport(START_DATE, endDate);
+            SalesReportResponse partitioned = partitionedService.getSalesReport(START_DATE, endDate);
+            assertThat(partitioned.getTotalQuantity()).isEqualTo(serial.getTotalQuantity()).isEqualTo(DAYS * ORDERS_PER_DAY * 3L);
+            assertThat(partitioned.getTotalAmount()).isEqualTo(serial.getTotalAmount());
+            assertThat(partitioned.getProducts()).usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyElementsOf(serial.getProducts());
+        } finally {
+            serialService.destroy();
+            partitionedService.destroy();
+        }
+    }
+
+    private long bestOf(Runnable report) {
+        report.run(); // warm up
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long startedAt = System.nanoTime();
+            report.run();
+            best = Math.min(best, System.nanoTime() - startedAt);
+        }
+        return best;
+    }
+
+    // 엔티티를 거치지 않고 주문마다 상품 두 종류(수량 1, 2)를 JDBC batch 로 넣는다.
+    private void seedOrders(List<Product> products) {
+        List<Object[]> orders = new ArrayList<>();
+        List<Object[]> orderProducts = new ArrayList<>();
+        long orderId = SEED_ID_OFFSET;
+        for (int day = 0; day < DAYS; day++) {
+            for (int i = 0; i < ORDERS_PER_DAY; i++) {
+                Product first = products.get((day + i) % PRODUCT_COUNT);
+                Product second = products.get((day + i + 1) % PRODUCT_COUNT);
+                Timestamp registeredDateTime = Timestamp.valueOf(START_DATE.plusDays(day).atStartOfDay().plusSeconds(i * 60L));
+
+                orders.add(new Object[]{orderId, OrderStatus.PAYMENT_COMPLETED.name(),
+                        first.getPrice() + second.getPrice() * 2, registeredDateTime});
+                orderProducts.add(new Object[]{orderId * 2, orderId, first.getId(), 1, first.getPrice()});
+                orderProducts.add(new Object[]{orderId * 2 + 1, orderId, second.getId(), 2, second.getPrice()});
+                orderId++;
+            }
+        }
+
+        jdbcTemplate.batchUpdate("insert into orders (id, order_status, total_price, registered_date_time) values (?, ?, ?, ?)", orders);
+        jdbcTemplate.batchUpdate("insert into order_product (id, order_id, product_id, quantity, unit_price) values (?, ?, ?, ?, ?)", orderProducts);
+    }
+}
@@ -0,0 +1,200 @@
+package sample.cafekiosk.spring.api.service.order;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import sample.cafekiosk.spring.IntegrationTestSupport;
+import sample.cafekiosk.spring.api.service.order.response.SalesReportResponse;
+import sample.cafekiosk.spring.domain.order.Order;
+import sample.cafekiosk.spring.domain.order.OrderRepository;
+import sample.cafekiosk.spring.domain.order.OrderSalesJdbcRepository;
+import sample.cafekiosk.spring.domain.order.OrderStatus;
+import sample.cafekiosk.spring.domain.orderproduct.OrderProductRepository;
+import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductRepository;
+import sample.cafekiosk.spring.domain.product.ProductType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sample.cafekiosk.spring.domain.product.ProductType.BAKERY;
+import static sample.cafekiosk.spring.domain.product.ProductType.BOTTLE;
+import static sample.cafekiosk.spring.domain.product.ProductType.HANDMADE;
+
+class SalesReportServiceTest extends IntegrationTestSupport {
+
+    @Autowired
+    private SalesReportService salesReportService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderProductRepository orderProductRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderSalesJdbcRepository orderSalesJdbcRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        orderProductRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("기간 동안 결제 완료된 주문의 매출을 상품별, 상품 타입별로 집계한다.")
+    @Test
+    void getSalesReport() {
+        // given
+        Product product1 = createProduct(HANDMADE, "001", 1000);
+        Product product2 = createProduct(HANDMADE, "002", 3000);
+        Product product3 = createProduct(BAKERY, "003", 5000);
+        productRepository.saveAll(List.of(product1, product2, product3));
+
+        orderRepository.saveAll(List.of(
+                // 경계값
+                createOrder(OrderStatus.PAYMENT_COMPLETED, LocalDateTime.of(2023, 3, 4, 23, 59, 59), List.of(product1)),
+                createOrder(OrderStatus.PAYMENT_COMPLETED, LocalDateTime.of(2023, 3, 5, 0, 0), List.of(product1, product1, product3)),
+                createOrder(OrderStatus.PAYMENT_COMPLETED, LocalDateTime.of(2023, 3, 6, 23, 59, 59), List.of(product1, product2)),
+                createOrder(OrderStatus.PAYMENT_COMPLETED, LocalDateTime.of(2023, 3, 7, 0, 0), List.of(product2)),
+                // 결제 완료가 아닌 주문
+                createOrder(OrderStatus.CANCEL, LocalDateTime.of(2023, 3, 5, 12, 0), List.of(product3))
+        ));
+
+        // when
+        SalesReportResponse report = salesReportService.getSalesReport(LocalDate.of(2023, 3, 5), LocalDate.of(2023, 3, 6));
+
+        // then
+        assertThat(report.getTotalQuantity()).isEqualTo(5);
+        assertThat(report.getTotalAmount()).isEqualTo(11000);
+        assertThat(report.getProducts())
+                .extracting("productNumber", "type", "quantity", "amount")
+                .containsExactly(
+                        tuple("001", HANDMADE, 3L, 3000L),
+                        tuple("002", HANDMADE, 1L, 3000L),
+                        tuple("003", BAKERY, 1L, 5000L)
+                );
+        assertThat(report.getTypes())
+                .extracting("type", "quantity", "amount")
+                .containsExactly(
+                        tuple(HANDMADE, 4L, 6000L),
+                        tuple(BAKERY, 1L, 5000L)
+                );
+    }
+
+    @DisplayName("기간을 여러 구간으로 나눠 조회해도 한 번에 조회한 것과 같은 매출을 집계한다.")
+    @Test
+    void getSalesReportWithPartitions() {
+        // given
+        Product product1 = createProduct(HANDMADE, "001", 1000);
+        Product product2 = createProduct(BAKERY, "002", 3000);
+        productRepository.saveAll(List.of(product1, product2));
+
+        LocalDate startDate = LocalDate.of(2023, 3, 1);
+        for (int day = 0; day < 10; day++) {
+            orderRepository.saveAll(List.of(
+                    createOrder(OrderStatus.PAYMENT_COMPLETED, startDate.plusDays(day).atStartOfDay(), List.of(product1)),
+                    createOrder(OrderStatus.PAYMENT_COMPLETED, startDate.plusDays(day).atTime(23, 59, 59), List.of(product1, product2))
+            ));
+        }
+
+        SalesReportService serialService = new SalesReportService(orderSalesJdbcRepository, productRepository,
+                transactionManager, 1, 1);
+        SalesReportService partitionedService = new SalesReportService(orderSalesJdbcRepository, productRepository,
+                transactionManager, 3, 3);
+
+        try {
+            // when
+            SalesReportResponse serial = serialService.getSalesReport(startDate, startDate.plusDays(8));
+            SalesReportResponse partitioned = partitionedService.getSalesReport(startDate, startDate.plusDays(8));
+
+            // then
+            assertThat(partitioned.getTotalQuantity()).isEqualTo(serial.getTotalQuantity()).isEqualTo(27);
+            assertThat(partitioned.getTotalAmount()).isEqualTo(serial.getTotalAmount()).isEqualTo(45000);
+            assertThat(partitioned.getProducts())
+                    .extracting("productNumber", "quantity", "amount")
+                    .containsExactly(
+                            tuple("001", 18L, 18000L),
+                            tuple("002", 9L, 27000L)
+                    );
+        } finally {
+            serialService.destroy();
+            partitionedService.destroy();
+        }
+    }
+
+    @DisplayName("주문 시점의 가격으로 매출을 계산한다.")
+    @Test
+    void getSalesReportWithOrderedPrice() {
+        // given
+        Product product = createProduct(BOTTLE, "001", 1000);
+        productRepository.save(product);
+        orderRepository.save(createOrder(OrderStatus.PAYMENT_COMPLETED, LocalDateTime.of(2023, 3, 5, 12, 0), List.of(product)));
+
+        jdbcTemplate.update("update product set price = 2000 where product_number = '001'");
+
+        // when
+        SalesReportResponse report = salesReportService.getSalesReport(LocalDate.of(2023, 3, 5), LocalDate.of(2023, 3, 5));
+
+        // then
+        assertThat(report.getProducts())
+                .extracting("productNumber", "amount")
+                .containsExactly(tuple("001", 1000L));
+    }
+
+    @DisplayName("기간 동안 결제 완료된 주문이 없으면 빈 리포트를 돌려준다.")
+    @Test
+    void getSalesReportWithoutOrders() {
+        // when
+        SalesReportResponse report = salesReportService.getSalesReport(LocalDate.of(2023, 3, 5), LocalDate.of(2023, 3, 5));
+
+        // then
+        assertThat(report.getTotalAmount()).isZero();
+        assertThat(report.getProducts()).isEmpty();
+        assertThat(report.getTypes()).isEmpty();
+    }
+
+    @DisplayName("조회 종료일이 시작일보다 빠르면 예외가 발생한다.")
+    @Test
+    void getSalesReportWithInvalidRange() {
+        // when // then
+        assertThatThrownBy(() -> salesReportService.getSalesReport(LocalDate.of(2023, 3, 5), LocalDate.of(2023, 3, 4)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("조회 종료일은 시작일보다 빠를 수 없습니다.");
+    }
+
+    private Order createOrder(OrderStatus orderStatus, LocalDateTime registeredDateTime, List<Product> products) {
+        return Order.builder()
+                .products(products)
+                .orderStatus(orderStatus)
+                .registeredDateTime(registeredDateTime)
+                .build();
+    }
+
+    private Product createProduct(ProductType type, String productNumber, int price) {
+        return Product.builder()
+                .type(type)
+                .productNumber(productNumber)
+                .price(price)
+                .sellingStatus(SELLING)
+                .name("메뉴 이름")
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+package sample.cafekiosk.spring.api.service.product;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import sample.cafekiosk.spring.IntegrationTestSupport;
+import sample.cafekiosk.spring.api.service.product.response.ProductResponse;
+import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sample.cafekiosk.spring.domain.product.ProductType.HANDMADE;
+
+class ProductCatalogCacheTest extends IntegrationTestSupport {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("같은 버전을 동시에 조회하면 DB 는 한 번만 읽고 모두 같은 목록을 받는다.")
+    @Test
+    void getSellingProductsConcurrently() throws Exception {
+        // given
+        productRepository.save(createProduct("001"));
+        ProductCatalogCache cache = new ProductCatalogCache(productRepository, Duration.ofMinutes(10));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+
+        // when
+        List<Future<List<ProductResponse>>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                return cache.getSellingProducts();
+            }));
+        }
+        start.countDown();
+
+        List<List<ProductResponse>> results = new ArrayList<>();
+        for (Future<List<ProductResponse>> future : futures) {
+            results.add(future.get());
+        }
+        executorService.shutdown();
+
+        // then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(results).allSatisfy(result -> assertThat(result).isSameAs(results.get(0)));
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @DisplayName("버전을 올리기 전까지는 DB 가 바뀌어도 들고 있던 목록을 돌려준다.")
+    @Test
+    void invalidate() {
+        // given
+        productRepository.save(createProduct("001"));
+        ProductCatalogCache cache = new ProductCatalogCache(productRepository, Duration.ofMinutes(10));
+        cache.getSellingProducts();
+        productRepository.save(createProduct("002"));
+
+        // when
+        List<ProductResponse> cached = cache.getSellingProducts();
+        cache.invalidate();
+        List<ProductResponse> reloaded = cache.getSellingProducts();
+
+        // then
+        assertThat(cached).extracting("productNumber").containsExactly("001");
+        assertThat(reloaded).extracting("productNumber").containsExactlyInAnyOrder("001", "002");
+        assertThat(cache.getVersion()).isEqualTo(1);
+    }
+
+    @DisplayName("캐시된 목록은 수정할 수 없다.")
+    @Test
+    void getSellingProductsIsUnmodifiable() {
+        // given
+        productRepository.save(createProduct("001"));
+        ProductCatalogCache cache = new ProductCatalogCache(productRepository, Duration.ofMinutes(10));
+
+        // when
+        List<ProductResponse> products = cache.getSellingProducts();
+
+        // then
+        assertThatThrownBy(products::clear)
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private Product createProduct(String productNumber) {
+        return Product.builder()
+                .type(HANDMADE)
+                .productNumber(productNumber)
+                .price(4000)
+                .sellingStatus(SELLING)
+                .name("아메리카노")
+                .build();
+    }
+}
@@ -0,0 +1,148 @@
+package sample.cafekiosk.spring.api.service.product;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import sample.cafekiosk.spring.IntegrationTestSupport;
+import sample.cafekiosk.spring.api.service.product.response.ProductChangesResponse;
+import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductRepository;
+import sample.cafekiosk.spring.domain.product.ProductSellingStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.STOP_SELLING;
+import static sample.cafekiosk.spring.domain.product.ProductType.HANDMADE;
+
+class ProductChangeServiceTest extends IntegrationTestSupport {
+
+    @Autowired
+    private ProductChangeService productChangeService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("cursor 없이 조회하면 판매중지 상품을 포함한 전체 상품과 다음 cursor 를 돌려준다.")
+    @Test
+    void getChangesWithoutCursor() {
+        // given
+        productRepository.saveAll(List.of(
+                createProduct("001", SELLING),
+                createProduct("002", STOP_SELLING)
+        ));
+
+        // when
+        ProductChangesResponse response = productChangeService.getChanges(null, settledNow());
+
+        // then
+        assertThat(response.getProducts()).hasSize(2)
+                .extracting("productNumber", "sellingStatus")
+                .containsExactlyInAnyOrder(
+                        tuple("001", SELLING),
+                        tuple("002", STOP_SELLING)
+                );
+        assertThat(response.getCursor()).isNotBlank();
+        assertThat(response.isHasMore()).isFalse();
+    }
+
+    @DisplayName("cursor 이후에 바뀐 상품만 돌려주고, 바뀐 게 없으면 같은 cursor 를 돌려준다.")
+    @Test
+    void getChangesSinceCursor() {
+        // given
+        productRepository.saveAll(List.of(
+                createProduct("001", SELLING),
+                createProduct("002", SELLING)
+        ));
+        String cursor = productChangeService.getChanges(null, settledNow()).getCursor();
+
+        ProductChangesResponse unchanged = productChangeService.getChanges(cursor, settledNow());
+        productService.changeSellingStatus("001", STOP_SELLING);
+
+        // when
+        ProductChangesResponse changed = productChangeService.getChanges(cursor, settledNow());
+
+        // then
+        assertThat(unchanged.getProducts()).isEmpty();
+        assertThat(unchanged.getCursor()).isEqualTo(cursor);
+        assertThat(changed.getProducts())
+                .extracting("productNumber", "sellingStatus")
+                .containsExactly(tuple("001", STOP_SELLING));
+    }
+
+    @DisplayName("변경이 page-size 보다 많으면 나눠서 내려주고 hasMore 로 알린다.")
+    @Test
+    void getChangesWithPaging() {
+        // given
+        productRepository.saveAll(List.of(
+                createProduct("001", SELLING),
+                createProduct("002", SELLING),
+                createProduct("003", SELLING)
+        ));
+        ProductChangeService pagedService = new ProductChangeService(productRepository, 2, Duration.ofSeconds(2));
+
+        // when
+        ProductChangesResponse first = pagedService.getChanges(null, settledNow());
+        ProductChangesResponse second = pagedService.getChanges(first.getCursor(), settledNow());
+
+        // then
+        assertThat(first.getProducts()).hasSize(2);
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(second.getProducts()).hasSize(1);
+        assertThat(second.isHasMore()).isFalse();
+        assertThat(List.of(first.getProducts().get(0), first.getProducts().get(1), second.getProducts().get(0)))
+                .extracting("productNumber")
+                .containsExactlyInAnyOrder("001", "002", "003");
+    }
+
+    @DisplayName("settle-lag 안쪽의 최근 변경은 아직 내려주지 않는다.")
+    @Test
+    void getChangesWithinSettleLag() {
+        // given
+        productRepository.save(createProduct("001", SELLING));
+
+        // when
+        ProductChangesResponse response = productChangeService.getChanges(null, LocalDateTime.now());
+
+        // then
+        assertThat(response.getProducts()).isEmpty();
+    }
+
+    @DisplayName("잘못된 cursor 로는 조회할 수 없다.")
+    @Test
+    void getChangesWithInvalidCursor() {
+        // when // then
+        assertThatThrownBy(() -> productChangeService.getChanges("not-a-cursor", settledNow()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("잘못된 cursor 입니다.");
+    }
+
+    // settle-lag 가 지난 시점
+    private LocalDateTime settledNow() {
+        return LocalDateTime.now().plusSeconds(10);
+    }
+
+    private Product createProduct(String productNumber, ProductSellingStatus sellingStatus) {
+        return Product.builder()
+                .type(HANDMADE)
+                .productNumber(productNumber)
+                .price(4000)
+                .sellingStatus(sellingStatus)
+                .name("메뉴 이름")
+                .build();
+    }
+}
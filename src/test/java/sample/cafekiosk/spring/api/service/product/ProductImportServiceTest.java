@@ -0,0 +1,166 @@
+package sample.cafekiosk.spring.api.service.product;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sample.cafekiosk.spring.IntegrationTestSupport;
+import sample.cafekiosk.spring.api.service.product.request.ProductImportServiceRequest;
+import sample.cafekiosk.spring.api.service.product.response.ProductImportResponse;
+import sample.cafekiosk.spring.domain.product.ProductChangedEvent;
+import sample.cafekiosk.spring.domain.product.ProductNumberCounterRepository;
+import sample.cafekiosk.spring.domain.product.ProductRepository;
+import sample.cafekiosk.spring.domain.product.ProductType;
+import sample.cafekiosk.spring.domain.stock.StockRepository;
+
+import javax.persistence.EntityManager;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sample.cafekiosk.spring.domain.product.ProductType.BOTTLE;
+import static sample.cafekiosk.spring.domain.product.ProductType.HANDMADE;
+
+@RecordApplicationEvents
+class ProductImportServiceTest extends IntegrationTestSupport {
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private ProductNumberCounterRepository productNumberCounterRepository;
+
+    @Autowired
+    private ProductCatalogCache productCatalogCache;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllInBatch();
+        stockRepository.deleteAllInBatch();
+        productNumberCounterRepository.deleteAllInBatch();
+        productCatalogCache.invalidate();
+    }
+
+    @DisplayName("상품을 대량 등록하고, 재고 관리 대상 상품은 재고도 함께 만든다.")
+    @Test
+    void importProducts() {
+        // given
+        Iterator<ProductImportServiceRequest> requests = List.of(
+                createRequest(HANDMADE, "아메리카노", 0),
+                createRequest(BOTTLE, "생수", 10)
+        ).iterator();
+
+        // when
+        ProductImportService service = createImportService(500);
+        ProductImportResponse response = new TransactionTemplate(transactionManager)
+                .execute(status -> service.importProducts(requests));
+
+        // then
+        assertThat(response.getImportedCount()).isEqualTo(2);
+        assertThat(response.getStockCount()).isEqualTo(1);
+        assertThat(productRepository.findAll()).hasSize(2)
+                .extracting("productNumber", "type", "name")
+                .containsExactlyInAnyOrder(
+                        tuple("001", HANDMADE, "아메리카노"),
+                        tuple("002", BOTTLE, "생수")
+                );
+        assertThat(stockRepository.findAll()).hasSize(1)
+                .extracting("productNumber", "quantity")
+                .containsExactly(tuple("002", 10));
+    }
+
+    @DisplayName("batchSize 개씩 나눠서 저장하고, batch 마다 상품 변경 이벤트를 하나씩 발행한다.")
+    @Test
+    void importProductsInBatches() {
+        // given
+        ProductImportService service = createImportService(2);
+        Iterator<ProductImportServiceRequest> requests = IntStream.rangeClosed(1, 5)
+                .mapToObj(i -> createRequest(HANDMADE, "음료" + i, 0))
+                .collect(Collectors.toList())
+                .iterator();
+
+        // when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> service.importProducts(requests));
+
+        // then
+        assertThat(productRepository.count()).isEqualTo(5);
+        assertThat(events.stream(ProductChangedEvent.class))
+                .extracting(ProductChangedEvent::getProductNumbers)
+                .containsExactly(List.of("001", "002"), List.of("003", "004"), List.of("005"));
+    }
+
+    @DisplayName("중간에 잘못된 요청이 있으면 아무 상품도 등록되지 않는다.")
+    @Test
+    void importProductsWithInvalidRow() {
+        // given
+        List<ProductImportServiceRequest> rows = List.of(createRequest(HANDMADE, "아메리카노", 0));
+        Iterator<ProductImportServiceRequest> requests = new Iterator<>() {
+            private final Iterator<ProductImportServiceRequest> delegate = rows.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public ProductImportServiceRequest next() {
+                if (delegate.hasNext()) {
+                    return delegate.next();
+                }
+                throw new IllegalArgumentException("2번째 줄: 상품 이름은 필수입니다.");
+            }
+        };
+
+        // when // then
+        assertThatThrownBy(() -> productImportService.importProducts(requests))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("2번째 줄: 상품 이름은 필수입니다.");
+        assertThat(productRepository.findAll()).isEmpty();
+    }
+
+    // 빈으로 등록된 할당기는 앞선 테스트에서 예약해 둔 번호를 이어서 나눠주므로, 번호를 확인하는 테스트는 새 할당기로 등록한다.
+    private ProductImportService createImportService(int batchSize) {
+        ProductNumberAllocator productNumberAllocator = new ProductNumberAllocator(productNumberCounterRepository,
+                productRepository, entityManager, transactionManager, 50);
+        return new ProductImportService(productRepository, stockRepository, productNumberAllocator,
+                entityManager, eventPublisher, batchSize);
+    }
+
+    private ProductImportServiceRequest createRequest(ProductType type, String name, int stockQuantity) {
+        return ProductImportServiceRequest.builder()
+                .type(type)
+                .sellingStatus(SELLING)
+                .name(name)
+                .price(1000)
+                .stockQuantity(stockQuantity)
+                .build();
+    }
+}
@@ -0,0 +1,208 @@
+package sample.cafekiosk.spring.api.service.product;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sample.cafekiosk.spring.IntegrationTestSupport;
+import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductRepository;
+import sample.cafekiosk.spring.domain.product.ProductSnapshot;
+import sample.cafekiosk.spring.domain.product.ProductType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sample.cafekiosk.spring.domain.product.ProductType.HANDMADE;
+
+class ProductLookupBatcherTest extends IntegrationTestSupport {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ProductLookupBatcher batcher;
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) {
+            batcher.stop();
+        }
+        productRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("동시에 들어온 상품 조회는 하나의 IN 쿼리로 묶고, 요청마다 자기 상품만 돌려준다.")
+    @Test
+    void findAllByProductNumberInConcurrently() throws Exception {
+        // given
+        int threads = 8;
+        List<Product> products = new ArrayList<>();
+        for (int i = 1; i <= threads; i++) {
+            products.add(createProduct(HANDMADE, String.format("%03d", i), 1000 * i));
+        }
+        productRepository.saveAll(products);
+
+        batcher = new ProductLookupBatcher(productRepository, dataSourceProperties,
+                true, Duration.ofMillis(200), 100, Duration.ofSeconds(10));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        batcher.bindTo(registry);
+        batcher.start();
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+
+        // when
+        List<Future<List<ProductSnapshot>>> futures = new ArrayList<>();
+        for (int i = 1; i <= threads; i++) {
+            String productNumber = String.format("%03d", i);
+            futures.add(executorService.submit(() -> {
+                start.await();
+                return batcher.findAllByProductNumberIn(List.of(productNumber, "999"));
+            }));
+        }
+        start.countDown();
+
+        List<List<ProductSnapshot>> results = new ArrayList<>();
+        for (Future<List<ProductSnapshot>> future : futures) {
+            results.add(future.get());
+        }
+        executorService.shutdown();
+
+        // then
+        for (int i = 0; i < threads; i++) {
+            assertThat(results.get(i)).extracting("productNumber")
+                    .containsExactly(String.format("%03d", i + 1));
+        }
+        assertThat(registry.get("cafekiosk.product.lookup-batch.fill-ratio").summary().count()).isEqualTo(1);
+        assertThat(registry.get("cafekiosk.product.lookup-batch.fill-ratio").summary().max()).isEqualTo(0.09);
+    }
+
+    @DisplayName("모인 상품번호가 max-keys 에 도달하면 window 를 기다리지 않고 바로 조회한다.")
+    @Test
+    void findAllByProductNumberInWithMaxKeys() {
+        // given
+        productRepository.saveAll(List.of(
+                createProduct(HANDMADE, "001", 1000),
+                createProduct(HANDMADE, "002", 2000)
+        ));
+
+        batcher = new ProductLookupBatcher(productRepository, dataSourceProperties,
+                true, Duration.ofSeconds(30), 2, Duration.ofSeconds(30));
+        batcher.start();
+
+        // when
+        long startedAt = System.nanoTime();
+        List<ProductSnapshot> products = batcher.findAllByProductNumberIn(List.of("001", "002"));
+
+        // then
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofSeconds(10));
+        assertThat(products).extracting("productNumber").containsExactly("001", "002");
+    }
+
+    @DisplayName("묶어서 조회하지 않도록 설정하면 호출한 스레드에서 바로 조회한다.")
+    @Test
+    void findAllByProductNumberInWithoutBatching() {
+        // given
+        productRepository.save(createProduct(HANDMADE, "001", 1000));
+
+        batcher = new ProductLookupBatcher(productRepository, dataSourceProperties,
+                false, Duration.ofMillis(1), 100, Duration.ofMillis(100));
+        batcher.start();
+
+        // when
+        List<ProductSnapshot> products = batcher.findAllByProductNumberIn(List.of("001", "002"));
+
+        // then
+        assertThat(batcher.isRunning()).isFalse();
+        assertThat(products).extracting("productNumber").containsExactly("001");
+    }
+
+    @DisplayName("묶음 조회가 timeout 안에 끝나지 않으면 호출한 스레드에서 직접 조회한다.")
+    @Test
+    void findAllByProductNumberInWithTimeout() {
+        // given
+        productRepository.save(createProduct(HANDMADE, "001", 1000));
+
+        batcher = new ProductLookupBatcher(productRepository, dataSourceProperties,
+                true, Duration.ofSeconds(30), 100, Duration.ofMillis(50));
+        batcher.start();
+
+        // when
+        long startedAt = System.nanoTime();
+        List<ProductSnapshot> products = batcher.findAllByProductNumberIn(List.of("001", "002"));
+
+        // then
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofSeconds(10));
+        assertThat(products).extracting("productNumber").containsExactly("001");
+    }
+
+    @DisplayName("커넥션 풀의 커넥션을 모두 잡은 트랜잭션들이 동시에 기다려도 전용 커넥션으로 묶어서 조회한다.")
+    @Test
+    void findAllByProductNumberInWhileHoldingAllConnections() throws Exception {
+        // given
+        productRepository.save(createProduct(HANDMADE, "001", 1000));
+        int threads = 10; // Hikari 기본 maximumPoolSize
+
+        batcher = new ProductLookupBatcher(productRepository, dataSourceProperties,
+                true, Duration.ofMillis(200), 100, Duration.ofSeconds(20));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        batcher.bindTo(registry);
+        batcher.start();
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        CountDownLatch connected = new CountDownLatch(threads);
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+
+        // when
+        List<Future<List<ProductSnapshot>>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executorService.submit(() -> transactionTemplate.execute(status -> {
+                productRepository.count(); // 트랜잭션에 커넥션을 묶어 둔다.
+                connected.countDown();
+                try {
+                    connected.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return batcher.findAllByProductNumberIn(List.of("001"));
+            })));
+        }
+
+        List<List<ProductSnapshot>> results = new ArrayList<>();
+        for (Future<List<ProductSnapshot>> future : futures) {
+            results.add(future.get());
+        }
+        executorService.shutdown();
+
+        // then
+        assertThat(results).allSatisfy(products ->
+                assertThat(products).extracting("productNumber").containsExactly("001"));
+        assertThat(registry.get("cafekiosk.product.lookup-batch.fill-ratio").summary().count()).isEqualTo(1);
+    }
+
+    private Product createProduct(ProductType type, String productNumber, int price) {
+        return Product.builder()
+                .type(type)
+                .productNumber(productNumber)
+                .price(price)
+                .sellingStatus(SELLING)
+                .name("메뉴 이름")
+                .build();
+    }
+}
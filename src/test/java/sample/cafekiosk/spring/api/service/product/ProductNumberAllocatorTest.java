@@ -0,0 +1,153 @@
+package sample.cafekiosk.spring.api.service.product;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import sample.cafekiosk.spring.IntegrationTestSupport;
+import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductNumberCounter;
+import sample.cafekiosk.spring.domain.product.ProductNumberCounterRepository;
+import sample.cafekiosk.spring.domain.product.ProductRepository;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sample.cafekiosk.spring.domain.product.ProductType.HANDMADE;
+
+class ProductNumberAllocatorTest extends IntegrationTestSupport {
+
+    @Autowired
+    private ProductNumberCounterRepository productNumberCounterRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllInBatch();
+        productNumberCounterRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("카운터가 없으면 기존 상품번호 중 가장 큰 번호 다음부터 나눠준다.")
+    @Test
+    void allocateAfterExistingProducts() {
+        // given
+        productRepository.save(createProduct("007"));
+        ProductNumberAllocator allocator = createAllocator(10);
+
+        // when
+        String first = allocator.allocate();
+        String second = allocator.allocate();
+
+        // then
+        assertThat(first).isEqualTo("008");
+        assertThat(second).isEqualTo("009");
+    }
+
+    @DisplayName("예약한 블록을 다 쓰기 전에는 카운터를 다시 갱신하지 않는다.")
+    @Test
+    void allocateWithinBlock() {
+        // given
+        ProductNumberAllocator allocator = createAllocator(10);
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            allocator.allocate();
+        }
+        long afterFirstBlock = currentNextValue();
+        String eleventh = allocator.allocate();
+
+        // then
+        assertThat(afterFirstBlock).isEqualTo(11);
+        assertThat(eleventh).isEqualTo("011");
+        assertThat(currentNextValue()).isEqualTo(21);
+    }
+
+    @DisplayName("999 를 넘어가면 자릿수를 늘려 상품번호를 만든다.")
+    @Test
+    void allocateBeyondThreeDigits() {
+        // given
+        productNumberCounterRepository.save(ProductNumberCounter.startFrom(999));
+        ProductNumberAllocator allocator = createAllocator(10);
+
+        // when
+        String first = allocator.allocate();
+        String second = allocator.allocate();
+
+        // then
+        assertThat(first).isEqualTo("999");
+        assertThat(second).isEqualTo("1000");
+    }
+
+    @DisplayName("여러 서버가 동시에 상품번호를 받아가도 번호가 겹치지 않는다.")
+    @Test
+    void allocateConcurrently() throws Exception {
+        // given
+        int threads = 8;
+        int allocationsPerThread = 100;
+        List<ProductNumberAllocator> allocators = List.of(createAllocator(7), createAllocator(7));
+        Set<String> productNumbers = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+
+        // when
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            ProductNumberAllocator allocator = allocators.get(i % allocators.size());
+            futures.add(executorService.submit(() -> {
+                start.await();
+                for (int j = 0; j < allocationsPerThread; j++) {
+                    productNumbers.add(allocator.allocate());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+
+        // then
+        assertThat(productNumbers).hasSize(threads * allocationsPerThread);
+    }
+
+    private ProductNumberAllocator createAllocator(int blockSize) {
+        return new ProductNumberAllocator(productNumberCounterRepository, productRepository, entityManager, transactionManager, blockSize);
+    }
+
+    private long currentNextValue() {
+        return productNumberCounterRepository.findById(ProductNumberCounter.singletonId())
+                .map(ProductNumberCounter::getNextValue)
+                .orElseThrow();
+    }
+
+    private Product createProduct(String productNumber) {
+        return Product.builder()
+                .productNumber(productNumber)
+                .type(HANDMADE)
+                .sellingStatus(SELLING)
+                .name("아메리카노")
+                .price(4000)
+                .build();
+    }
+}
@@ -0,0 +1,144 @@
+package sample.cafekiosk.spring.api.service.product;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import sample.cafekiosk.spring.IntegrationTestSupport;
+import sample.cafekiosk.spring.api.service.product.request.ProductCreateServiceRequest;
+import sample.cafekiosk.spring.api.service.product.response.ProductResponse;
+import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductChangedEvent;
+import sample.cafekiosk.spring.domain.product.ProductRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sample.cafekiosk.spring.domain.product.ProductType.HANDMADE;
+
+class ProductNumberFilterTest extends IntegrationTestSupport {
+
+    @Autowired
+    private ProductNumberFilter productNumberFilter;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("등록된 상품번호로 필터를 만들고, 없다고 확인되는 상품번호만 돌려준다.")
+    @Test
+    void findUnknown() {
+        // given
+        productRepository.saveAll(List.of(createProduct("001"), createProduct("002")));
+        ProductNumberFilter filter = createStartedFilter(100);
+
+        // when
+        List<String> unknown = filter.findUnknown(List.of("001", "002", "unknown-001", "unknown-001"));
+
+        // then
+        assertThat(unknown).containsExactly("unknown-001");
+    }
+
+    @DisplayName("상품이 등록되면 커밋 후 필터에 반영된다.")
+    @Test
+    void registerOnCreate() {
+        // given
+        ProductResponse product = productService.createProduct(ProductCreateServiceRequest.builder()
+                .type(HANDMADE)
+                .sellingStatus(SELLING)
+                .name("아메리카노")
+                .price(4000)
+                .build());
+
+        // when
+        List<String> unknown = productNumberFilter.findUnknown(List.of(product.getProductNumber()));
+
+        // then
+        assertThat(unknown).isEmpty();
+    }
+
+    @DisplayName("상품번호가 기대 개수를 넘으면 별도 스레드에서 더 큰 필터로 다시 만들고, 등록된 상품번호를 모두 기억한다.")
+    @Test
+    void growWhenFull() throws Exception {
+        // given
+        ProductNumberFilter filter = createStartedFilter(4);
+        List<String> productNumbers = IntStream.rangeClosed(1, 50)
+                .mapToObj(i -> String.format("%03d", i))
+                .collect(Collectors.toList());
+
+        // when
+        for (String productNumber : productNumbers) {
+            productRepository.save(createProduct(productNumber));
+            filter.onProductChanged(new ProductChangedEvent(productNumber));
+        }
+
+        // then
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (filter.expectedFpp() >= 0.05 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(filter.findUnknown(productNumbers)).isEmpty();
+        assertThat(filter.expectedFpp()).isLessThan(0.05);
+        filter.stop();
+    }
+
+    @DisplayName("필터를 다시 만드는 동안 빠진 상품번호도 커밋 후 상품 변경 이벤트로 채워진다.")
+    @Test
+    void registerOnProductChanged() {
+        // given
+        ProductNumberFilter filter = createStartedFilter(100);
+
+        // when
+        filter.onProductChanged(new ProductChangedEvent(List.of("changed-001", "changed-002")));
+
+        // then
+        assertThat(filter.findUnknown(List.of("changed-001", "changed-002"))).isEmpty();
+    }
+
+    @DisplayName("없는 상품번호 주문 중 필터를 통과한 비율을 오탐률로 보고한다.")
+    @Test
+    void falsePositiveRatio() {
+        // given
+        ProductNumberFilter filter = createStartedFilter(100);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filter.bindTo(registry);
+
+        // when
+        filter.findUnknown(List.of("unknown-001"));
+        filter.findUnknown(List.of("unknown-002"));
+        filter.findUnknown(List.of("unknown-003"));
+        filter.recordFalsePositive();
+
+        // then
+        assertThat(registry.get("cafekiosk.product.number-filter.false-positive-ratio").gauge().value()).isEqualTo(0.25);
+        assertThat(registry.get("cafekiosk.product.number-filter.rejected").functionCounter().count()).isEqualTo(3);
+    }
+
+    private ProductNumberFilter createStartedFilter(long expectedInsertions) {
+        ProductNumberFilter filter = new ProductNumberFilter(productRepository, true, expectedInsertions, 0.01);
+        filter.start();
+        return filter;
+    }
+
+    private Product createProduct(String productNumber) {
+        return Product.builder()
+                .productNumber(productNumber)
+                .type(HANDMADE)
+                .sellingStatus(SELLING)
+                .name("아메리카노")
+                .price(4000)
+                .build();
+    }
+}
@@ -2,19 +2,28 @@ package sample.cafekiosk.spring.api.service.product;
 
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import sample.cafekiosk.spring.IntegrationTestSupport;
 import sample.cafekiosk.spring.api.controller.product.dto.request.ProductCreateRequest;
+import sample.cafekiosk.spring.api.service.product.request.ProductCreateServiceRequest;
 import sample.cafekiosk.spring.api.service.product.response.ProductResponse;
 import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductNumberCounterRepository;
 import sample.cafekiosk.spring.domain.product.ProductRepository;
 import sample.cafekiosk.spring.domain.product.ProductSellingStatus;
 import sample.cafekiosk.spring.domain.product.ProductType;
 
+import javax.persistence.EntityManager;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.HOLD;
 import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.STOP_SELLING;
 import static sample.cafekiosk.spring.domain.product.ProductType.HANDMADE;
 
 class ProductServiceTest extends IntegrationTestSupport {
@@ -23,6 +32,16 @@ class ProductServiceTest extends IntegrationTestSupport {
     ProductService productService;
     @Autowired
     ProductRepository productRepository;
+    @Autowired
+    ProductCatalogCache productCatalogCache;
+    @Autowired
+    ProductNumberCounterRepository productNumberCounterRepository;
+    @Autowired
+    EntityManager entityManager;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
 
     @BeforeAll
     static void beforeAll() {
@@ -41,6 +60,8 @@ class ProductServiceTest extends IntegrationTestSupport {
     @AfterEach
     void tearDown() {
         productRepository.deleteAllInBatch();
+        productCatalogCache.invalidate();
+        productNumberCounterRepository.deleteAllInBatch();
     }
 
     @DisplayName("신규 상품을 등록한다. 상품번호는 가장 최근 상품의 상품번호에서 1 증가한 값이다.")
@@ -58,7 +79,7 @@ class ProductServiceTest extends IntegrationTestSupport {
                 .build();
 
         // when
-        ProductResponse productResponse = productService.createProduct(request.toServiceRequest());
+        ProductResponse productResponse = createProductWithNewAllocator(request.toServiceRequest());
 
         // then
         assertThat(productResponse)
@@ -86,7 +107,7 @@ class ProductServiceTest extends IntegrationTestSupport {
                 .build();
 
         // when
-        ProductResponse productResponse = productService.createProduct(request.toServiceRequest());
+        ProductResponse productResponse = createProductWithNewAllocator(request.toServiceRequest());
 
         // then
         assertThat(productResponse)
@@ -101,6 +122,71 @@ class ProductServiceTest extends IntegrationTestSupport {
                 );
     }
 
+    @DisplayName("판매 중, 판매 보류 상품을 조회하고 신규 상품이 등록되면 다시 조회한다.")
+    @Test
+    void getSellingProductsAfterCreateProduct() {
+        // given
+        productRepository.saveAll(List.of(
+                createProduct("001", HANDMADE, SELLING, "아메리카노", 4000),
+                createProduct("002", HANDMADE, HOLD, "카페라떼", 4500),
+                createProduct("003", HANDMADE, STOP_SELLING, "팥빙수", 7000)
+        ));
+        productCatalogCache.invalidate();
+        assertThat(productService.getSellingProducts()).extracting("productNumber")
+                .containsExactlyInAnyOrder("001", "002");
+
+        ProductCreateRequest request = ProductCreateRequest.builder()
+                .type(HANDMADE)
+                .sellingStatus(SELLING)
+                .name("카푸치노")
+                .price(5000)
+                .build();
+
+        // when
+        createProductWithNewAllocator(request.toServiceRequest());
+
+        // then
+        assertThat(productService.getSellingProducts()).extracting("productNumber")
+                .containsExactlyInAnyOrder("001", "002", "004");
+    }
+
+    @DisplayName("상품의 판매 상태를 변경하면 변경된 상태로 메뉴를 다시 조회한다.")
+    @Test
+    void changeSellingStatus() {
+        // given
+        productRepository.saveAll(List.of(
+                createProduct("001", HANDMADE, SELLING, "아메리카노", 4000),
+                createProduct("002", HANDMADE, SELLING, "카페라떼", 4500)
+        ));
+        productCatalogCache.invalidate();
+        assertThat(productService.getSellingProducts()).hasSize(2);
+
+        // when
+        ProductResponse response = productService.changeSellingStatus("002", STOP_SELLING);
+
+        // then
+        assertThat(response.getSellingStatus()).isEqualTo(STOP_SELLING);
+        assertThat(productService.getSellingProducts()).extracting("productNumber")
+                .containsExactly("001");
+    }
+
+    @DisplayName("존재하지 않는 상품의 판매 상태는 변경할 수 없다.")
+    @Test
+    void changeSellingStatusWithUnknownProduct() {
+        // when // then
+        assertThatThrownBy(() -> productService.changeSellingStatus("999", STOP_SELLING))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("존재하지 않는 상품입니다.");
+    }
+
+    // 빈으로 등록된 할당기는 앞선 테스트에서 예약해 둔 번호를 이어서 나눠주므로, 번호를 확인하는 테스트는 새 할당기로 등록한다.
+    private ProductResponse createProductWithNewAllocator(ProductCreateServiceRequest request) {
+        ProductNumberAllocator productNumberAllocator = new ProductNumberAllocator(productNumberCounterRepository,
+                productRepository, entityManager, transactionManager, 50);
+        ProductService service = new ProductService(productRepository, productCatalogCache, productNumberAllocator, eventPublisher);
+        return new TransactionTemplate(transactionManager).execute(status -> service.createProduct(request));
+    }
+
     private Product createProduct(String productNumber, ProductType type, ProductSellingStatus selling, String name, int price) {
         return Product.builder()
                 .productNumber(productNumber)
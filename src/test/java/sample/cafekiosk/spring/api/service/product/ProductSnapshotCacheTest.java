@@ -0,0 +1,108 @@
+package sample.cafekiosk.spring.api.service.product;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import sample.cafekiosk.spring.IntegrationTestSupport;
+import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductChangedEvent;
+import sample.cafekiosk.spring.domain.product.ProductRepository;
+import sample.cafekiosk.spring.domain.product.ProductSnapshot;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.STOP_SELLING;
+import static sample.cafekiosk.spring.domain.product.ProductType.HANDMADE;
+
+class ProductSnapshotCacheTest extends IntegrationTestSupport {
+
+    @Autowired
+    private ProductLookupBatcher productLookupBatcher;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("캐시에 없는 상품만 조회해서 캐시에 넣고, 없는 상품번호는 결과에서 빠진다.")
+    @Test
+    void findAllByProductNumberIn() {
+        // given
+        productRepository.saveAll(List.of(createProduct("001", 1000), createProduct("002", 2000)));
+        ProductSnapshotCache cache = new ProductSnapshotCache(productLookupBatcher, passThroughFilter(), 100, Duration.ofMinutes(10));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        // when
+        cache.findAllByProductNumberIn(List.of("001"));
+        Map<String, ProductSnapshot> snapshots = cache.findAllByProductNumberIn(List.of("001", "002", "003"));
+
+        // then
+        assertThat(snapshots).containsOnlyKeys("001", "002");
+        assertThat(snapshots.get("002").getPrice()).isEqualTo(2000);
+        assertThat(registry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(3);
+    }
+
+    @DisplayName("캐시에 있는 상품은 DB 가 바뀌어도 상품 변경 이벤트 전까지 캐시된 값을 돌려준다.")
+    @Test
+    void findFromCacheUntilChanged() {
+        // given
+        Product product = productRepository.save(createProduct("001", 1000));
+        ProductSnapshotCache cache = new ProductSnapshotCache(productLookupBatcher, passThroughFilter(), 100, Duration.ofMinutes(10));
+        cache.findAllByProductNumberIn(List.of("001"));
+
+        product.changeSellingStatus(STOP_SELLING);
+        productRepository.save(product);
+
+        // when
+        ProductSnapshot cached = cache.findAllByProductNumberIn(List.of("001")).get("001");
+        cache.onProductChanged(new ProductChangedEvent("001"));
+        ProductSnapshot reloaded = cache.findAllByProductNumberIn(List.of("001")).get("001");
+
+        // then
+        assertThat(cached.getSellingStatus()).isEqualTo(SELLING);
+        assertThat(reloaded.getSellingStatus()).isEqualTo(STOP_SELLING);
+    }
+
+    @DisplayName("최대 개수를 넘으면 오래된 스냅샷을 내보내고 eviction 으로 기록한다.")
+    @Test
+    void evictWhenFull() {
+        // given
+        productRepository.saveAll(List.of(createProduct("001", 1000), createProduct("002", 2000), createProduct("003", 3000)));
+        ProductSnapshotCache cache = new ProductSnapshotCache(productLookupBatcher, passThroughFilter(), 2, Duration.ofMinutes(10));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        // when
+        cache.findAllByProductNumberIn(List.of("001", "002", "003"));
+
+        // then
+        assertThat(registry.get("cache.evictions").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.size").gauge().value()).isEqualTo(2);
+    }
+
+    // 시작하지 않은 필터는 모든 상품번호를 통과시킨다.
+    private ProductNumberFilter passThroughFilter() {
+        return new ProductNumberFilter(productRepository, false, 100, 0.01);
+    }
+
+    private Product createProduct(String productNumber, int price) {
+        return Product.builder()
+                .productNumber(productNumber)
+                .type(HANDMADE)
+                .sellingStatus(SELLING)
+                .name("아메리카노")
+                .price(price)
+                .build();
+    }
+}
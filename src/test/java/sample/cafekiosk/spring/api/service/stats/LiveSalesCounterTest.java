@@ -0,0 +1,189 @@
+package sample.cafekiosk.spring.api.service.stats;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import sample.cafekiosk.spring.IntegrationTestSupport;
+import sample.cafekiosk.spring.api.service.order.OrderService;
+import sample.cafekiosk.spring.api.service.order.request.OrderCreateServiceRequest;
+import sample.cafekiosk.spring.api.service.product.ProductSnapshotCache;
+import sample.cafekiosk.spring.api.service.stats.response.LiveSalesResponse;
+import sample.cafekiosk.spring.domain.order.DailySalesRepository;
+import sample.cafekiosk.spring.domain.order.Order;
+import sample.cafekiosk.spring.domain.order.OrderRepository;
+import sample.cafekiosk.spring.domain.order.OrderStatus;
+import sample.cafekiosk.spring.domain.orderproduct.OrderProductRepository;
+import sample.cafekiosk.spring.domain.product.Product;
+import sample.cafekiosk.spring.domain.product.ProductRepository;
+import sample.cafekiosk.spring.domain.product.ProductType;
+import sample.cafekiosk.spring.domain.stock.Stock;
+import sample.cafekiosk.spring.domain.stock.StockHoldRepository;
+import sample.cafekiosk.spring.domain.stock.StockRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
+import static sample.cafekiosk.spring.domain.product.ProductType.BAKERY;
+import static sample.cafekiosk.spring.domain.product.ProductType.BOTTLE;
+import static sample.cafekiosk.spring.domain.product.ProductType.HANDMADE;
+
+class LiveSalesCounterTest extends IntegrationTestSupport {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2023, 3, 5, 12, 30);
+
+    @Autowired
+    private LiveSalesCounter liveSalesCounter;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderProductRepository orderProductRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DailySalesRepository dailySalesRepository;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    @Autowired
+    private ProductSnapshotCache productSnapshotCache;
+
+    @BeforeEach
+    void setUp() {
+        // 다른 테스트에서 결제 완료된 주문이 더해져 있을 수 있으므로 비운다.
+        liveSalesCounter.rebuild(NOW);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productSnapshotCache.invalidateAll();
+        orderProductRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        dailySalesRepository.deleteAllInBatch();
+        stockRepository.deleteAllInBatch();
+        stockHoldRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("결제가 완료되면 오늘의 실시간 매출에 상품 타입별로 더해진다.")
+    @Test
+    void getTodaySalesAfterPayment() {
+        // given
+        productRepository.saveAll(List.of(
+                createProduct(HANDMADE, "001", 1000),
+                createProduct(BAKERY, "002", 3000)
+        ));
+        stockRepository.save(Stock.create("002", 10));
+        Long orderId1 = createOrder(List.of("001", "001", "002"));
+        Long orderId2 = createOrder(List.of("001"));
+        Long orderId3 = createOrder(List.of("002"));
+
+        // when
+        orderService.completePayment(orderId1, NOW.minusHours(12));
+        orderService.completePayment(orderId2, NOW.minusMinutes(1));
+        orderService.completePayment(orderId3, NOW.minusDays(1)); // 어제
+
+        // then
+        LiveSalesResponse response = liveSalesCounter.getTodaySales(NOW);
+        assertThat(response.getOrderCount()).isEqualTo(2);
+        assertThat(response.getTotalAmount()).isEqualTo(6000);
+        assertThat(response.getTypes())
+                .extracting("type", "orderCount", "amount")
+                .containsExactly(
+                        tuple(HANDMADE, 2L, 3000L),
+                        tuple(BOTTLE, 0L, 0L),
+                        tuple(BAKERY, 1L, 3000L)
+                );
+    }
+
+    @DisplayName("어제 등록하고 자정이 지나 결제한 주문은 결제한 오늘의 매출에 더해지고, 다시 채워도 같다.")
+    @Test
+    void getTodaySalesPaidAfterMidnight() {
+        // given
+        productRepository.save(createProduct(HANDMADE, "001", 1000));
+        LocalDateTime midnight = NOW.toLocalDate().atStartOfDay();
+        Long orderId = createOrder(List.of("001"), midnight.minusMinutes(5));
+
+        // when
+        orderService.completePayment(orderId, midnight.plusMinutes(5));
+
+        // then
+        assertThat(liveSalesCounter.getTodaySales(NOW).getTotalAmount()).isEqualTo(1000);
+        liveSalesCounter.rebuild(NOW);
+        assertThat(liveSalesCounter.getTodaySales(NOW).getTotalAmount()).isEqualTo(1000);
+    }
+
+    @DisplayName("오늘 결제 완료된 주문으로 실시간 매출을 다시 채운다.")
+    @Test
+    void rebuild() {
+        // given
+        Product product1 = createProduct(HANDMADE, "001", 1000);
+        Product product2 = createProduct(BOTTLE, "002", 2000);
+        productRepository.saveAll(List.of(product1, product2));
+        orderRepository.saveAll(List.of(
+                createOrder(OrderStatus.PAYMENT_COMPLETED, NOW.toLocalDate().atStartOfDay(), List.of(product1, product2)),
+                createOrder(OrderStatus.PAYMENT_COMPLETED, NOW.minusMinutes(10), List.of(product1, product1)),
+                createOrder(OrderStatus.PAYMENT_COMPLETED, NOW.minusDays(1), List.of(product2)),
+                createOrder(OrderStatus.CANCEL, NOW.minusMinutes(5), List.of(product2))
+        ));
+
+        // when
+        liveSalesCounter.rebuild(NOW);
+
+        // then
+        LiveSalesResponse response = liveSalesCounter.getTodaySales(NOW);
+        assertThat(response.getOrderCount()).isEqualTo(2);
+        assertThat(response.getTotalAmount()).isEqualTo(5000);
+        assertThat(response.getTypes())
+                .extracting("type", "orderCount", "amount")
+                .containsExactly(
+                        tuple(HANDMADE, 2L, 3000L),
+                        tuple(BOTTLE, 1L, 2000L),
+                        tuple(BAKERY, 0L, 0L)
+                );
+    }
+
+    private Long createOrder(List<String> productNumbers) {
+        return createOrder(productNumbers, LocalDateTime.now());
+    }
+
+    private Long createOrder(List<String> productNumbers, LocalDateTime registeredDateTime) {
+        OrderCreateServiceRequest request = OrderCreateServiceRequest.builder()
+                .productNumbers(productNumbers)
+                .build();
+        return orderService.createOrder(request, registeredDateTime).getId();
+    }
+
+    private Order createOrder(OrderStatus orderStatus, LocalDateTime registeredDateTime, List<Product> products) {
+        return Order.builder()
+                .products(products)
+                .orderStatus(orderStatus)
+                .registeredDateTime(registeredDateTime)
+                .build();
+    }
+
+    private Product createProduct(ProductType type, String productNumber, int price) {
+        return Product.builder()
+                .type(type)
+                .productNumber(productNumber)
+                .price(price)
+                .sellingStatus(SELLING)
+                .name("메뉴 이름")
+                .build();
+    }
+}
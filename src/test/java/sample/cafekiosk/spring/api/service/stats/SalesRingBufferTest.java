@@ -0,0 +1,94 @@
+package sample.cafekiosk.spring.api.service.stats;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static sample.cafekiosk.spring.domain.product.ProductType.BAKERY;
+import static sample.cafekiosk.spring.domain.product.ProductType.BOTTLE;
+import static sample.cafekiosk.spring.domain.product.ProductType.HANDMADE;
+
+class SalesRingBufferTest {
+
+    @DisplayName("분 bucket 에 상품 타입별 금액과 주문 수를 더하고, 기간 안의 bucket 만 합친다.")
+    @Test
+    void recordAndSum() {
+        // given
+        SalesRingBuffer ring = new SalesRingBuffer(60);
+
+        // when
+        ring.record(100, new long[]{4000, 0, 0});
+        ring.record(100, new long[]{1000, 2000, 0});
+        ring.record(101, new long[]{0, 0, 3000});
+        ring.record(102, new long[]{5000, 0, 0});
+
+        // then
+        SalesRingBuffer.Totals totals = ring.sum(100, 101);
+        assertThat(totals.getOrderCount()).isEqualTo(3);
+        assertThat(totals.getAmount(HANDMADE)).isEqualTo(5000);
+        assertThat(totals.getOrderCount(HANDMADE)).isEqualTo(2);
+        assertThat(totals.getAmount(BOTTLE)).isEqualTo(2000);
+        assertThat(totals.getAmount(BAKERY)).isEqualTo(3000);
+    }
+
+    @DisplayName("한 바퀴 지난 분이 오면 같은 자리의 이전 bucket 을 비우고, 그보다 오래된 분은 버린다.")
+    @Test
+    void recordAfterWrapAround() {
+        // given
+        SalesRingBuffer ring = new SalesRingBuffer(60);
+        ring.record(100, new long[]{1000, 0, 0});
+
+        // when
+        ring.record(160, new long[]{2000, 0, 0});
+        ring.record(100, new long[]{3000, 0, 0});
+
+        // then
+        assertThat(ring.sum(0, 159).getOrderCount()).isZero();
+        SalesRingBuffer.Totals totals = ring.sum(160, 160);
+        assertThat(totals.getOrderCount()).isEqualTo(1);
+        assertThat(totals.getAmount(HANDMADE)).isEqualTo(2000);
+    }
+
+    @DisplayName("같은 분에 동시에 더해도 누락되지 않는다.")
+    @Test
+    void recordConcurrently() throws Exception {
+        // given
+        SalesRingBuffer ring = new SalesRingBuffer(60);
+        int threads = 8;
+        int ordersPerThread = 10_000;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                for (int order = 0; order < ordersPerThread; order++) {
+                    ring.record(100, new long[]{1000, 500, 0});
+                }
+                return null;
+            }));
+        }
+
+        // when
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+
+        // then
+        SalesRingBuffer.Totals totals = ring.sum(100, 100);
+        assertThat(totals.getOrderCount()).isEqualTo((long) threads * ordersPerThread);
+        assertThat(totals.getAmount(HANDMADE)).isEqualTo(1000L * threads * ordersPerThread);
+        assertThat(totals.getOrderCount(BOTTLE)).isEqualTo((long) threads * ordersPerThread);
+        assertThat(totals.getOrderCount(BAKERY)).isZero();
+    }
+}
@@ -0,0 +1,169 @@
+package sample.cafekiosk.spring.api.service.stock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sample.cafekiosk.spring.IntegrationTestSupport;
+import sample.cafekiosk.spring.domain.stock.Stock;
+import sample.cafekiosk.spring.domain.stock.StockJdbcRepository;
+import sample.cafekiosk.spring.domain.stock.StockLedgerReservationRepository;
+import sample.cafekiosk.spring.domain.stock.StockRepository;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 하나의 인기 상품에 동시 주문이 몰리는 상황에서 재고 차감 방식별 처리량을 비교한다.
+ * ./gradlew benchmark 로 실행
+ */
+@Tag("benchmark")
+class StockDeductionStrategyBenchmarkTest extends IntegrationTestSupport {
+
+    private static final int ORDERS_PER_THREAD = 50;
+
+    @TempDir
+    Path journalDirectory;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StockJdbcRepository stockJdbcRepository;
+
+    @Autowired
+    private StockSlotRegistry stockSlotRegistry;
+
+    @Autowired
+    private StockLedgerReservationRepository reservationRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private StockLedger stockLedger;
+
+    @AfterEach
+    void tearDown() {
+        stockRepository.deleteAllInBatch();
+        reservationRepository.deleteAllInBatch();
+        stockSlotRegistry.refresh();
+    }
+
+    @DisplayName("재고 차감 방식별 동시 주문 처리량을 측정하고, 갱신 손실이 없는지 확인한다.")
+    @ParameterizedTest(name = "{0} / threads={1}")
+    @CsvSource({
+            "atomic,1", "atomic,4", "atomic,16",
+            "optimistic,1", "optimistic,4", "optimistic,16",
+            "pessimistic,1", "pessimistic,4", "pessimistic,16",
+            "ledger,1", "ledger,4", "ledger,16"
+    })
+    void contention(String mode, int threads) throws Exception {
+        measure(mode, threads, 1);
+    }
+
+    @DisplayName("인기 상품의 재고를 여러 slot 으로 나눴을 때 처리량을 측정한다.")
+    @ParameterizedTest(name = "{0} / slots={1}")
+    @CsvSource({
+            "atomic,1", "atomic,4", "atomic,8",
+            "optimistic,1", "optimistic,4", "optimistic,8"
+    })
+    void shardedContention(String mode, int slotCount) throws Exception {
+        measure(mode, 16, slotCount);
+    }
+
+    private void measure(String mode, int threads, int slotCount) throws Exception {
+        // given
+        int initialQuantity = threads * ORDERS_PER_THREAD;
+        stockRepository.saveAll(Stock.createSlots("001", initialQuantity, slotCount));
+        stockSlotRegistry.register("001", slotCount);
+
+        StockDeductionStrategy strategy = createStrategy(mode);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Map<String, Integer> quantities = new TreeMap<>(Map.of("001", 1));
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                for (int order = 0; order < ORDERS_PER_THREAD; order++) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> strategy.deduct(quantities));
+                        succeeded.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        // when
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executorService.shutdown();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+
+        // then
+        double ordersPerSecond = (succeeded.get() + failed.get()) / (elapsedNanos / 1_000_000_000.0);
+        System.out.printf("[stock-deduction] mode=%-11s threads=%2d slots=%d succeeded=%4d failed=%4d throughput=%8.1f orders/s%n",
+                mode, threads, slotCount, succeeded.get(), failed.get(), ordersPerSecond);
+
+        if (stockLedger != null) {
+            stockLedger.flush();
+        }
+        int remainingQuantity = stockRepository.findAll().stream()
+                .mapToInt(Stock::getQuantity)
+                .sum();
+        assertThat(remainingQuantity).isEqualTo(initialQuantity - succeeded.get());
+    }
+
+    private StockDeductionStrategy createStrategy(String mode) throws Exception {
+        switch (mode) {
+            case "optimistic":
+                return new OptimisticStockDeductionStrategy(dataSource, stockRepository, stockJdbcRepository, 10, Duration.ofMillis(5));
+            case "pessimistic":
+                return new PessimisticStockDeductionStrategy(stockRepository, stockJdbcRepository);
+            case "ledger":
+                stockLedger = new StockLedger(stockRepository, stockJdbcRepository, reservationRepository, entityManager,
+                        transactionManager, journalDirectory, true, Duration.ofSeconds(1));
+                stockLedger.recover();
+                return new LedgerStockDeductionStrategy(stockLedger);
+            default:
+                return new AtomicStockDeductionStrategy(stockJdbcRepository, stockRepository, stockSlotRegistry);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package sample.cafekiosk.spring.api.service.stock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sample.cafekiosk.spring.IntegrationTestSupport;
+import sample.cafekiosk.spring.domain.stock.Stock;
+import sample.cafekiosk.spring.domain.stock.StockJdbcRepository;
+import sample.cafekiosk.spring.domain.stock.StockRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class StockDeductionStrategyTest extends IntegrationTestSupport {
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StockJdbcRepository stockJdbcRepository;
+
+    @Autowired
+    private StockSlotRegistry stockSlotRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Map<String, StockDeductionStrategy> strategies;
+
+    @BeforeEach
+    void setUp() {
+        // 동시 차감 테스트가 부하에 따라 재시도 횟수를 다 쓰지 않도록 넉넉하게 둔다.
+        strategies = Map.of(
+                "atomic", new AtomicStockDeductionStrategy(stockJdbcRepository, stockRepository, stockSlotRegistry),
+                "optimistic", new OptimisticStockDeductionStrategy(dataSource, stockRepository, stockJdbcRepository, 20, Duration.ofMillis(1)),
+                "pessimistic", new PessimisticStockDeductionStrategy(stockRepository, stockJdbcRepository)
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("설정된 방식으로 상품번호별 수량만큼 재고를 차감한다.")
+    @ParameterizedTest
+    @ValueSource(strings = {"atomic", "optimistic", "pessimistic"})
+    void deduct(String mode) {
+        // given
+        stockRepository.saveAll(List.of(Stock.create("001", 2), Stock.create("002", 2)));
+
+        // when
+        deductInTransaction(mode, new TreeMap<>(Map.of("001", 2, "002", 1)));
+
+        // then
+        assertThat(stockRepository.findAll()).hasSize(2)
+                .extracting("productNumber", "quantity")
+                .containsExactlyInAnyOrder(
+                        tuple("001", 0),
+                        tuple("002", 1)
+                );
+    }
+
+    @DisplayName("재고가 부족한 상품이 있으면 예외가 발생하고 아무 재고도 차감되지 않는다.")
+    @ParameterizedTest
+    @ValueSource(strings = {"atomic", "optimistic", "pessimistic"})
+    void deductWithShortage(String mode) {
+        // given
+        stockRepository.saveAll(List.of(Stock.create("001", 2), Stock.create("002", 1)));
+
+        // when // then
+        assertThatThrownBy(() -> deductInTransaction(mode, new TreeMap<>(Map.of("001", 1, "002", 2))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("재고가 부족한 상품이 있습니다.");
+
+        assertThat(stockRepository.findAll()).hasSize(2)
+                .extracting("productNumber", "quantity")
+                .containsExactlyInAnyOrder(
+                        tuple("001", 2),
+                        tuple("002", 1)
+                );
+    }
+
+    @DisplayName("여러 slot 으로 나뉜 재고는 slot 들의 합만큼 차감할 수 있다.")
+    @ParameterizedTest
+    @ValueSource(strings = {"atomic", "optimistic", "pessimistic"})
+    void deductFromShardedStock(String mode) {
+        // given
+        stockRepository.saveAll(Stock.createSlots("001", 3, 3));
+
+        // when
+        deductInTransaction(mode, new TreeMap<>(Map.of("001", 2)));
+
+        // then
+        List<Stock> slots = stockRepository.findAll();
+        assertThat(slots).hasSize(3);
+        assertThat(slots.stream().mapToInt(Stock::getQuantity).sum()).isEqualTo(1);
+    }
+
+    @DisplayName("한 slot 으로는 부족한 상품이 여러 개여도 모든 slot 에 나눠서 차감한다.")
+    @ParameterizedTest
+    @ValueSource(strings = {"atomic", "optimistic", "pessimistic"})
+    void deductAcrossSlotsOfSeveralProducts(String mode) {
+        // given
+        stockRepository.saveAll(Stock.createSlots("001", 4, 2));
+        stockRepository.saveAll(Stock.createSlots("002", 4, 2));
+
+        // when
+        deductInTransaction(mode, new TreeMap<>(Map.of("001", 3, "002", 3)));
+
+        // then
+        assertThat(stockRepository.sumQuantityByProductNumberIn(List.of("001", "002")))
+                .extracting("productNumber", "quantity")
+                .containsExactlyInAnyOrder(
+                        tuple("001", 1L),
+                        tuple("002", 1L)
+                );
+    }
+
+    @DisplayName("한 slot 으로는 부족한 상품이 서로 엇갈린 두 주문이 동시에 차감해도 교착 상태 없이 모두 차감된다.")
+    @ParameterizedTest
+    @ValueSource(strings = {"atomic", "optimistic", "pessimistic"})
+    void deductCrossingOrdersConcurrently(String mode) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 20; round++) {
+                // given
+                stockRepository.deleteAllInBatch();
+                stockRepository.saveAll(Stock.createSlots("001", 400, 4));
+                stockRepository.saveAll(Stock.createSlots("002", 400, 4));
+                stockSlotRegistry.register("001", 4);
+                stockSlotRegistry.register("002", 4);
+                CyclicBarrier barrier = new CyclicBarrier(2);
+
+                // when
+                Future<?> first = executorService.submit(() -> {
+                    barrier.await();
+                    deductInTransaction(mode, new TreeMap<>(Map.of("001", 150, "002", 1)));
+                    return null;
+                });
+                Future<?> second = executorService.submit(() -> {
+                    barrier.await();
+                    deductInTransaction(mode, new TreeMap<>(Map.of("001", 1, "002", 150)));
+                    return null;
+                });
+                first.get(10, TimeUnit.SECONDS);
+                second.get(10, TimeUnit.SECONDS);
+
+                // then
+                assertThat(stockRepository.sumQuantityByProductNumberIn(List.of("001", "002")))
+                        .extracting("productNumber", "quantity")
+                        .containsExactlyInAnyOrder(
+                                tuple("001", 249L),
+                                tuple("002", 249L)
+                        );
+            }
+        } finally {
+            executorService.shutdownNow();
+            stockSlotRegistry.register("001", 1);
+            stockSlotRegistry.register("002", 1);
+        }
+    }
+
+    @DisplayName("차감했던 수량을 재고에 되돌린다.")
+    @ParameterizedTest
+    @ValueSource(strings = {"atomic", "optimistic", "pessimistic"})
+    void restore(String mode) {
+        // given
+        stockRepository.saveAll(List.of(Stock.create("001", 0), Stock.create("002", 1)));
+
+        // when
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> strategies.get(mode).restore(new TreeMap<>(Map.of("001", 2, "002", 1))));
+
+        // then
+        assertThat(stockRepository.findAll()).hasSize(2)
+                .extracting("productNumber", "quantity")
+                .containsExactlyInAnyOrder(
+                        tuple("001", 2),
+                        tuple("002", 2)
+                );
+    }
+
+    @DisplayName("차감으로 재고가 남지 않게 된 상품번호를 돌려준다.")
+    @ParameterizedTest
+    @ValueSource(strings = {"atomic", "optimistic", "pessimistic"})
+    void deductReturnsSoldOut(String mode) {
+        // given
+        stockRepository.saveAll(List.of(Stock.create("001", 1), Stock.create("002", 2)));
+        stockRepository.saveAll(Stock.createSlots("003", 4, 2));
+        stockRepository.saveAll(Stock.createSlots("004", 2, 2));
+        stockSlotRegistry.register("003", 2);
+        stockSlotRegistry.register("004", 2);
+
+        try {
+            // when
+            List<String> soldOut = new TransactionTemplate(transactionManager)
+                    .execute(status -> strategies.get(mode).deduct(new TreeMap<>(Map.of("001", 1, "002", 1, "003", 2, "004", 2))));
+
+            // then
+            assertThat(soldOut).containsExactlyInAnyOrder("001", "004");
+        } finally {
+            stockSlotRegistry.register("003", 1);
+            stockSlotRegistry.register("004", 1);
+        }
+    }
+
+    @DisplayName("REPEATABLE READ 에서는 재시도가 같은 snapshot 만 읽으므로 optimistic 방식을 만들 수 없다.")
+    @Test
+    void optimisticRequiresReadCommitted() throws Exception {
+        // given
+        Connection connection = mock(Connection.class);
+        given(connection.getTransactionIsolation()).willReturn(Connection.TRANSACTION_REPEATABLE_READ);
+        DataSource repeatableReadDataSource = mock(DataSource.class);
+        given(repeatableReadDataSource.getConnection()).willReturn(connection);
+
+        // when // then
+        assertThatThrownBy(() -> new OptimisticStockDeductionStrategy(repeatableReadDataSource, stockRepository,
+                stockJdbcRepository, 5, Duration.ofMillis(1)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("optimistic 재고 차감은 READ COMMITTED 이하의 격리 수준에서만 사용할 수 있습니다.");
+    }
+
+    private void deductInTransaction(String mode, Map<String, Integer> quantities) {
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> strategies.get(mode).deduct(quantities));
+    }
+}
@@ -0,0 +1,201 @@
+package sample.cafekiosk.spring.api.service.stock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sample.cafekiosk.spring.IntegrationTestSupport;
+import sample.cafekiosk.spring.domain.stock.Stock;
+import sample.cafekiosk.spring.domain.stock.StockJdbcRepository;
+import sample.cafekiosk.spring.domain.stock.StockLedgerReservationRepository;
+import sample.cafekiosk.spring.domain.stock.StockRepository;
+
+import javax.persistence.EntityManager;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class StockLedgerTest extends IntegrationTestSupport {
+
+    @TempDir
+    Path journalDirectory;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StockJdbcRepository stockJdbcRepository;
+
+    @Autowired
+    private StockLedgerReservationRepository reservationRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        stockRepository.deleteAllInBatch();
+        reservationRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("원장에서 예약하고 확정한 재고는 flush 할 때 stock 테이블에 반영된다.")
+    @Test
+    void reserveAndFlush() throws Exception {
+        // given
+        stockRepository.saveAll(List.of(Stock.create("001", 2), Stock.create("002", 2)));
+        StockLedger stockLedger = createStockLedger();
+
+        // when
+        String key = stockLedger.reserve(Map.of("001", 2, "002", 1));
+        stockLedger.confirm(key);
+
+        // then
+        assertThat(stockLedger.available("001")).isZero();
+        assertThat(stockLedger.available("002")).isEqualTo(1);
+        assertThat(stockRepository.findAll())
+                .extracting("productNumber", "quantity")
+                .containsExactlyInAnyOrder(
+                        tuple("001", 2),
+                        tuple("002", 2)
+                );
+
+        stockLedger.flush();
+        assertThat(stockRepository.findAll())
+                .extracting("productNumber", "quantity")
+                .containsExactlyInAnyOrder(
+                        tuple("001", 0),
+                        tuple("002", 1)
+                );
+    }
+
+    @DisplayName("재고가 부족한 상품이 있으면 예외가 발생하고 아무 재고도 예약되지 않는다.")
+    @Test
+    void reserveWithShortage() throws Exception {
+        // given
+        stockRepository.saveAll(List.of(Stock.create("001", 2), Stock.create("002", 1)));
+        StockLedger stockLedger = createStockLedger();
+
+        // when // then
+        assertThatThrownBy(() -> stockLedger.reserve(Map.of("001", 1, "002", 2)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("재고가 부족한 상품이 있습니다.");
+        assertThat(stockLedger.available("001")).isEqualTo(2);
+        assertThat(stockLedger.available("002")).isEqualTo(1);
+    }
+
+    @DisplayName("반영되기 전에 종료되더라도 재시작하면 journal 로 예약 내역을 복구하고 한 번만 반영한다.")
+    @Test
+    void recoverFromJournal() throws Exception {
+        // given
+        stockRepository.saveAll(Stock.createSlots("001", 10, 2));
+        StockLedger crashed = createStockLedger();
+        crashed.confirm(crashed.reserve(Map.of("001", 3)));
+        crashed.flush();
+        crashed.confirm(crashed.reserve(Map.of("001", 4)));
+
+        // when
+        StockLedger restarted = createStockLedger();
+
+        // then
+        assertThat(restarted.available("001")).isEqualTo(3);
+
+        restarted.flush();
+        restarted.flush();
+        assertThat(stockRepository.sumQuantityByProductNumberIn(List.of("001")))
+                .extracting("productNumber", "quantity")
+                .containsExactly(tuple("001", 3L));
+        assertThat(stockRepository.findAll())
+                .extracting("slot", "quantity")
+                .containsExactlyInAnyOrder(tuple(0, 2), tuple(1, 1));
+        assertThat(createStockLedger().available("001")).isEqualTo(3);
+    }
+
+    @DisplayName("주문이 커밋된 직후 확정하기 전에 종료되어도, 재시작하면 journal 에서 차감을 복구한다.")
+    @Test
+    void recoverCommittedBeforeConfirm() throws Exception {
+        // given
+        stockRepository.save(Stock.create("001", 5));
+        StockLedger crashed = createStockLedger();
+
+        // when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            crashed.reserve(Map.of("001", 2));
+            crashed.flush();
+            assertThat(stockRepository.findAll())
+                    .extracting("productNumber", "quantity")
+                    .containsExactly(tuple("001", 5));
+        });
+        StockLedger restarted = createStockLedger();
+
+        // then
+        assertThat(restarted.available("001")).isEqualTo(3);
+        restarted.flush();
+        assertThat(stockRepository.findAll())
+                .extracting("productNumber", "quantity")
+                .containsExactly(tuple("001", 3));
+        assertThat(reservationRepository.findAll()).isEmpty();
+        assertThat(createStockLedger().available("001")).isEqualTo(3);
+    }
+
+    @DisplayName("롤백된 주문의 journal 기록은 재시작해도 다시 적용되지 않는다.")
+    @Test
+    void skipRolledBackOnRecover() throws Exception {
+        // given
+        stockRepository.save(Stock.create("001", 5));
+        StockLedger crashed = createStockLedger();
+
+        // when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            crashed.reserve(Map.of("001", 2));
+            status.setRollbackOnly();
+        });
+        StockLedger restarted = createStockLedger();
+
+        // then
+        assertThat(restarted.available("001")).isEqualTo(5);
+        restarted.flush();
+        assertThat(stockRepository.findAll())
+                .extracting("productNumber", "quantity")
+                .containsExactly(tuple("001", 5));
+    }
+
+    @DisplayName("주문 트랜잭션이 롤백되면 예약했던 재고를 원장에 되돌린다.")
+    @Test
+    void releaseOnRollback() throws Exception {
+        // given
+        stockRepository.save(Stock.create("001", 2));
+        StockLedger stockLedger = createStockLedger();
+        StockDeductionStrategy strategy = new LedgerStockDeductionStrategy(stockLedger);
+
+        // when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            strategy.deduct(Map.of("001", 2));
+            status.setRollbackOnly();
+        });
+
+        // then
+        assertThat(stockLedger.available("001")).isEqualTo(2);
+        stockLedger.flush();
+        assertThat(stockRepository.findAll())
+                .extracting("productNumber", "quantity")
+                .containsExactly(tuple("001", 2));
+    }
+
+    private StockLedger createStockLedger() throws Exception {
+        StockLedger stockLedger = new StockLedger(stockRepository, stockJdbcRepository, reservationRepository, entityManager,
+                transactionManager, journalDirectory, false, Duration.ofSeconds(1));
+        stockLedger.recover();
+        return stockLedger;
+    }
+}
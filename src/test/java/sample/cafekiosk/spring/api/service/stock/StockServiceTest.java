@@ -0,0 +1,60 @@
+package sample.cafekiosk.spring.api.service.stock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import sample.cafekiosk.spring.IntegrationTestSupport;
+import sample.cafekiosk.spring.domain.stock.Stock;
+import sample.cafekiosk.spring.domain.stock.StockRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class StockServiceTest extends IntegrationTestSupport {
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StockSlotRegistry stockSlotRegistry;
+
+    @AfterEach
+    void tearDown() {
+        stockRepository.deleteAllInBatch();
+        stockSlotRegistry.refresh();
+    }
+
+    @DisplayName("상품의 재고를 주어진 개수의 slot 으로 나눈다. 전체 수량은 그대로 유지된다.")
+    @Test
+    void shard() {
+        // given
+        stockRepository.save(Stock.create("001", 10));
+
+        // when
+        stockService.shard("001", 4);
+
+        // then
+        assertThat(stockRepository.findAll()).hasSize(4)
+                .extracting("productNumber", "slot", "quantity")
+                .containsExactlyInAnyOrder(
+                        tuple("001", 0, 3),
+                        tuple("001", 1, 3),
+                        tuple("001", 2, 2),
+                        tuple("001", 3, 2)
+                );
+    }
+
+    @DisplayName("재고가 없는 상품은 slot 으로 나눌 수 없다.")
+    @Test
+    void shardWithoutStock() {
+        // when // then
+        assertThatThrownBy(() -> stockService.shard("001", 4))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("재고가 없는 상품입니다.");
+    }
+}
@@ -1,12 +1,17 @@
 package sample.cafekiosk.spring.docs.product;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.restdocs.payload.JsonFieldType;
 import sample.cafekiosk.spring.api.controller.product.ProductController;
+import sample.cafekiosk.spring.api.controller.product.ProductEventStream;
+import sample.cafekiosk.spring.api.controller.product.SellingProductsPayloadCache;
 import sample.cafekiosk.spring.api.controller.product.dto.request.ProductCreateRequest;
+import sample.cafekiosk.spring.api.service.product.ProductChangeService;
+import sample.cafekiosk.spring.api.service.product.ProductImportService;
 import sample.cafekiosk.spring.api.service.product.ProductService;
 import sample.cafekiosk.spring.api.service.product.request.ProductCreateServiceRequest;
 import sample.cafekiosk.spring.api.service.product.response.ProductResponse;
@@ -14,6 +19,8 @@ import sample.cafekiosk.spring.docs.RestDocsSupport;
 import sample.cafekiosk.spring.domain.product.ProductSellingStatus;
 import sample.cafekiosk.spring.domain.product.ProductType;
 
+import javax.validation.Validation;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
@@ -29,10 +36,15 @@ public class ProductControllerDocsTest extends RestDocsSupport {
 
     // ProductController 에 mock 의존성 주입을 위해 생성
     private final ProductService productService = Mockito.mock(ProductService.class);
+    private final SellingProductsPayloadCache sellingProductsPayloadCache = Mockito.mock(SellingProductsPayloadCache.class);
+    private final ProductChangeService productChangeService = Mockito.mock(ProductChangeService.class);
+    private final ProductEventStream productEventStream = Mockito.mock(ProductEventStream.class);
+    private final ProductImportService productImportService = Mockito.mock(ProductImportService.class);
 
     @Override
     protected Object initController() {
-        return new ProductController(productService);
+        return new ProductController(productService, sellingProductsPayloadCache, productChangeService, productEventStream,
+                productImportService, new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator());
     }
 
     @DisplayName("신규 상품을 등록하는 API")
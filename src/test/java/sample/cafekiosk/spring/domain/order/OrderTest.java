@@ -10,6 +10,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.*;
 import static sample.cafekiosk.spring.domain.product.ProductSellingStatus.SELLING;
 
@@ -66,6 +68,55 @@ class OrderTest {
         assertThat(order.getRegisteredDateTime()).isEqualTo(registeredDateTime);
     }
 
+    @DisplayName("주문 생성 시 같은 상품은 주문 상품 하나로 합치고 수량과 주문 당시 가격을 기록한다.")
+    @Test
+    void mergeOrderProducts() {
+        // given
+        List<Product> products = List.of(
+                createProduct("001", 1000),
+                createProduct("002", 2000),
+                createProduct("001", 1000)
+        );
+
+        // when
+        Order order = Order.create(products, LocalDateTime.now());
+
+        // then
+        assertThat(order.getTotalPrice()).isEqualTo(4000);
+        assertThat(order.getOrderProducts()).hasSize(2)
+                .extracting("product.productNumber", "quantity", "unitPrice")
+                .containsExactly(
+                        tuple("001", 2, 1000),
+                        tuple("002", 1, 2000)
+                );
+    }
+
+    @DisplayName("결제 대기 중인 주문은 결제 실패 상태로 바꿀 수 있다.")
+    @Test
+    void paymentFailed() {
+        // given
+        Order order = Order.create(List.of(createProduct("001", 1000)), LocalDateTime.now());
+
+        // when
+        order.paymentFailed();
+
+        // then
+        assertThat(order.getOrderStatus()).isEqualByComparingTo(OrderStatus.PAYMENT_FAILED);
+    }
+
+    @DisplayName("결제가 완료된 주문은 취소할 수 없다.")
+    @Test
+    void cancelWithPaymentCompleted() {
+        // given
+        Order order = Order.create(List.of(createProduct("001", 1000)), LocalDateTime.now());
+        order.paymentCompleted(LocalDateTime.now());
+
+        // when // then
+        assertThatThrownBy(order::cancel)
+                .isInstanceOf(OrderStatusTransitionException.class)
+                .hasMessage("결제 대기 중인 주문이 아닙니다.");
+    }
+
     private Product createProduct(String productNumber, int price){
         return Product.builder()
                 .type(ProductType.HANDMADE)
@@ -0,0 +1,95 @@
+package sample.cafekiosk.spring.domain.stock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import sample.cafekiosk.spring.IntegrationTestSupport;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class StockJdbcRepositoryTest extends IntegrationTestSupport {
+
+    @Autowired
+    private StockJdbcRepository stockJdbcRepository;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @AfterEach
+    void tearDown() {
+        stockRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("상품번호별 수량만큼 재고를 조건부로 차감하고, slot 의 마지막 수량을 가져간 상품번호를 돌려준다.")
+    @Test
+    void deductQuantities() {
+        // given
+        Stock stock1 = Stock.create("001", 2);
+        Stock stock2 = Stock.create("002", 2);
+        stockRepository.saveAll(List.of(stock1, stock2));
+
+        Map<String, Integer> quantities = new TreeMap<>(Map.of("001", 2, "002", 1));
+
+        // when
+        StockDeductResult result = stockJdbcRepository.deductQuantities(quantities, Map.of());
+
+        // then
+        assertThat(result.getFailedProductNumbers()).isEmpty();
+        assertThat(result.getEmptiedProductNumbers()).containsExactly("001");
+        assertThat(stockRepository.findAll()).hasSize(2)
+                .extracting("productNumber", "quantity")
+                .containsExactlyInAnyOrder(
+                        tuple("001", 0),
+                        tuple("002", 1)
+                );
+    }
+
+    @DisplayName("상품별로 지정한 slot 에서만 재고를 차감한다.")
+    @Test
+    void deductQuantitiesFromSlot() {
+        // given
+        stockRepository.saveAll(Stock.createSlots("001", 4, 2));
+
+        // when
+        StockDeductResult result = stockJdbcRepository.deductQuantities(Map.of("001", 2), Map.of("001", 1));
+
+        // then
+        assertThat(result.getFailedProductNumbers()).isEmpty();
+        assertThat(stockRepository.findAll()).hasSize(2)
+                .extracting("slot", "quantity")
+                .containsExactlyInAnyOrder(
+                        tuple(0, 2),
+                        tuple(1, 0)
+                );
+    }
+
+    @DisplayName("재고가 부족하거나 재고가 없는 상품은 차감하지 않고 상품번호를 돌려준다.")
+    @Test
+    void deductQuantitiesWithShortage() {
+        // given
+        Stock stock1 = Stock.create("001", 1);
+        Stock stock2 = Stock.create("002", 2);
+        stockRepository.saveAll(List.of(stock1, stock2));
+
+        Map<String, Integer> quantities = new TreeMap<>(Map.of("001", 2, "002", 1, "003", 1));
+
+        // when
+        StockDeductResult result = stockJdbcRepository.deductQuantities(quantities, Map.of());
+
+        // then
+        assertThat(result.getFailedProductNumbers()).containsExactly("001", "003");
+        assertThat(result.getEmptiedProductNumbers()).isEmpty();
+        assertThat(stockRepository.findAll()).hasSize(2)
+                .extracting("productNumber", "quantity")
+                .containsExactlyInAnyOrder(
+                        tuple("001", 1),
+                        tuple("002", 1)
+                );
+    }
+}
@@ -38,5 +38,25 @@ class StockRepositoryTest extends IntegrationTestSupport {
                 );
     }
 
+    @DisplayName("상품번호 리스트로 상품별 재고 수량을 조회한다. 여러 slot 으로 나뉜 재고는 합산한다.")
+    @Test
+    void sumQuantityByProductNumberIn() {
+        // given
+        List<Stock> slots = Stock.createSlots("001", 10, 3);
+        Stock stock2 = Stock.create("002", 2);
+        stockRepository.saveAll(slots);
+        stockRepository.save(stock2);
+
+        // when
+        List<StockQuantityView> quantities = stockRepository.sumQuantityByProductNumberIn(List.of("001", "002"));
+
+        // then
+        assertThat(quantities).hasSize(2)
+                .extracting("productNumber", "quantity")
+                .containsExactlyInAnyOrder(
+                        tuple("001", 10L),
+                        tuple("002", 2L)
+                );
+    }
 
-}
\ No newline at end of file
+}
@@ -10,6 +10,7 @@ import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
 class StockTest {
 
@@ -96,4 +97,29 @@ class StockTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("차감할 재고 수량이 없습니다.");
     }
-}
\ No newline at end of file
+
+    @DisplayName("재고를 여러 slot 으로 최대한 고르게 나눈다.")
+    @Test
+    void createSlots() {
+        // when
+        List<Stock> slots = Stock.createSlots("001", 10, 3);
+
+        // then
+        assertThat(slots).hasSize(3)
+                .extracting("productNumber", "slot", "quantity")
+                .containsExactly(
+                        tuple("001", 0, 4),
+                        tuple("001", 1, 3),
+                        tuple("001", 2, 3)
+                );
+    }
+
+    @DisplayName("재고 slot 개수는 1개 이상이어야 한다.")
+    @Test
+    void createSlotsWithZeroSlotCount() {
+        // when // then
+        assertThatThrownBy(() -> Stock.createSlots("001", 10, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("재고 slot 개수는 1개 이상이어야 합니다.");
+    }
+}